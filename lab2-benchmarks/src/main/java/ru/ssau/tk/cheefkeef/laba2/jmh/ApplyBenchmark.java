@@ -0,0 +1,58 @@
+package ru.ssau.tk.cheefkeef.laba2.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import ru.ssau.tk.cheefkeef.laba2.functions.SqrFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.ArrayTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.LinkedListTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.TabulatedFunctionFactory;
+
+import java.util.concurrent.TimeUnit;
+
+// Одиночный apply: с -prof gc gc.alloc.rate.norm должен быть ~0 байт на вызов.
+// Счётчики включаются без пересборки: -jvmArgsAppend -Dlaba2.instrumentation=true
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dlogback.configurationFile=logback-benchmarks.xml"})
+@State(Scope.Thread)
+public class ApplyBenchmark {
+    private static final int QUERIES = 1024;
+
+    @Param({"array", "linkedList"})
+    public String implementation;
+
+    @Param({"1000"})
+    public int size;
+
+    private TabulatedFunction function;
+    // Запросы вперемешку: внутри сетки, в узлах и за её краями
+    private final double[] queries = new double[QUERIES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        TabulatedFunctionFactory factory = "array".equals(implementation)
+                ? new ArrayTabulatedFunctionFactory()
+                : new LinkedListTabulatedFunctionFactory();
+        double[] xValues = new double[size];
+        double[] yValues = new double[size];
+        SqrFunction sqr = new SqrFunction();
+        for (int i = 0; i < size; i++) {
+            xValues[i] = i;
+            yValues[i] = sqr.apply(i);
+        }
+        function = factory.create(xValues, yValues);
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = (i * 7919L % (size + 2)) - 1 + (i % 3) * 0.25;
+        }
+    }
+
+    @Benchmark
+    public double apply() {
+        double x = queries[next];
+        next = (next + 1) & (QUERIES - 1);
+        return function.apply(x);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.ssau.tk.cheefkeef.laba2.jmh;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Точка входа benchmarks.jar: те же аргументы, что у org.openjdk.jmh.Main, но если формат
+// результатов не задан через -rf, они пишутся в JSON, по умолчанию в jmh-result.json (см. -rff)
+public final class BenchmarkRunner {
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-rf")) {
+            arguments.addAll(0, List.of("-rf", "json"));
+            if (!arguments.contains("-rff")) {
+                arguments.addAll(0, List.of("-rff", DEFAULT_RESULT_FILE));
+            }
+        }
+        Main.main(arguments.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,156 @@
+package ru.ssau.tk.cheefkeef.laba2.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.ssau.tk.cheefkeef.laba2.concurrent.AtomicTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.concurrent.StampedLockTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.concurrent.StripedTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.concurrent.SynchronizedTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.ArrayTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Читатели и писатели на одной общей функции, группа readWrite: read — apply и getY,
+// write — setY. Пропорцию и число потоков задаёт -tg читатели,писатели, например -tg 3,1.
+// Без -tg группа из трёх читателей и одного писателя.
+// Throughput даёт суммарную пропускную способность группы и каждой роли,
+// SampleTime — распределение задержки одной операции.
+// Варианты синхронизации (strategy):
+// wrapper — методы SynchronizedTabulatedFunction, по монитору на вызов;
+// monitor — synchronized (function) вокруг обычной функции, как в ReadTask/WriteTask;
+// doSynchronously — писатель делает getY и setY атомарно через doSynchronously, как MultiplyingTask;
+// stampedLock — StampedLockTabulatedFunction, чтения оптимистичные;
+// striped — StripedTabulatedFunction, по блокировке на полосу индексов;
+// atomic — AtomicTabulatedFunction, y меняются CAS без блокировок.
+// main перебирает пропорции от 100:0 до 50:50 и число потоков от 1 до числа ядер,
+// результат каждого запуска — в свой JSON-файл
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dlogback.configurationFile=logback-benchmarks.xml"})
+@State(Scope.Group)
+public class ConcurrencyBenchmark {
+    private static final int[] READ_PERCENTS = {100, 90, 75, 50};
+    private static final int STRIPES = 16;
+
+    @Param({"wrapper", "monitor", "doSynchronously", "stampedLock", "striped", "atomic"})
+    public String strategy;
+
+    @Param({"1000"})
+    public int size;
+
+    private TabulatedFunction function;
+    private SynchronizedTabulatedFunction synchronizedFunction;
+    // Через что читают и пишут все варианты, кроме monitor
+    private TabulatedFunction shared;
+
+    // У каждого потока свой проход по индексам, чтобы потоки не ходили строем
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+        private int step;
+
+        @Setup
+        public void setUp(ConcurrencyBenchmark benchmark) {
+            step = 1 + (int) (Thread.currentThread().threadId() % 7) * 2;
+            index = (int) (Thread.currentThread().threadId() % benchmark.size);
+        }
+
+        int next(int size) {
+            index += step;
+            if (index >= size) {
+                index -= size;
+            }
+            return index;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        double[] xValues = Grids.xValues(Grids.UNIFORM, size);
+        function = new ArrayTabulatedFunction(xValues, Grids.yValues(xValues));
+        synchronizedFunction = new SynchronizedTabulatedFunction(function);
+        shared = switch (strategy) {
+            case "stampedLock" -> new StampedLockTabulatedFunction(function);
+            case "striped" -> new StripedTabulatedFunction(function, STRIPES);
+            case "atomic" -> new AtomicTabulatedFunction(function);
+            default -> synchronizedFunction;
+        };
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public double read(Cursor cursor) {
+        int i = cursor.next(size);
+        // Столбец x никто не меняет, его можно читать без синхронизации
+        double x = function.getX(i) + 0.25;
+        if ("monitor".equals(strategy)) {
+            synchronized (function) {
+                return function.apply(x) + function.getY(i);
+            }
+        }
+        return shared.apply(x) + shared.getY(i);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void write(Cursor cursor) {
+        int i = cursor.next(size);
+        switch (strategy) {
+            case "monitor" -> {
+                synchronized (function) {
+                    function.setY(i, i);
+                }
+            }
+            case "doSynchronously" -> synchronizedFunction.doSynchronously(f -> {
+                f.setY(i, -f.getY(i));
+                return null;
+            });
+            default -> shared.setY(i, i);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions parent = new CommandLineOptions(args);
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(cores);
+
+        for (int readPercent : READ_PERCENTS) {
+            // Смешанной нагрузке нужен хотя бы один читатель и один писатель, даже на одном ядре
+            Set<Integer> counts = new LinkedHashSet<>();
+            for (int threads : threadCounts) {
+                counts.add(readPercent < 100 ? Math.max(threads, 2) : threads);
+            }
+            for (int threads : counts) {
+                int readers = Math.round(threads * readPercent / 100f);
+                if (readPercent < 100) {
+                    readers = Math.clamp(readers, 1, threads - 1);
+                }
+                int writers = threads - readers;
+                ChainedOptionsBuilder options = new OptionsBuilder()
+                        .parent(parent)
+                        .include(ConcurrencyBenchmark.class.getSimpleName() + ".readWrite")
+                        .threadGroups(readers, writers)
+                        .resultFormat(ResultFormatType.JSON)
+                        .result("jmh-concurrency-" + readPercent + "-r" + readers + "-w" + writers + ".json");
+                new Runner(options.build()).run();
+            }
+        }
+    }
+}
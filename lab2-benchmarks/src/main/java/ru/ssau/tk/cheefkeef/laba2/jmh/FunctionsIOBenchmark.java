@@ -0,0 +1,171 @@
+package ru.ssau.tk.cheefkeef.laba2.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import ru.ssau.tk.cheefkeef.laba2.functions.MappedTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.ArrayTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.LinkedListTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.TabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.io.FunctionsIO;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Все пути FunctionsIO на файлах во временном каталоге (storage=tmp) и в /dev/shm (storage=shm):
+// text — printf("%f %f") и разбор NumberFormat с русской локалью, binary — DataOutputStream,
+// serialized — ObjectOutputStream самой функции.
+// write/read в режиме Throughput; счётчики points и bytes дают точки/с и байт/с.
+// Выделения на точку — gc.alloc.rate (-prof gc), делённый на points.
+// timeToFirstValue — от открытия файла до первого y: для binary через mapTabulatedFunction,
+// для остальных форматов нужен полный разбор файла.
+// Для 50M точек нужно несколько ГБ кучи и места в /dev/shm, связный список — больше всего
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx4g",
+        "-Duser.language=ru", "-Duser.country=RU",
+        "-Dlogback.configurationFile=logback-benchmarks.xml"})
+@State(Scope.Benchmark)
+public class FunctionsIOBenchmark {
+
+    @Param({"text", "binary", "serialized"})
+    public String format;
+
+    @Param({"array", "linkedList"})
+    public String implementation;
+
+    @Param({"1000", "1000000", "50000000"})
+    public int points;
+
+    @Param({"tmp", "shm"})
+    public String storage;
+
+    private TabulatedFunctionFactory factory;
+    private TabulatedFunction function;
+    private Path directory;
+    private Path readFile;
+    private Path writeFile;
+    private long fileBytes;
+
+    // Объём, переданный за итерацию; JMH делит его на время итерации
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Volume {
+        public long points;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            points = 0;
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        factory = "array".equals(implementation)
+                ? new ArrayTabulatedFunctionFactory()
+                : new LinkedListTabulatedFunctionFactory();
+        double[] xValues = Grids.xValues(Grids.UNIFORM, points);
+        function = factory.create(xValues, Grids.yValues(xValues));
+
+        directory = switch (storage) {
+            case "tmp" -> Files.createTempDirectory("functions-io");
+            case "shm" -> Files.createTempDirectory(Path.of("/dev/shm"), "functions-io");
+            default -> throw new IllegalArgumentException("Unknown storage: " + storage);
+        };
+        readFile = directory.resolve("read." + format);
+        writeFile = directory.resolve("write." + format);
+        write(readFile);
+        fileBytes = Files.size(readFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private void write(Path file) throws IOException {
+        switch (format) {
+            case "text" -> {
+                try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                    FunctionsIO.writeTabulatedFunction(writer, function);
+                }
+            }
+            case "binary" -> {
+                try (BufferedOutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                    FunctionsIO.writeTabulatedFunction(out, function);
+                }
+            }
+            case "serialized" -> {
+                try (BufferedOutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                    FunctionsIO.serialize(out, function);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        }
+    }
+
+    private TabulatedFunction read(Path file) throws IOException, ClassNotFoundException {
+        return switch (format) {
+            case "text" -> {
+                try (BufferedReader reader = Files.newBufferedReader(file)) {
+                    yield FunctionsIO.readTabulatedFunction(reader, factory);
+                }
+            }
+            case "binary" -> {
+                try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                    yield FunctionsIO.readTabulatedFunction(in, factory);
+                }
+            }
+            case "serialized" -> {
+                try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                    yield FunctionsIO.deserialize(in);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+
+    @Benchmark
+    public void write(Volume volume) throws IOException {
+        write(writeFile);
+        volume.points += points;
+        volume.bytes += fileBytes;
+    }
+
+    @Benchmark
+    public TabulatedFunction read(Volume volume) throws IOException, ClassNotFoundException {
+        TabulatedFunction result = read(readFile);
+        volume.points += points;
+        volume.bytes += fileBytes;
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public double timeToFirstValue() throws IOException, ClassNotFoundException {
+        if ("binary".equals(format)) {
+            try (MappedTabulatedFunction mapped = FunctionsIO.mapTabulatedFunction(readFile)) {
+                return mapped.getY(0);
+            }
+        }
+        return read(readFile).getY(0);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.ssau.tk.cheefkeef.laba2.jmh;
+
+import java.util.SplittableRandom;
+
+// Сетки для бенчмарков: uniform — x[i] = i, random — случайные шаги от 0,5 до 1,5.
+// Генератор с фиксированным зерном, поэтому таблицы одинаковы во всех форках
+final class Grids {
+    static final String UNIFORM = "uniform";
+    static final String RANDOM = "random";
+
+    private Grids() {
+    }
+
+    static double[] xValues(String grid, int size) {
+        double[] xValues = new double[size];
+        if (UNIFORM.equals(grid)) {
+            for (int i = 0; i < size; i++) {
+                xValues[i] = i;
+            }
+            return xValues;
+        }
+        if (!RANDOM.equals(grid)) {
+            throw new IllegalArgumentException("Unknown grid: " + grid);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 1; i < size; i++) {
+            xValues[i] = xValues[i - 1] + 0.5 + random.nextDouble();
+        }
+        return xValues;
+    }
+
+    static double[] yValues(double[] xValues) {
+        double[] yValues = new double[xValues.length];
+        for (int i = 0; i < xValues.length; i++) {
+            yValues[i] = Math.sin(xValues[i] * 0.001) + 2;
+        }
+        return yValues;
+    }
+}
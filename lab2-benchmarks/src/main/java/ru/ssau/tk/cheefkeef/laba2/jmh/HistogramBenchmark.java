@@ -0,0 +1,71 @@
+package ru.ssau.tk.cheefkeef.laba2.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import ru.ssau.tk.cheefkeef.laba2.concurrent.AtomicTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.concurrent.StripedTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.ArrayTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Гистограмма в таблицу из всех потоков сразу: y[bin] += 1 для случайной корзины.
+// monitor — getY и setY под synchronized (function), как MultiplyingTask;
+// striped — transformY одной точки под блокировкой её полосы;
+// atomic — accumulateY у AtomicTabulatedFunction, CAS без блокировок.
+// Число потоков — -t, по умолчанию все ядра
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dlogback.configurationFile=logback-benchmarks.xml"})
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class HistogramBenchmark {
+    private static final int STRIPES = 16;
+
+    @Param({"monitor", "striped", "atomic"})
+    public String strategy;
+
+    @Param({"16", "1024"})
+    public int bins;
+
+    private TabulatedFunction function;
+    private StripedTabulatedFunction striped;
+    private AtomicTabulatedFunction atomic;
+
+    @State(Scope.Thread)
+    public static class Bins {
+        private SplittableRandom random;
+
+        @Setup
+        public void setUp() {
+            random = new SplittableRandom(Thread.currentThread().threadId());
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        double[] xValues = new double[bins];
+        for (int i = 0; i < bins; i++) {
+            xValues[i] = i;
+        }
+        function = new ArrayTabulatedFunction(xValues, new double[bins]);
+        striped = new StripedTabulatedFunction(function, STRIPES);
+        atomic = new AtomicTabulatedFunction(function);
+    }
+
+    @Benchmark
+    public void add(Bins state) {
+        int bin = state.random.nextInt(bins);
+        switch (strategy) {
+            case "monitor" -> {
+                synchronized (function) {
+                    function.setY(bin, function.getY(bin) + 1);
+                }
+            }
+            case "striped" -> striped.transformY(bin, bin + 1, y -> y + 1);
+            default -> atomic.accumulateY(bin, 1.0, Double::sum);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.ssau.tk.cheefkeef.laba2.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import ru.ssau.tk.cheefkeef.laba2.functions.Insertable;
+import ru.ssau.tk.cheefkeef.laba2.functions.Removable;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.ArrayTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.LinkedListTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.TabulatedFunctionFactory;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Вставка новой точки между случайными узлами и удаление её же: размер таблицы не меняется,
+// поэтому замер стационарный. В одной операции — insert, indexOfX и remove
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx3g",
+        "-Dlogback.configurationFile=logback-benchmarks.xml"})
+@State(Scope.Thread)
+public class InsertRemoveBenchmark {
+    private static final int QUERIES = 1024;
+
+    @Param({"array", "linkedList"})
+    public String implementation;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    @Param({Grids.UNIFORM, Grids.RANDOM})
+    public String grid;
+
+    private TabulatedFunction function;
+    private final double[] points = new double[QUERIES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        TabulatedFunctionFactory factory = "array".equals(implementation)
+                ? new ArrayTabulatedFunctionFactory()
+                : new LinkedListTabulatedFunctionFactory();
+        double[] xValues = Grids.xValues(grid, size);
+        function = factory.create(xValues, Grids.yValues(xValues));
+
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < QUERIES; i++) {
+            int index = random.nextInt(size - 1);
+            points[i] = (xValues[index] + xValues[index + 1]) / 2;
+        }
+    }
+
+    @Benchmark
+    public int insertRemove() {
+        double x = points[next];
+        next = (next + 1) & (QUERIES - 1);
+        ((Insertable) function).insert(x, 1.0);
+        ((Removable) function).remove(function.indexOfX(x));
+        return function.getCount();
+    }
+}
@@ -0,0 +1,87 @@
+package ru.ssau.tk.cheefkeef.laba2.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.ssau.tk.cheefkeef.laba2.functions.kernels.ScalarTabulatedKernels;
+import ru.ssau.tk.cheefkeef.laba2.functions.kernels.TabulatedKernels;
+import ru.ssau.tk.cheefkeef.laba2.functions.kernels.VectorTabulatedKernels;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Скалярные ядра против векторных по ширине вектора (laneBits = 0 - скалярные).
+// Ширина больше аппаратной эмулируется и работает медленно - это ожидаемо.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class KernelsBenchmark {
+
+    @Param({"0", "128", "256", "512"})
+    public int laneBits;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private TabulatedKernels kernels;
+    private double[] xValues;
+    private double[] yValues;
+    private double[] queries;
+    private int[] floors;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        kernels = laneBits == 0 ? new ScalarTabulatedKernels() : new VectorTabulatedKernels(laneBits);
+        Random random = new Random(42);
+        xValues = new double[size];
+        yValues = new double[size];
+        for (int i = 0; i < size; i++) {
+            xValues[i] = i + random.nextDouble() * 0.5;
+            yValues[i] = random.nextGaussian();
+        }
+        queries = new double[size];
+        floors = new int[size];
+        for (int i = 0; i < size; i++) {
+            floors[i] = random.nextInt(size - 1);
+            queries[i] = xValues[floors[i]] + random.nextDouble() * (xValues[floors[i] + 1] - xValues[floors[i]]);
+        }
+        out = new double[size];
+    }
+
+    @Benchmark
+    public boolean isSorted() {
+        return kernels.isSorted(xValues, 0, size);
+    }
+
+    @Benchmark
+    public int indexOfMissing() {
+        return kernels.indexOf(yValues, 0, size, 100.0);
+    }
+
+    @Benchmark
+    public void minMax(Blackhole blackhole) {
+        blackhole.consume(kernels.min(yValues, 0, size));
+        blackhole.consume(kernels.max(yValues, 0, size));
+    }
+
+    @Benchmark
+    public double[] interpolate() {
+        kernels.interpolate(queries, 0, floors, xValues, yValues, out, 0, size);
+        return out;
+    }
+
+    @Benchmark
+    public double[] add() {
+        kernels.add(xValues, yValues, out, size);
+        return out;
+    }
+
+    @Benchmark
+    public double[] divide() {
+        kernels.divide(xValues, yValues, out, size);
+        return out;
+    }
+}
@@ -0,0 +1,63 @@
+package ru.ssau.tk.cheefkeef.laba2.jmh;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import ru.ssau.tk.cheefkeef.laba2.functions.ArrayTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.SqrFunction;
+import ru.ssau.tk.cheefkeef.laba2.io.FunctionsIO;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Пропускная способность операций, которые логируют на каждом вызове, при штатном logback.xml
+// (синхронно в консоль и файл на DEBUG) и при logback-production.xml (асинхронная очередь, INFO).
+// Конфигурация подменяется в @Setup, файлы логов пишутся в logs/ рабочего каталога
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector"})
+@State(Scope.Thread)
+public class LoggingBenchmark {
+
+    @Param({"logback.xml", "logback-production.xml"})
+    public String config;
+
+    private ArrayTabulatedFunction function;
+    private BufferedOutputStream sink;
+
+    @Setup
+    public void setUp() throws Exception {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(getClass().getClassLoader().getResource(config));
+
+        function = new ArrayTabulatedFunction(new SqrFunction(), 0, 10, 100);
+        sink = new BufferedOutputStream(OutputStream.nullOutputStream());
+    }
+
+    @TearDown
+    public void tearDown() {
+        // Дописывает асинхронную очередь до следующей конфигурации
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+    }
+
+    @Benchmark
+    public int insertRemove() {
+        function.insert(5.05, 1.0);
+        function.remove(function.indexOfX(5.05));
+        return function.getCount();
+    }
+
+    @Benchmark
+    public BufferedOutputStream writeBinary() throws IOException {
+        FunctionsIO.writeTabulatedFunction(sink, function);
+        return sink;
+    }
+}
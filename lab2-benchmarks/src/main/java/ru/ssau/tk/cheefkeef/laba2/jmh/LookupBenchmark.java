@@ -0,0 +1,90 @@
+package ru.ssau.tk.cheefkeef.laba2.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.ArrayTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.LinkedListTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.TabulatedFunctionFactory;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// apply по трём областям: inside — между узлами, node — точно в узлах, extrapolated — за краями таблицы.
+// Запросы случайные и перебираются по кругу, чтобы не мерить один и тот же путь в кэше.
+// lookup=linear — базовая линия: прежний поиск интервала линейным проходом по getX за O(n),
+// с ним видно, что дал двоичный поиск (массив) и поиск от последнего узла (список).
+// Для 10^8 точек массиву нужно около 3,2 ГБ кучи на время setUp (исходные массивы и их копии),
+// связному списку — около 6 ГБ, поэтому форк запускается с -Xmx8g
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx8g",
+        "-Dlogback.configurationFile=logback-benchmarks.xml"})
+@State(Scope.Thread)
+public class LookupBenchmark {
+    private static final int QUERIES = 1024;
+
+    @Param({"array", "linkedList"})
+    public String implementation;
+
+    @Param({"10", "1000", "100000", "10000000", "100000000"})
+    public int size;
+
+    @Param({Grids.UNIFORM, Grids.RANDOM})
+    public String grid;
+
+    @Param({"inside", "node", "extrapolated"})
+    public String region;
+
+    @Param({"current", "linear"})
+    public String lookup;
+
+    private TabulatedFunction function;
+    private boolean linear;
+    private final double[] queries = new double[QUERIES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        TabulatedFunctionFactory factory = "array".equals(implementation)
+                ? new ArrayTabulatedFunctionFactory()
+                : new LinkedListTabulatedFunctionFactory();
+        double[] xValues = Grids.xValues(grid, size);
+        function = factory.create(xValues, Grids.yValues(xValues));
+        linear = "linear".equals(lookup);
+
+        SplittableRandom random = new SplittableRandom(7);
+        double left = xValues[0];
+        double right = xValues[size - 1];
+        for (int i = 0; i < QUERIES; i++) {
+            int index = random.nextInt(size - 1);
+            queries[i] = switch (region) {
+                case "inside" -> xValues[index] + (xValues[index + 1] - xValues[index]) * (0.01 + 0.98 * random.nextDouble());
+                case "node" -> xValues[index];
+                case "extrapolated" -> i % 2 == 0 ? left - 1 - random.nextDouble() * size : right + 1 + random.nextDouble() * size;
+                default -> throw new IllegalArgumentException("Unknown region: " + region);
+            };
+        }
+    }
+
+    @Benchmark
+    public double apply() {
+        double x = queries[next];
+        next = (next + 1) & (QUERIES - 1);
+        return linear ? linearApply(x) : function.apply(x);
+    }
+
+    // Интервал ищется проходом от первого узла, за краями берутся крайние интервалы, как в apply
+    private double linearApply(double x) {
+        int last = function.getCount() - 2;
+        int i = 0;
+        while (i < last && function.getX(i + 1) <= x) {
+            i++;
+        }
+        double leftX = function.getX(i);
+        double rightX = function.getX(i + 1);
+        double leftY = function.getY(i);
+        return leftY + (function.getY(i + 1) - leftY) * (x - leftX) / (rightX - leftX);
+    }
+}
@@ -0,0 +1,89 @@
+package ru.ssau.tk.cheefkeef.laba2.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.ArrayTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.LinkedListTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.TabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.io.FunctionsIO;
+import ru.ssau.tk.cheefkeef.laba2.operations.TabulatedDifferentialOperator;
+import ru.ssau.tk.cheefkeef.laba2.operations.TabulatedFunctionOperationService;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Операции над целыми таблицами. Запускать с -prof gc, чтобы видеть gc.alloc.rate.norm (байт на операцию)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx3g",
+        "-Dlogback.configurationFile=logback-benchmarks.xml"})
+@State(Scope.Benchmark)
+public class OperationsBenchmark {
+
+    @Param({"array", "linkedList"})
+    public String implementation;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    @Param({Grids.UNIFORM, Grids.RANDOM})
+    public String grid;
+
+    private TabulatedFunction first;
+    private TabulatedFunction second;
+    private TabulatedFunctionOperationService operationService;
+    private TabulatedDifferentialOperator differentialOperator;
+
+    @Setup
+    public void setUp() {
+        TabulatedFunctionFactory factory = "array".equals(implementation)
+                ? new ArrayTabulatedFunctionFactory()
+                : new LinkedListTabulatedFunctionFactory();
+        double[] xValues = Grids.xValues(grid, size);
+        double[] firstY = new double[size];
+        double[] secondY = new double[size];
+        for (int i = 0; i < size; i++) {
+            firstY[i] = Math.sin(xValues[i]);
+            secondY[i] = 2 + Math.cos(xValues[i]);
+        }
+        first = factory.create(xValues, firstY);
+        second = factory.create(xValues, secondY);
+        // Результат всегда собирается в массив, чтобы сравнивать только обход исходных таблиц
+        operationService = new TabulatedFunctionOperationService(new ArrayTabulatedFunctionFactory());
+        differentialOperator = new TabulatedDifferentialOperator(new ArrayTabulatedFunctionFactory());
+    }
+
+    @Benchmark
+    public TabulatedFunction add() {
+        return operationService.add(first, second);
+    }
+
+    @Benchmark
+    public TabulatedFunction subtract() {
+        return operationService.subtract(first, second);
+    }
+
+    @Benchmark
+    public TabulatedFunction multiply() {
+        return operationService.multiply(first, second);
+    }
+
+    @Benchmark
+    public TabulatedFunction divide() {
+        return operationService.divide(first, second);
+    }
+
+    @Benchmark
+    public TabulatedFunction derive() {
+        return differentialOperator.derive(first);
+    }
+
+    @Benchmark
+    public void writeBinary() throws IOException {
+        FunctionsIO.writeTabulatedFunction(new BufferedOutputStream(OutputStream.nullOutputStream()), first);
+    }
+}
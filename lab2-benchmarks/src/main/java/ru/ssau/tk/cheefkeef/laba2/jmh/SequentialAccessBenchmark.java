@@ -0,0 +1,59 @@
+package ru.ssau.tk.cheefkeef.laba2.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.ArrayTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.LinkedListTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.TabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.io.FunctionsIO;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Последовательный обход getX(i)/getY(i) по всей таблице. scan — сам обход, export — двоичный
+// FunctionsIO.writeTabulatedFunction в поток без записи на диск, который обходит таблицу так же.
+// Для связного списка без запоминания последнего узла обход стоил O(n^2), с ним время на точку
+// (результат, делённый на size) не растёт с размером таблицы
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dlogback.configurationFile=logback-benchmarks.xml"})
+@State(Scope.Thread)
+public class SequentialAccessBenchmark {
+
+    @Param({"array", "linkedList"})
+    public String implementation;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private TabulatedFunction function;
+
+    @Setup
+    public void setUp() {
+        TabulatedFunctionFactory factory = "array".equals(implementation)
+                ? new ArrayTabulatedFunctionFactory()
+                : new LinkedListTabulatedFunctionFactory();
+        double[] xValues = Grids.xValues(Grids.UNIFORM, size);
+        function = factory.create(xValues, Grids.yValues(xValues));
+    }
+
+    @Benchmark
+    public double scan() {
+        double sum = 0;
+        int count = function.getCount();
+        for (int i = 0; i < count; i++) {
+            sum += function.getX(i) + function.getY(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void export() throws IOException {
+        BufferedOutputStream stream = new BufferedOutputStream(OutputStream.nullOutputStream(), 1 << 16);
+        FunctionsIO.writeTabulatedFunction(stream, function);
+    }
+}
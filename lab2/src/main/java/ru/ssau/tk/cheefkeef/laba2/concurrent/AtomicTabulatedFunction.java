@@ -0,0 +1,272 @@
+package ru.ssau.tk.cheefkeef.laba2.concurrent;
+
+import ru.ssau.tk.cheefkeef.laba2.functions.AbstractTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.ConcurrentlyReadable;
+import ru.ssau.tk.cheefkeef.laba2.functions.Point;
+import ru.ssau.tk.cheefkeef.laba2.functions.PointConsumer;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+// Потокобезопасная табулированная функция на фиксированной сетке без блокировок: y хранятся
+// битами double в long[], каждое изменение — CAS через VarHandle. updateY, accumulateY
+// и getAndSetY атомарны для одной точки, поэтому счётчики вроде гистограммы по таблице
+// не теряют обновлений и не ждут друг друга.
+// Атомарность — только поэлементная: apply, снимки и обход читают точки по одной и могут
+// увидеть соседние y из разных моментов. Столбец x не меняется.
+// Вставка и удаление не поддерживаются
+public class AtomicTabulatedFunction implements TabulatedFunction, ConcurrentlyReadable, InternallySynchronized {
+    private static final VarHandle Y = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final double[] xValues;
+    private final long[] yBits;
+    private final int count;
+
+    public AtomicTabulatedFunction(double[] xValues, double[] yValues) {
+        AbstractTabulatedFunction.checkLengthIsTheSame(xValues, yValues);
+        if (xValues.length < 2) {
+            throw new IllegalArgumentException("Length is less than minimum");
+        }
+        AbstractTabulatedFunction.checkSorted(xValues);
+        this.count = xValues.length;
+        this.xValues = Arrays.copyOf(xValues, count);
+        this.yBits = new long[count];
+        for (int i = 0; i < count; i++) {
+            yBits[i] = Double.doubleToRawLongBits(yValues[i]);
+        }
+    }
+
+    public AtomicTabulatedFunction(TabulatedFunction source) {
+        this(source.toXArray(), source.toYArray());
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("Index is out of bounds");
+        }
+    }
+
+    private double load(int index) {
+        return Double.longBitsToDouble((long) Y.getVolatile(yBits, index));
+    }
+
+    // Возвращает новое значение; operator может вызываться повторно при гонке и не должен иметь побочных эффектов
+    public double updateY(int index, DoubleUnaryOperator operator) {
+        checkIndex(index);
+        long current = (long) Y.getVolatile(yBits, index);
+        while (true) {
+            double next = operator.applyAsDouble(Double.longBitsToDouble(current));
+            long nextBits = Double.doubleToRawLongBits(next);
+            long witness = (long) Y.compareAndExchange(yBits, index, current, nextBits);
+            if (witness == current) {
+                return next;
+            }
+            current = witness;
+        }
+    }
+
+    // y[index] = operator(y[index], value), возвращает новое значение
+    public double accumulateY(int index, double value, DoubleBinaryOperator operator) {
+        checkIndex(index);
+        long current = (long) Y.getVolatile(yBits, index);
+        while (true) {
+            double next = operator.applyAsDouble(Double.longBitsToDouble(current), value);
+            long nextBits = Double.doubleToRawLongBits(next);
+            long witness = (long) Y.compareAndExchange(yBits, index, current, nextBits);
+            if (witness == current) {
+                return next;
+            }
+            current = witness;
+        }
+    }
+
+    public double getAndSetY(int index, double value) {
+        checkIndex(index);
+        return Double.longBitsToDouble((long) Y.getAndSet(yBits, index, Double.doubleToRawLongBits(value)));
+    }
+
+    // Сравнение идёт по битам: -0.0 и 0.0 различаются, NaN с теми же битами совпадает
+    public boolean compareAndSetY(int index, double expected, double value) {
+        checkIndex(index);
+        return Y.compareAndSet(yBits, index, Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public double getX(int index) {
+        checkIndex(index);
+        return xValues[index];
+    }
+
+    @Override
+    public double getY(int index) {
+        checkIndex(index);
+        return load(index);
+    }
+
+    @Override
+    public void setY(int index, double value) {
+        checkIndex(index);
+        Y.setVolatile(yBits, index, Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public int indexOfX(double x) {
+        int i = lowerBound(x);
+        return i < count && xValues[i] == x ? i : -1;
+    }
+
+    @Override
+    public int indexOfY(double y) {
+        for (int i = 0; i < count; i++) {
+            if (load(i) == y) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public double leftBound() {
+        return xValues[0];
+    }
+
+    @Override
+    public double rightBound() {
+        return xValues[count - 1];
+    }
+
+    // Первый индекс i, для которого x[i] >= x
+    private int lowerBound(double x) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xValues[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public double apply(double x) {
+        if (Double.isNaN(x)) {
+            return Double.NaN;
+        }
+        int left;
+        if (x < xValues[0]) {
+            left = 0;
+        } else if (x > xValues[count - 1]) {
+            left = count - 2;
+        } else {
+            int i = lowerBound(x);
+            if (xValues[i] == x) {
+                return load(i);
+            }
+            left = i - 1;
+        }
+        double leftX = xValues[left];
+        double rightX = xValues[left + 1];
+        double leftY = load(left);
+        double rightY = load(left + 1);
+        return leftY + (rightY - leftY) * (x - leftX) / (rightX - leftX);
+    }
+
+    @Override
+    public void forEachPoint(PointConsumer action) {
+        for (int i = 0; i < count; i++) {
+            action.accept(xValues[i], load(i));
+        }
+    }
+
+    @Override
+    public void copyXInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        System.arraycopy(xValues, fromIndex, dest, destOffset, length);
+    }
+
+    @Override
+    public void copyYInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        for (int i = 0; i < length; i++) {
+            dest[destOffset + i] = load(fromIndex + i);
+        }
+    }
+
+    @Override
+    public void copyYFrom(int fromIndex, double[] source, int sourceOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(sourceOffset, length, source.length);
+        for (int i = 0; i < length; i++) {
+            Y.setVolatile(yBits, fromIndex + i, Double.doubleToRawLongBits(source[sourceOffset + i]));
+        }
+    }
+
+    // Каждая точка меняется атомарно через updateY, диапазон целиком — нет
+    @Override
+    public void transformY(int fromIndex, int toIndex, DoubleUnaryOperator operator) {
+        Objects.checkFromToIndex(fromIndex, toIndex, count);
+        for (int i = fromIndex; i < toIndex; i++) {
+            updateY(i, operator);
+        }
+    }
+
+    @Override
+    public double[] toXArray() {
+        return Arrays.copyOf(xValues, count);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(getClass().getSimpleName())
+                .append(" size = ")
+                .append(count);
+        for (int i = 0; i < count; i++) {
+            sb.append("\n[")
+                    .append(xValues[i])
+                    .append("; ")
+                    .append(load(i))
+                    .append(']');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public Iterator<Point> iterator() {
+        return new Iterator<Point>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public Point next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Point point = new Point(xValues[index], load(index));
+                index++;
+                return point;
+            }
+        };
+    }
+}
@@ -0,0 +1,6 @@
+package ru.ssau.tk.cheefkeef.laba2.concurrent;
+
+// Метка для функций, которые сами делают каждый вызов потокобезопасным (блокировкой или CAS).
+// Задачам не нужно дополнительно захватывать монитор такой функции
+public interface InternallySynchronized {
+}
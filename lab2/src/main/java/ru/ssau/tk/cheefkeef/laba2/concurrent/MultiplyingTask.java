@@ -1,8 +1,11 @@
 package ru.ssau.tk.cheefkeef.laba2.concurrent;
 
 import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.metrics.MetricsRegistry;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Timer;
 
 public class MultiplyingTask implements Runnable {
+    private static final Timer taskTimer = MetricsRegistry.getDefault().timer("concurrent.multiplyingTask");
 
     private final TabulatedFunction func;
 
@@ -12,13 +15,18 @@ public class MultiplyingTask implements Runnable {
 
     @Override
     public void run() {
-        int count = func.getCount();
-        for (int i = 0; i < count; i++) {
+        // Весь проход под одним захватом монитора вместо захвата на каждый элемент.
+        // Функциям, синхронизированным изнутри, монитор не нужен: обёртки берут свою блокировку
+        // на весь transformY, AtomicTabulatedFunction удваивает каждую точку CAS-ом
+        Timer.Sample sample = taskTimer.start();
+        if (func instanceof InternallySynchronized) {
+            func.transformY(y -> y * 2);
+        } else {
             synchronized (func) {
-                double y = func.getY(i);
-                func.setY(i, y * 2);
+                func.transformY(y -> y * 2);
             }
         }
+        sample.stop();
         System.out.println("Поток " + Thread.currentThread().getName() + " завершил выполнение задачи.");
     }
 }
\ No newline at end of file
@@ -31,8 +31,10 @@ public class MultiplyingTaskExecutor {
             thread.start();
         }
 
-        // Даём время на выполнение (2 секунды)
-        Thread.sleep(2000);
+        // Ждём завершения всех потоков
+        for (Thread thread : threads) {
+            thread.join();
+        }
 
         // Выводим результат
         System.out.println("\nРезультат после умножения:");
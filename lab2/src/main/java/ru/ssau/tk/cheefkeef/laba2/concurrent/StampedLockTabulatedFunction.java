@@ -0,0 +1,433 @@
+package ru.ssau.tk.cheefkeef.laba2.concurrent;
+
+import ru.ssau.tk.cheefkeef.laba2.functions.ConcurrentlyReadable;
+import ru.ssau.tk.cheefkeef.laba2.functions.Insertable;
+import ru.ssau.tk.cheefkeef.laba2.functions.Point;
+import ru.ssau.tk.cheefkeef.laba2.functions.PointConsumer;
+import ru.ssau.tk.cheefkeef.laba2.functions.Removable;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.jfr.LockWaitEvent;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Counter;
+import ru.ssau.tk.cheefkeef.laba2.metrics.MetricsRegistry;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Timer;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.DoubleUnaryOperator;
+
+// Потокобезопасная обёртка на StampedLock. validate замечает только запись, поэтому читатели
+// делят делегат лишь тогда, когда он ConcurrentlyReadable. Для такого делегата частые чтения
+// (apply, getCount, getX, getY, leftBound, rightBound) идут без блокировки: оптимистичное чтение,
+// затем validate; если между ними была запись, чтение повторяется под readLock. Остальные чтения
+// сразу берут readLock. При гонке со вставкой или удалением делегат может бросить исключение
+// на несогласованном состоянии, такое исключение тоже означает повтор под readLock,
+// где оно воспроизведётся, только если настоящее.
+// Делегат без этой метки может менять общее состояние при чтении, поэтому для него
+// любое чтение берёт writeLock. Изменения всегда идут под writeLock.
+// StampedLock не реентерабелен: составные операции получают делегат, а не эту обёртку
+public class StampedLockTabulatedFunction implements TabulatedFunction, Insertable, Removable, InternallySynchronized {
+
+    @FunctionalInterface
+    public interface Operation<T> {
+        T apply(TabulatedFunction function);
+    }
+
+    private static final Timer doSynchronouslyTimer = MetricsRegistry.getDefault().timer("concurrent.stampedLock.doSynchronously");
+    // Оптимистичные чтения, которые пришлось повторить под readLock
+    private static final Counter optimisticFailures = MetricsRegistry.getDefault().counter("concurrent.stampedLock.optimisticFailures");
+
+    private final TabulatedFunction delegate;
+    private final StampedLock lock = new StampedLock();
+    // Можно ли читать делегат из нескольких потоков сразу
+    private final boolean sharedReads;
+
+    public StampedLockTabulatedFunction(TabulatedFunction delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate must not be null");
+        this.sharedReads = delegate instanceof ConcurrentlyReadable;
+    }
+
+    // Штамп оптимистичного чтения или 0, если его нет: идёт запись или делегат нельзя читать параллельно
+    private long tryOptimisticRead() {
+        return sharedReads ? lock.tryOptimisticRead() : 0;
+    }
+
+    // Составная операция под writeLock
+    public <T> T doSynchronously(Operation<? extends T> operation) {
+        Timer.Sample sample = doSynchronouslyTimer.start();
+        long stamp = writeLock("doSynchronously");
+        try {
+            return operation.apply(delegate);
+        } finally {
+            lock.unlockWrite(stamp);
+            sample.stop();
+        }
+    }
+
+    // Составное чтение под readLock (writeLock для делегата без ConcurrentlyReadable): operation не должна менять функцию
+    public <T> T readSynchronously(Operation<? extends T> operation) {
+        long stamp = readLock("readSynchronously");
+        try {
+            return operation.apply(delegate);
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    // readLock для ConcurrentlyReadable делегата, иначе writeLock; отпускается через lock.unlock
+    private long readLock(String operation) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        long stamp = sharedReads ? lock.readLock() : lock.writeLock();
+        LockWaitEvent.endWait(wait, operation);
+        return stamp;
+    }
+
+    private long writeLock(String operation) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        long stamp = lock.writeLock();
+        LockWaitEvent.endWait(wait, operation);
+        return stamp;
+    }
+
+    @Override
+    public int getCount() {
+        long stamp = tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                int count = delegate.getCount();
+                if (lock.validate(stamp)) {
+                    return count;
+                }
+            } catch (RuntimeException e) {
+                // гонка с записью, повторяем под readLock
+            }
+            optimisticFailures.increment();
+        }
+        stamp = readLock("getCount");
+        try {
+            return delegate.getCount();
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public double getX(int index) {
+        long stamp = tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                double x = delegate.getX(index);
+                if (lock.validate(stamp)) {
+                    return x;
+                }
+            } catch (RuntimeException e) {
+                // гонка с записью, повторяем под readLock
+            }
+            optimisticFailures.increment();
+        }
+        stamp = readLock("getX");
+        try {
+            return delegate.getX(index);
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public double getY(int index) {
+        long stamp = tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                double y = delegate.getY(index);
+                if (lock.validate(stamp)) {
+                    return y;
+                }
+            } catch (RuntimeException e) {
+                // гонка с записью, повторяем под readLock
+            }
+            optimisticFailures.increment();
+        }
+        stamp = readLock("getY");
+        try {
+            return delegate.getY(index);
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public double leftBound() {
+        long stamp = tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                double bound = delegate.leftBound();
+                if (lock.validate(stamp)) {
+                    return bound;
+                }
+            } catch (RuntimeException e) {
+                // гонка с записью, повторяем под readLock
+            }
+            optimisticFailures.increment();
+        }
+        stamp = readLock("leftBound");
+        try {
+            return delegate.leftBound();
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public double rightBound() {
+        long stamp = tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                double bound = delegate.rightBound();
+                if (lock.validate(stamp)) {
+                    return bound;
+                }
+            } catch (RuntimeException e) {
+                // гонка с записью, повторяем под readLock
+            }
+            optimisticFailures.increment();
+        }
+        stamp = readLock("rightBound");
+        try {
+            return delegate.rightBound();
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public double apply(double x) {
+        long stamp = tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                double y = delegate.apply(x);
+                if (lock.validate(stamp)) {
+                    return y;
+                }
+            } catch (RuntimeException e) {
+                // гонка с записью, повторяем под readLock
+            }
+            optimisticFailures.increment();
+        }
+        stamp = readLock("apply");
+        try {
+            return delegate.apply(x);
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public void setY(int index, double value) {
+        long stamp = writeLock("setY");
+        try {
+            delegate.setY(index, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void insert(double x, double y) {
+        if (!(delegate instanceof Insertable insertable)) {
+            throw new UnsupportedOperationException("Delegate does not support insert");
+        }
+        long stamp = writeLock("insert");
+        try {
+            insertable.insert(x, y);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void remove(int index) {
+        if (!(delegate instanceof Removable removable)) {
+            throw new UnsupportedOperationException("Delegate does not support remove");
+        }
+        long stamp = writeLock("remove");
+        try {
+            removable.remove(index);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int indexOfX(double x) {
+        long stamp = readLock("indexOfX");
+        try {
+            return delegate.indexOfX(x);
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public int indexOfY(double y) {
+        long stamp = readLock("indexOfY");
+        try {
+            return delegate.indexOfY(y);
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public void applyAll(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        long stamp = readLock("applyAll");
+        try {
+            delegate.applyAll(xs, xsOffset, out, outOffset, length);
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    // Весь обход под одной блокировкой чтения, action не должен менять эту функцию
+    @Override
+    public void forEachPoint(PointConsumer action) {
+        long stamp = readLock("forEachPoint");
+        try {
+            delegate.forEachPoint(action);
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public void copyXInto(int fromIndex, double[] dest, int destOffset, int length) {
+        long stamp = readLock("copyXInto");
+        try {
+            delegate.copyXInto(fromIndex, dest, destOffset, length);
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public void copyYInto(int fromIndex, double[] dest, int destOffset, int length) {
+        long stamp = readLock("copyYInto");
+        try {
+            delegate.copyYInto(fromIndex, dest, destOffset, length);
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public void copyYFrom(int fromIndex, double[] source, int sourceOffset, int length) {
+        long stamp = writeLock("copyYFrom");
+        try {
+            delegate.copyYFrom(fromIndex, source, sourceOffset, length);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void transformY(DoubleUnaryOperator operator) {
+        long stamp = writeLock("transformY");
+        try {
+            delegate.transformY(operator);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void transformY(int fromIndex, int toIndex, DoubleUnaryOperator operator) {
+        long stamp = writeLock("transformY");
+        try {
+            delegate.transformY(fromIndex, toIndex, operator);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public double[] toXArray() {
+        long stamp = readLock("toXArray");
+        try {
+            return delegate.toXArray();
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public double[] toYArray() {
+        long stamp = readLock("toYArray");
+        try {
+            return delegate.toYArray();
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        long stamp = readLock("equals");
+        try {
+            return delegate.equals(obj);
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        long stamp = readLock("hashCode");
+        try {
+            return delegate.hashCode();
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public String toString() {
+        long stamp = readLock("toString");
+        try {
+            return delegate.toString();
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    // Итератор по снимку столбцов, снятому под одной блокировкой чтения
+    @Override
+    public Iterator<Point> iterator() {
+        double[] xCopy;
+        double[] yCopy;
+        long stamp = readLock("iterator");
+        try {
+            xCopy = delegate.toXArray();
+            yCopy = delegate.toYArray();
+        } finally {
+            lock.unlock(stamp);
+        }
+        return new Iterator<Point>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < xCopy.length;
+            }
+
+            @Override
+            public Point next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Point point = new Point(xCopy[index], yCopy[index]);
+                index++;
+                return point;
+            }
+        };
+    }
+}
@@ -0,0 +1,352 @@
+package ru.ssau.tk.cheefkeef.laba2.concurrent;
+
+import ru.ssau.tk.cheefkeef.laba2.functions.AbstractTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.ConcurrentlyReadable;
+import ru.ssau.tk.cheefkeef.laba2.functions.Point;
+import ru.ssau.tk.cheefkeef.laba2.functions.PointConsumer;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.jfr.LockWaitEvent;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleUnaryOperator;
+
+// Потокобезопасная табулированная функция на фиксированной сетке с разбиением индексов на полосы:
+// индексы [k * stripeSize, (k + 1) * stripeSize) охраняются своей блокировкой, поэтому setY
+// и transformY в разных полосах идут параллельно. Столбец x не меняется и читается без блокировок.
+// Операции над несколькими полосами (apply на границе полос, обход, снимки, поиск по y)
+// берут все нужные блокировки по возрастанию номера полосы и отпускают в обратном порядке,
+// поэтому взаимных блокировок нет и результат согласован.
+// Вставка и удаление не поддерживаются: они сдвигали бы границы полос
+public class StripedTabulatedFunction implements TabulatedFunction, ConcurrentlyReadable, InternallySynchronized {
+
+    private final double[] xValues;
+    private final double[] yValues;
+    private final int count;
+    private final int stripeSize;
+    private final ReentrantLock[] locks;
+
+    public StripedTabulatedFunction(double[] xValues, double[] yValues, int stripes) {
+        AbstractTabulatedFunction.checkLengthIsTheSame(xValues, yValues);
+        if (xValues.length < 2) {
+            throw new IllegalArgumentException("Length is less than minimum");
+        }
+        AbstractTabulatedFunction.checkSorted(xValues);
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Stripes count must be positive");
+        }
+        this.count = xValues.length;
+        this.xValues = Arrays.copyOf(xValues, count);
+        this.yValues = Arrays.copyOf(yValues, count);
+        int stripesCount = Math.min(stripes, count);
+        this.stripeSize = (count + stripesCount - 1) / stripesCount;
+        this.locks = new ReentrantLock[(count + stripeSize - 1) / stripeSize];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // По умолчанию полос вчетверо больше, чем ядер
+    public StripedTabulatedFunction(double[] xValues, double[] yValues) {
+        this(xValues, yValues, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    public StripedTabulatedFunction(TabulatedFunction source, int stripes) {
+        this(source.toXArray(), source.toYArray(), stripes);
+    }
+
+    public int getStripeCount() {
+        return locks.length;
+    }
+
+    // Писатели, делящие индексы по границам полос, не мешают друг другу
+    public int getStripeSize() {
+        return stripeSize;
+    }
+
+    private int stripeOf(int index) {
+        return index / stripeSize;
+    }
+
+    private void lockStripes(int fromStripe, int toStripe, String operation) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        for (int s = fromStripe; s <= toStripe; s++) {
+            locks[s].lock();
+        }
+        LockWaitEvent.endWait(wait, operation);
+    }
+
+    private void unlockStripes(int fromStripe, int toStripe) {
+        for (int s = toStripe; s >= fromStripe; s--) {
+            locks[s].unlock();
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("Index is out of bounds");
+        }
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public double getX(int index) {
+        checkIndex(index);
+        return xValues[index];
+    }
+
+    @Override
+    public double getY(int index) {
+        checkIndex(index);
+        int stripe = stripeOf(index);
+        lockStripes(stripe, stripe, "getY");
+        try {
+            return yValues[index];
+        } finally {
+            unlockStripes(stripe, stripe);
+        }
+    }
+
+    @Override
+    public void setY(int index, double value) {
+        checkIndex(index);
+        int stripe = stripeOf(index);
+        lockStripes(stripe, stripe, "setY");
+        try {
+            yValues[index] = value;
+        } finally {
+            unlockStripes(stripe, stripe);
+        }
+    }
+
+    @Override
+    public int indexOfX(double x) {
+        int i = lowerBound(x);
+        return i < count && xValues[i] == x ? i : -1;
+    }
+
+    @Override
+    public int indexOfY(double y) {
+        lockStripes(0, locks.length - 1, "indexOfY");
+        try {
+            for (int i = 0; i < count; i++) {
+                if (yValues[i] == y) {
+                    return i;
+                }
+            }
+            return -1;
+        } finally {
+            unlockStripes(0, locks.length - 1);
+        }
+    }
+
+    @Override
+    public double leftBound() {
+        return xValues[0];
+    }
+
+    @Override
+    public double rightBound() {
+        return xValues[count - 1];
+    }
+
+    // Первый индекс i, для которого x[i] >= x
+    private int lowerBound(double x) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xValues[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Узел или интерполяция между соседними узлами: одна полоса или две соседние на границе
+    @Override
+    public double apply(double x) {
+        if (Double.isNaN(x)) {
+            return Double.NaN;
+        }
+        int left;
+        if (x < xValues[0]) {
+            left = 0;
+        } else if (x > xValues[count - 1]) {
+            left = count - 2;
+        } else {
+            int i = lowerBound(x);
+            if (xValues[i] == x) {
+                return getY(i);
+            }
+            left = i - 1;
+        }
+        int fromStripe = stripeOf(left);
+        int toStripe = stripeOf(left + 1);
+        double leftY;
+        double rightY;
+        lockStripes(fromStripe, toStripe, "apply");
+        try {
+            leftY = yValues[left];
+            rightY = yValues[left + 1];
+        } finally {
+            unlockStripes(fromStripe, toStripe);
+        }
+        return interpolate(x, left, leftY, rightY);
+    }
+
+    private double interpolate(double x, int left, double leftY, double rightY) {
+        double leftX = xValues[left];
+        double rightX = xValues[left + 1];
+        return leftY + (rightY - leftY) * (x - leftX) / (rightX - leftX);
+    }
+
+    // Весь пакет считается по одному согласованному состоянию
+    @Override
+    public void applyAll(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        Objects.checkFromIndexSize(xsOffset, length, xs.length);
+        Objects.checkFromIndexSize(outOffset, length, out.length);
+        lockStripes(0, locks.length - 1, "applyAll");
+        try {
+            for (int i = 0; i < length; i++) {
+                out[outOffset + i] = apply(xs[xsOffset + i]);
+            }
+        } finally {
+            unlockStripes(0, locks.length - 1);
+        }
+    }
+
+    @Override
+    public void forEachPoint(PointConsumer action) {
+        lockStripes(0, locks.length - 1, "forEachPoint");
+        try {
+            for (int i = 0; i < count; i++) {
+                action.accept(xValues[i], yValues[i]);
+            }
+        } finally {
+            unlockStripes(0, locks.length - 1);
+        }
+    }
+
+    @Override
+    public void copyXInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        System.arraycopy(xValues, fromIndex, dest, destOffset, length);
+    }
+
+    @Override
+    public void copyYInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        if (length == 0) {
+            return;
+        }
+        int fromStripe = stripeOf(fromIndex);
+        int toStripe = stripeOf(fromIndex + length - 1);
+        lockStripes(fromStripe, toStripe, "copyYInto");
+        try {
+            System.arraycopy(yValues, fromIndex, dest, destOffset, length);
+        } finally {
+            unlockStripes(fromStripe, toStripe);
+        }
+    }
+
+    @Override
+    public void copyYFrom(int fromIndex, double[] source, int sourceOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(sourceOffset, length, source.length);
+        if (length == 0) {
+            return;
+        }
+        int fromStripe = stripeOf(fromIndex);
+        int toStripe = stripeOf(fromIndex + length - 1);
+        lockStripes(fromStripe, toStripe, "copyYFrom");
+        try {
+            System.arraycopy(source, sourceOffset, yValues, fromIndex, length);
+        } finally {
+            unlockStripes(fromStripe, toStripe);
+        }
+    }
+
+    // Берёт только полосы диапазона, поэтому части TransformYTask по границам полос не мешают друг другу
+    @Override
+    public void transformY(int fromIndex, int toIndex, DoubleUnaryOperator operator) {
+        Objects.checkFromToIndex(fromIndex, toIndex, count);
+        if (fromIndex == toIndex) {
+            return;
+        }
+        int fromStripe = stripeOf(fromIndex);
+        int toStripe = stripeOf(toIndex - 1);
+        lockStripes(fromStripe, toStripe, "transformY");
+        try {
+            for (int i = fromIndex; i < toIndex; i++) {
+                yValues[i] = operator.applyAsDouble(yValues[i]);
+            }
+        } finally {
+            unlockStripes(fromStripe, toStripe);
+        }
+    }
+
+    @Override
+    public double[] toXArray() {
+        return Arrays.copyOf(xValues, count);
+    }
+
+    @Override
+    public double[] toYArray() {
+        double[] result = new double[count];
+        copyYInto(0, result, 0, count);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        double[] yCopy = toYArray();
+        StringBuilder sb = new StringBuilder();
+        sb.append(getClass().getSimpleName())
+                .append(" size = ")
+                .append(count);
+        for (int i = 0; i < count; i++) {
+            sb.append("\n[")
+                    .append(xValues[i])
+                    .append("; ")
+                    .append(yCopy[i])
+                    .append(']');
+        }
+        return sb.toString();
+    }
+
+    // Итератор по снимку y, снятому под всеми блокировками
+    @Override
+    public Iterator<Point> iterator() {
+        double[] yCopy = toYArray();
+        return new Iterator<Point>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public Point next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Point point = new Point(xValues[index], yCopy[index]);
+                index++;
+                return point;
+            }
+        };
+    }
+}
@@ -1,14 +1,20 @@
 package ru.ssau.tk.cheefkeef.laba2.concurrent;
 
 import ru.ssau.tk.cheefkeef.laba2.functions.Point;
+import ru.ssau.tk.cheefkeef.laba2.functions.PointConsumer;
 import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
-import ru.ssau.tk.cheefkeef.laba2.operations.TabulatedFunctionOperationService;
+import ru.ssau.tk.cheefkeef.laba2.jfr.LockWaitEvent;
+import ru.ssau.tk.cheefkeef.laba2.metrics.MetricsRegistry;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Timer;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
 
-public class SynchronizedTabulatedFunction implements TabulatedFunction {
+// Все методы захватывают монитор this, поэтому внешний synchronized (function) с ними согласован.
+// Ожидание монитора пишется в JFR событием LockWaitEvent
+public class SynchronizedTabulatedFunction implements TabulatedFunction, InternallySynchronized {
 
     // Вложенный функциональный интерфейс
     @FunctionalInterface
@@ -16,6 +22,9 @@ public class SynchronizedTabulatedFunction implements TabulatedFunction {
         T apply(SynchronizedTabulatedFunction function);
     }
 
+    // Составные операции: время вместе с ожиданием монитора
+    private static final Timer doSynchronouslyTimer = MetricsRegistry.getDefault().timer("concurrent.doSynchronously");
+
     private final TabulatedFunction delegate;
 
     public SynchronizedTabulatedFunction(TabulatedFunction delegate) {
@@ -23,89 +32,225 @@ public class SynchronizedTabulatedFunction implements TabulatedFunction {
     }
 
     public <T> T doSynchronously(Operation<? extends T> operation) {
+        Timer.Sample sample = doSynchronouslyTimer.start();
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "doSynchronously");
+            T result = operation.apply(this);
+            sample.stop();
+            return result;
+        }
+    }
+
+    @Override
+    public int getCount() {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "getCount");
+            return delegate.getCount();
+        }
+    }
+
+    @Override
+    public double getX(int index) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "getX");
+            return delegate.getX(index);
+        }
+    }
+
+    @Override
+    public double getY(int index) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "getY");
+            return delegate.getY(index);
+        }
+    }
+
+    @Override
+    public void setY(int index, double value) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "setY");
+            delegate.setY(index, value);
+        }
+    }
+
+    @Override
+    public int indexOfX(double x) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "indexOfX");
+            return delegate.indexOfX(x);
+        }
+    }
+
+    @Override
+    public int indexOfY(double y) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "indexOfY");
+            return delegate.indexOfY(y);
+        }
+    }
+
+    @Override
+    public double leftBound() {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "leftBound");
+            return delegate.leftBound();
+        }
+    }
+
+    @Override
+    public double rightBound() {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "rightBound");
+            return delegate.rightBound();
+        }
+    }
+
+    @Override
+    public double apply(double x) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
         synchronized (this) {
-            return operation.apply(this);
+            LockWaitEvent.endWait(wait, "apply");
+            return delegate.apply(x);
         }
     }
 
     @Override
-    public synchronized int getCount() {
-        return delegate.getCount();
+    public void applyAll(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "applyAll");
+            delegate.applyAll(xs, xsOffset, out, outOffset, length);
+        }
     }
 
+    // Весь обход идёт под одним захватом монитора, action не должен ждать других потоков
     @Override
-    public synchronized double getX(int index) {
-        return delegate.getX(index);
+    public void forEachPoint(PointConsumer action) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "forEachPoint");
+            delegate.forEachPoint(action);
+        }
     }
 
     @Override
-    public synchronized double getY(int index) {
-        return delegate.getY(index);
+    public void copyXInto(int fromIndex, double[] dest, int destOffset, int length) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "copyXInto");
+            delegate.copyXInto(fromIndex, dest, destOffset, length);
+        }
     }
 
     @Override
-    public synchronized void setY(int index, double value) {
-        delegate.setY(index, value);
+    public void copyYInto(int fromIndex, double[] dest, int destOffset, int length) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "copyYInto");
+            delegate.copyYInto(fromIndex, dest, destOffset, length);
+        }
     }
 
     @Override
-    public synchronized int indexOfX(double x) {
-        return delegate.indexOfX(x);
+    public void copyYFrom(int fromIndex, double[] source, int sourceOffset, int length) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "copyYFrom");
+            delegate.copyYFrom(fromIndex, source, sourceOffset, length);
+        }
     }
 
     @Override
-    public synchronized int indexOfY(double y) {
-        return delegate.indexOfY(y);
+    public void transformY(DoubleUnaryOperator operator) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "transformY");
+            delegate.transformY(operator);
+        }
     }
 
+    // Один захват монитора на весь диапазон; TransformYTask вызывает его для каждой части
     @Override
-    public synchronized double leftBound() {
-        return delegate.leftBound();
+    public void transformY(int fromIndex, int toIndex, DoubleUnaryOperator operator) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "transformY");
+            delegate.transformY(fromIndex, toIndex, operator);
+        }
     }
 
+    // Размер и содержимое снимаются под одним захватом монитора
     @Override
-    public synchronized double rightBound() {
-        return delegate.rightBound();
+    public double[] toXArray() {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "toXArray");
+            return delegate.toXArray();
+        }
     }
 
     @Override
-    public synchronized double apply(double x) {
-        return delegate.apply(x);
+    public double[] toYArray() {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
+        synchronized (this) {
+            LockWaitEvent.endWait(wait, "toYArray");
+            return delegate.toYArray();
+        }
     }
 
     @Override
     public boolean equals(Object obj) {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
         synchronized (this) {
+            LockWaitEvent.endWait(wait, "equals");
             return delegate.equals(obj);
         }
     }
 
     @Override
     public int hashCode() {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
         synchronized (this) {
+            LockWaitEvent.endWait(wait, "hashCode");
             return delegate.hashCode();
         }
     }
 
     @Override
     public String toString() {
+        LockWaitEvent wait = LockWaitEvent.beginWait();
         synchronized (this) {
+            LockWaitEvent.endWait(wait, "toString");
             return delegate.toString();
         }
     }
 
+    // Итератор по снимку столбцов: точки создаются по мере обхода, а не все сразу
     @Override
     public Iterator<Point> iterator() {
-        Point[] pointsCopy;
+        double[] xCopy;
+        double[] yCopy;
+        LockWaitEvent wait = LockWaitEvent.beginWait();
         synchronized (this) {
-            pointsCopy = TabulatedFunctionOperationService.asPoints(delegate);
+            LockWaitEvent.endWait(wait, "iterator");
+            xCopy = delegate.toXArray();
+            yCopy = delegate.toYArray();
         }
         return new Iterator<Point>() {
             private int index = 0;
 
             @Override
             public boolean hasNext() {
-                return index < pointsCopy.length;
+                return index < xCopy.length;
             }
 
             @Override
@@ -113,8 +258,10 @@ public class SynchronizedTabulatedFunction implements TabulatedFunction {
                 if (!hasNext()) {
                     throw new NoSuchElementException();
                 }
-                return pointsCopy[index++];
+                Point point = new Point(xCopy[index], yCopy[index]);
+                index++;
+                return point;
             }
         };
     }
-}
\ No newline at end of file
+}
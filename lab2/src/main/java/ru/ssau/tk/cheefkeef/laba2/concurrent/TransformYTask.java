@@ -0,0 +1,71 @@
+package ru.ssau.tk.cheefkeef.laba2.concurrent;
+
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Counter;
+import ru.ssau.tk.cheefkeef.laba2.metrics.MetricsRegistry;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Timer;
+
+import java.io.Serial;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleUnaryOperator;
+
+// Параллельный transformY: диапазон индексов делится пополам, пока не станет короче partitionSize,
+// каждая часть обрабатывается одним вызовом function.transformY(from, to, operator).
+// У SynchronizedTabulatedFunction это один захват монитора на часть, а не на элемент.
+// Структура функции (число точек) во время работы меняться не должна
+public class TransformYTask extends RecursiveAction {
+    public static final int DEFAULT_PARTITION_SIZE = 4096;
+
+    // Выделения памяти считаются только в вызывающем потоке, без потоков пула
+    private static final Timer transformTimer = MetricsRegistry.getDefault().timer("concurrent.transformParallel");
+    private static final Counter partitions = MetricsRegistry.getDefault().counter("concurrent.transformYPartitions");
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Задача не сериализуется: RecursiveAction наследует Serializable от ForkJoinTask
+    private final transient TabulatedFunction function;
+    private final int fromIndex;
+    private final int toIndex;
+    private final transient DoubleUnaryOperator operator;
+    private final int partitionSize;
+
+    public TransformYTask(TabulatedFunction function, int fromIndex, int toIndex,
+                          DoubleUnaryOperator operator, int partitionSize) {
+        if (partitionSize < 1) {
+            throw new IllegalArgumentException("Partition size must be positive");
+        }
+        this.function = Objects.requireNonNull(function, "Function must not be null");
+        this.operator = Objects.requireNonNull(operator, "Operator must not be null");
+        Objects.checkFromToIndex(fromIndex, toIndex, function.getCount());
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+        this.partitionSize = partitionSize;
+    }
+
+    // Возвращает управление, когда все y преобразованы
+    public static void transformParallel(TabulatedFunction function, DoubleUnaryOperator operator) {
+        transformParallel(function, operator, ForkJoinPool.commonPool(), DEFAULT_PARTITION_SIZE);
+    }
+
+    public static void transformParallel(TabulatedFunction function, DoubleUnaryOperator operator,
+                                         ForkJoinPool pool, int partitionSize) {
+        Timer.Sample sample = transformTimer.start();
+        pool.invoke(new TransformYTask(function, 0, function.getCount(), operator, partitionSize));
+        sample.stop();
+    }
+
+    @Override
+    protected void compute() {
+        if (toIndex - fromIndex <= partitionSize) {
+            function.transformY(fromIndex, toIndex, operator);
+            partitions.increment();
+            return;
+        }
+        int middle = (fromIndex + toIndex) >>> 1;
+        invokeAll(new TransformYTask(function, fromIndex, middle, operator, partitionSize),
+                new TransformYTask(function, middle, toIndex, operator, partitionSize));
+    }
+}
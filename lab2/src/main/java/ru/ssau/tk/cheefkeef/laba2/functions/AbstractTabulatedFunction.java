@@ -2,6 +2,10 @@ package ru.ssau.tk.cheefkeef.laba2.functions;
 
 import ru.ssau.tk.cheefkeef.laba2.exceptions.ArrayIsNotSortedException;
 import ru.ssau.tk.cheefkeef.laba2.exceptions.DifferentLengthOfArraysException;
+import ru.ssau.tk.cheefkeef.laba2.functions.kernels.Kernels;
+import ru.ssau.tk.cheefkeef.laba2.jfr.TableConstructionEvent;
+
+import java.util.Objects;
 
 public abstract class AbstractTabulatedFunction implements TabulatedFunction {
 
@@ -10,12 +14,31 @@ public abstract class AbstractTabulatedFunction implements TabulatedFunction {
     protected abstract double extrapolateRight(double x);
     protected abstract double interpolate(double x, int floorIndex);
 
+    // Событие JFR о построении таблицы: startConstruction в начале конструктора, finishConstruction в конце.
+    // Реализация и размер берутся у готового объекта, поэтому каждый конструктор передаёт только источник
+    protected static TableConstructionEvent startConstruction() {
+        TableConstructionEvent event = new TableConstructionEvent();
+        event.begin();
+        return event;
+    }
+
+    protected final void finishConstruction(TableConstructionEvent event, String source) {
+        event.finish(getClass(), getCount(), source);
+    }
+
+    protected final void finishConstruction(TableConstructionEvent event, MathFunction source) {
+        finishConstruction(event, source.getClass().getSimpleName());
+    }
+
     protected double interpolate(double x, double leftX, double rightX, double leftY, double rightY) {
         return leftY + (rightY - leftY) * (x - leftX) / (rightX - leftX);
     }
 
     @Override
     public double apply(double x) {
+        if (Double.isNaN(x)) {
+            return Double.NaN;
+        }
         if (x < leftBound()) {
             return extrapolateLeft(x);
         } else if (x > rightBound()) {
@@ -31,6 +54,52 @@ public abstract class AbstractTabulatedFunction implements TabulatedFunction {
         }
     }
 
+    // Отсортированные по возрастанию запросы обрабатываются одним проходом по сетке,
+    // при шаге назад индекс ищется заново через floorIndexOfX.
+    // Результат совпадает с apply для каждой точки
+    @Override
+    public void applyAll(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        Objects.checkFromIndexSize(xsOffset, length, xs.length);
+        Objects.checkFromIndexSize(outOffset, length, out.length);
+        int count = getCount();
+        double left = leftBound();
+        double right = rightBound();
+        int floor = 0;
+        for (int i = 0; i < length; i++) {
+            double x = xs[xsOffset + i];
+            double result;
+            if (x < left) {
+                result = extrapolateLeft(x);
+            } else if (x > right) {
+                result = extrapolateRight(x);
+            } else if (Double.isNaN(x)) {
+                result = Double.NaN;
+            } else {
+                if (x >= getX(floor)) {
+                    while (floor + 1 < count && getX(floor + 1) <= x) {
+                        floor++;
+                    }
+                } else {
+                    floor = floorIndexOfX(x);
+                }
+                result = valueAtFloor(x, floor);
+            }
+            out[outOffset + i] = result;
+        }
+    }
+
+    // Значение в x по уже найденному floorIndex, с той же семантикой, что и apply:
+    // для узла берётся y первого узла с таким x
+    private double valueAtFloor(double x, int floor) {
+        if (getX(floor) == x) {
+            while (floor > 0 && getX(floor - 1) == x) {
+                floor--;
+            }
+            return getY(floor);
+        }
+        return interpolate(x, floor);
+    }
+
     public static void checkLengthIsTheSame(double[] xValues, double[] yValues) {
         if (xValues.length != yValues.length) {
             throw new DifferentLengthOfArraysException("Arrays have different length");
@@ -38,10 +107,8 @@ public abstract class AbstractTabulatedFunction implements TabulatedFunction {
     }
 
     public static void checkSorted(double[] xValues) {
-        for (int i = 0; i < xValues.length - 1; i++) {
-            if (xValues[i] > xValues[i+1]) {
-                throw new ArrayIsNotSortedException("Array is not sorted");
-            }
+        if (!Kernels.get().isSorted(xValues, 0, xValues.length)) {
+            throw new ArrayIsNotSortedException("Array is not sorted");
         }
     }
     @Override
@@ -53,18 +120,11 @@ public abstract class AbstractTabulatedFunction implements TabulatedFunction {
                 .append(count)
                 .append('\n');
 
-        Point[] points = new Point[count];
-        for (int i = 0; i < count; i++) {
-            points[i] = new Point(getX(i), getY(i));
-        }
-
-        for (Point p : points) {
-            sb.append('[')
-                    .append(p.x)
-                    .append("; ")
-                    .append(p.y)
-                    .append("]\n");
-        }
+        forEachPoint((x, y) -> sb.append('[')
+                .append(x)
+                .append("; ")
+                .append(y)
+                .append("]\n"));
 
         // Удаляем последний символ '\n', если count > 0
         if (count > 0) {
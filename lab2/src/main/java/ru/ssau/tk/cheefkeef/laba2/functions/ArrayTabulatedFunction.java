@@ -1,6 +1,12 @@
 package ru.ssau.tk.cheefkeef.laba2.functions;
 
 import ru.ssau.tk.cheefkeef.laba2.exceptions.InterpolationException;
+import ru.ssau.tk.cheefkeef.laba2.functions.kernels.Kernels;
+import ru.ssau.tk.cheefkeef.laba2.functions.kernels.TabulatedKernels;
+import ru.ssau.tk.cheefkeef.laba2.instrumentation.Instrumentation;
+import ru.ssau.tk.cheefkeef.laba2.instrumentation.Operation;
+import ru.ssau.tk.cheefkeef.laba2.instrumentation.OperationStats;
+import ru.ssau.tk.cheefkeef.laba2.jfr.TableConstructionEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,17 +14,27 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.util.Iterator;
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
 
-public class ArrayTabulatedFunction extends AbstractTabulatedFunction implements Removable, Insertable, Serializable {
+public class ArrayTabulatedFunction extends AbstractTabulatedFunction implements Removable, Insertable, ConcurrentlyReadable, Serializable {
     private static final Logger logger = LoggerFactory.getLogger(ArrayTabulatedFunction.class);
+    // На горячих путях вместо логирования — счётчики, см. Instrumentation
+    private static final OperationStats stats = Instrumentation.statsFor(ArrayTabulatedFunction.class);
+
+    private static final int APPLY_BLOCK_SIZE = 256;
 
     private double[] xValues;
     private double[] yValues;
     private int count;
+    // Равномерная сетка: индекс по x считается арифметически за O(1)
+    private boolean uniform;
+    private double step;
     @Serial
     private static final long serialVersionUID = 1601243305971609374L;
 
     public ArrayTabulatedFunction(double[] xValues, double[] yValues) {
+        TableConstructionEvent event = startConstruction();
         logger.info("Creating ArrayTabulatedFunction from arrays with length: {}", xValues.length);
 
         if (xValues.length != yValues.length || xValues.length == 0)
@@ -32,10 +48,13 @@ public class ArrayTabulatedFunction extends AbstractTabulatedFunction implements
         this.count = xValues.length;
         this.xValues = Arrays.copyOf(xValues, count);
         this.yValues = Arrays.copyOf(yValues, count);
+        detectUniformGrid();
+        finishConstruction(event, "arrays");
         logger.debug("Successfully created ArrayTabulatedFunction with {} points", count);
     }
 
     public ArrayTabulatedFunction(MathFunction source, double xFrom, double xTo, int count) {
+        TableConstructionEvent event = startConstruction();
         logger.info("Creating ArrayTabulatedFunction from function: xFrom={}, xTo={}, count={}", xFrom, xTo, count);
 
         if (count < 2) throw new IllegalArgumentException("Count is less than minimum");
@@ -52,132 +71,271 @@ public class ArrayTabulatedFunction extends AbstractTabulatedFunction implements
             logger.debug("xFrom equals xTo, creating constant function");
             Arrays.fill(xValues, xFrom);
             Arrays.fill(yValues, source.apply(xFrom));
-            logger.trace("Constant function: all y values = {}", source.apply(xFrom));
         } else {
             double step = (xTo - xFrom) / (count - 1);
             logger.debug("Step size: {}", step);
             for (int i = 0; i < count; i++) {
                 xValues[i] = xFrom + step * i;
                 yValues[i] = source.apply(xValues[i]);
-                logger.trace("Point {}: x={}, y={}", i, xValues[i], yValues[i]);
             }
+            this.uniform = true;
+            this.step = step;
         }
+        finishConstruction(event, source);
         logger.info("Successfully created ArrayTabulatedFunction from source function");
     }
 
     @Override
     public int getCount() {
-        logger.trace("Getting count: {}", count);
+        stats.increment(Operation.GET_COUNT);
         return count;
     }
     // по заданию изменение исключения
     @Override
     public double getX(int index) {
+        stats.increment(Operation.GET_X);
         if (index < 0 || index >= count) {
             logger.error("Index out of bounds: index={}, count={}", index, count);
             throw new IllegalArgumentException("Index is out of bounds");
         }
-        double value = xValues[index];
-        logger.trace("Getting x[{}] = {}", index, value);
-        return value;
+        return xValues[index];
     }
 
     @Override
     public double getY(int index) {
+        stats.increment(Operation.GET_Y);
         if (index < 0 || index >= count) {
             logger.error("Index out of bounds: index={}, count={}", index, count);
             throw new IllegalArgumentException("Index is out of bounds");
         }
-        double value = yValues[index];
-        logger.trace("Getting y[{}] = {}", index, value);
-        return value;
+        return yValues[index];
     }
 
     @Override
     public void setY(int index, double value) {
+        stats.increment(Operation.SET_Y);
         if (index < 0 || index >= count) {
             logger.error("Index out of bounds: index={}, count={}", index, count);
             throw new IllegalArgumentException("Index is out of bounds");
         }
-        double oldValue = yValues[index];
         yValues[index] = value;
-        logger.debug("Set y[{}] from {} to {}", index, oldValue, value);
     }
 
     @Override
     public int indexOfX(double x) {
-        for (int i = 0; i < count; i++) {
-            if (xValues[i] == x) {
-                logger.debug("Found x={} at index {}", x, i);
-                return i;
+        long start = stats.start();
+        try {
+            if (!(x >= xValues[0] && x <= xValues[count - 1])) {
+                return -1;
             }
+            int i = uniform ? uniformFloorIndex(x) : lowerBound(x);
+            return xValues[i] == x ? i : -1;
+        } finally {
+            stats.record(Operation.INDEX_OF_X, start);
         }
-        logger.debug("x={} not found in xValues", x);
-        return -1;
     }
 
     @Override
     public int indexOfY(double y) {
-        for (int i = 0; i < count; i++) {
-            if (yValues[i] == y) {
-                logger.debug("Found y={} at index {}", y, i);
-                return i;
-            }
+        long start = stats.start();
+        try {
+            return Kernels.get().indexOf(yValues, 0, count, y);
+        } finally {
+            stats.record(Operation.INDEX_OF_Y, start);
         }
-        logger.debug("y={} not found in yValues", y);
-        return -1;
+    }
+
+    public double minY() {
+        return Kernels.get().min(yValues, 0, count);
+    }
+
+    public double maxY() {
+        return Kernels.get().max(yValues, 0, count);
     }
 
     @Override
     public double leftBound() {
-        double bound = xValues[0];
-        logger.trace("Left bound: {}", bound);
-        return bound;
+        return xValues[0];
     }
 
     @Override
     public double rightBound() {
-        double bound = xValues[count - 1];
-        logger.trace("Right bound: {}", bound);
-        return bound;
+        return xValues[count - 1];
     }
 
     @Override
     protected int floorIndexOfX(double x) {
+        stats.increment(Operation.FLOOR_INDEX_OF_X);
         if (x < xValues[0]) {
             logger.error("X value {} is less than left bound {}", x, xValues[0]);
             throw new IllegalArgumentException("X is less than left bound");
         }
         if (x > xValues[count - 1]) return count;
-        for (int i = 0; i < count - 1; i++) {
-            if (xValues[i] <= x && x < xValues[i + 1]) {
-                logger.debug("Floor index for x={} is {}", x, i);
-                return i;
+        return uniform ? uniformFloorIndex(x) : upperBound(x) - 1;
+    }
+
+    // Для возрастающих запросов индекс двигается вперёд экспоненциальным поиском от предыдущего,
+    // поэтому и плотные, и разреженные пакеты обходят сетку не более одного раза.
+    // Индексы собираются блоками, сама интерполяция блока считается ядром из Kernels
+    @Override
+    public void applyAll(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        Objects.checkFromIndexSize(xsOffset, length, xs.length);
+        Objects.checkFromIndexSize(outOffset, length, out.length);
+        TabulatedKernels kernels = Kernels.get();
+        int blockSize = Math.min(length, APPLY_BLOCK_SIZE);
+        int[] floors = new int[blockSize];
+        // Точки вне сетки и точные узлы считаются отдельно и записываются поверх результата ядра
+        int[] specialPositions = new int[blockSize];
+        double[] specialValues = new double[blockSize];
+
+        double left = xValues[0];
+        double right = xValues[count - 1];
+        int floor = 0;
+        for (int start = 0; start < length; start += APPLY_BLOCK_SIZE) {
+            int size = Math.min(APPLY_BLOCK_SIZE, length - start);
+            int specials = 0;
+            for (int j = 0; j < size; j++) {
+                double x = xs[xsOffset + start + j];
+                double special;
+                if (x < left) {
+                    special = extrapolateLeft(x);
+                } else if (x > right) {
+                    special = extrapolateRight(x);
+                } else if (Double.isNaN(x)) {
+                    special = Double.NaN;
+                } else {
+                    if (uniform) {
+                        floor = uniformFloorIndex(x);
+                    } else if (x >= xValues[floor]) {
+                        floor = gallopFloorIndex(x, floor);
+                    } else {
+                        floor = upperBound(x) - 1;
+                    }
+                    if (xValues[floor] != x) {
+                        floors[j] = floor;
+                        continue;
+                    }
+                    int node = floor;
+                    while (node > 0 && xValues[node - 1] == x) {
+                        node--;
+                    }
+                    special = yValues[node];
+                }
+                floors[j] = 0;
+                specialPositions[specials] = j;
+                specialValues[specials] = special;
+                specials++;
+            }
+            kernels.interpolate(xs, xsOffset + start, floors, xValues, yValues, out, outOffset + start, size);
+            for (int k = 0; k < specials; k++) {
+                out[outOffset + start + specialPositions[k]] = specialValues[k];
             }
         }
-        logger.debug("Floor index for x={} is {}", x, count - 1);
-        return count - 1;
+    }
+
+    // Последний индекс с xValues[i] <= x, начиная с from (xValues[from] <= x)
+    private int gallopFloorIndex(double x, int from) {
+        int bound = 1;
+        while (from + bound < count && xValues[from + bound] <= x) {
+            bound <<= 1;
+        }
+        int low = from + (bound >> 1) + 1;
+        int high = Math.min(from + bound, count);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xValues[mid] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    // Первый индекс i, для которого xValues[i] >= x (бинарный поиск)
+    private int lowerBound(double x) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xValues[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Первый индекс i, для которого xValues[i] > x (бинарный поиск)
+    private int upperBound(double x) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xValues[mid] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Индекс считается по шагу, затем поправляется на погрешность округления.
+    // Требует xValues[0] <= x <= xValues[count - 1]
+    private int uniformFloorIndex(double x) {
+        int i = (int) ((x - xValues[0]) / step);
+        if (i < 0) {
+            i = 0;
+        } else if (i > count - 1) {
+            i = count - 1;
+        }
+        while (i < count - 1 && xValues[i + 1] <= x) {
+            i++;
+        }
+        while (i > 0 && xValues[i] > x) {
+            i--;
+        }
+        return i;
+    }
+
+    // Сетка считается равномерной, если все узлы совпадают с xValues[0] + step * i
+    // с точностью до относительной погрешности
+    private void detectUniformGrid() {
+        uniform = false;
+        double candidate = (xValues[count - 1] - xValues[0]) / (count - 1);
+        if (!(candidate > 0) || Double.isInfinite(candidate)) {
+            return;
+        }
+        double tolerance = candidate * 1e-9;
+        for (int i = 1; i < count; i++) {
+            if (Math.abs(xValues[i] - (xValues[0] + candidate * i)) > tolerance) {
+                return;
+            }
+        }
+        uniform = true;
+        step = candidate;
+        logger.debug("Detected uniform grid with step {}", step);
     }
 
     @Override
     protected double extrapolateLeft(double x) {
-        double result = interpolate(x, xValues[0], xValues[1], yValues[0], yValues[1]);
-        logger.debug("Left extrapolation for x={}: result={}", x, result);
-        return result;
+        stats.increment(Operation.EXTRAPOLATE);
+        return interpolate(x, xValues[0], xValues[1], yValues[0], yValues[1]);
     }
 
     @Override
     protected double extrapolateRight(double x) {
+        stats.increment(Operation.EXTRAPOLATE);
         int n = count - 1;
-        double result = interpolate(x, xValues[n - 1], xValues[n], yValues[n - 1], yValues[n]);
-        logger.debug("Right extrapolation for x={}: result={}", x, result);
-        return result;
+        return interpolate(x, xValues[n - 1], xValues[n], yValues[n - 1], yValues[n]);
     }
 
     @Override
     protected double interpolate(double x, int floorIndex) {
+        stats.increment(Operation.INTERPOLATE);
         if (floorIndex == count - 1) {
-            logger.debug("Interpolation at last point, returning y[{}] = {}", floorIndex, yValues[floorIndex]);
             return yValues[floorIndex];
         }
 
@@ -188,14 +346,13 @@ public class ArrayTabulatedFunction extends AbstractTabulatedFunction implements
             throw new InterpolationException("Illegal x value");
         }
 
-        double result = interpolate(x, xValues[floorIndex], xValues[floorIndex + 1],
+        return interpolate(x, xValues[floorIndex], xValues[floorIndex + 1],
                 yValues[floorIndex], yValues[floorIndex + 1]);
-        logger.debug("Interpolation for x={} at floorIndex={}: result={}", x, floorIndex, result);
-        return result;
     }
 
     @Override
     public void remove(int index) {
+        stats.increment(Operation.REMOVE);
         logger.info("Removing point at index {}", index);
 
         if (count <= 2) {
@@ -206,68 +363,111 @@ public class ArrayTabulatedFunction extends AbstractTabulatedFunction implements
             logger.error("Index out of bounds: index={}, count={}", index, count);
             throw new IllegalArgumentException("Index is out of bounds"); // изменил исключение по заданию
         }
-        double[] newX = new double[count - 1];
-        double[] newY = new double[count - 1];
-
-        System.arraycopy(xValues, 0, newX, 0, index);
-        System.arraycopy(yValues, 0, newY, 0, index);
-
-        System.arraycopy(xValues, index + 1, newX, index, count - index - 1);
-        System.arraycopy(yValues, index + 1, newY, index, count - index - 1);
-
-        xValues = newX;
-        yValues = newY;
+        // Сдвигаем хвост влево на месте, ёмкость массивов не меняется
+        System.arraycopy(xValues, index + 1, xValues, index, count - index - 1);
+        System.arraycopy(yValues, index + 1, yValues, index, count - index - 1);
         count--;
+        // Удаление крайней точки равномерную сетку не ломает
+        if (index != 0 && index != count) {
+            uniform = false;
+        }
 
         logger.debug("Successfully removed point at index {}. New count: {}", index, count);
     }
 
     @Override
     public void insert(double x, double y) {
+        stats.increment(Operation.INSERT);
         logger.info("Inserting point: x={}, y={}", x, y);
 
-        int existingIndex = indexOfX(x);
-        if (existingIndex != -1) {
-            logger.debug("Point with x={} already exists at index {}, updating y value", x, existingIndex);
-            yValues[existingIndex] = y;
+        int insertIndex = lowerBound(x);
+        if (insertIndex < count && xValues[insertIndex] == x) {
+            logger.debug("Point with x={} already exists at index {}, updating y value", x, insertIndex);
+            yValues[insertIndex] = y;
             return;
         }
 
-        int insertIndex = 0;
-        while (insertIndex < count && xValues[insertIndex] < x) {
-            insertIndex++;
+        ensureCapacity(count + 1);
+        // Сдвигаем хвост вправо на месте
+        System.arraycopy(xValues, insertIndex, xValues, insertIndex + 1, count - insertIndex);
+        System.arraycopy(yValues, insertIndex, yValues, insertIndex + 1, count - insertIndex);
+        xValues[insertIndex] = x;
+        yValues[insertIndex] = y;
+        count++;
+        uniform = false;
+
+        logger.debug("Successfully inserted point at index {}. New count: {}", insertIndex, count);
+    }
+
+    // Гарантирует место под minCapacity точек без перевыделения массивов.
+    // Рост в полтора раза, поэтому серия вставок стоит амортизированно O(log n + сдвиг)
+    public void ensureCapacity(int minCapacity) {
+        int capacity = xValues.length;
+        if (minCapacity <= capacity) {
+            return;
         }
+        int newCapacity = Math.max(minCapacity, capacity + (capacity >> 1));
+        if (newCapacity < 0) {
+            newCapacity = minCapacity;
+        }
+        xValues = Arrays.copyOf(xValues, newCapacity);
+        yValues = Arrays.copyOf(yValues, newCapacity);
+        logger.debug("Capacity grown from {} to {}", capacity, newCapacity);
+    }
 
-        double[] newX = new double[count + 1];
-        double[] newY = new double[count + 1];
+    // Отдаёт лишнюю ёмкость, например после серии вставок или перед сериализацией
+    public void trimToSize() {
+        if (xValues.length > count) {
+            xValues = Arrays.copyOf(xValues, count);
+            yValues = Arrays.copyOf(yValues, count);
+            logger.debug("Capacity trimmed to {}", count);
+        }
+    }
 
-        System.arraycopy(xValues, 0, newX, 0, insertIndex);
-        System.arraycopy(yValues, 0, newY, 0, insertIndex);
+    @Override
+    public void copyXInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        System.arraycopy(xValues, fromIndex, dest, destOffset, length);
+    }
 
-        newX[insertIndex] = x;
-        newY[insertIndex] = y;
+    @Override
+    public void copyYInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        System.arraycopy(yValues, fromIndex, dest, destOffset, length);
+    }
 
-        System.arraycopy(xValues, insertIndex, newX, insertIndex + 1, count - insertIndex);
-        System.arraycopy(yValues, insertIndex, newY, insertIndex + 1, count - insertIndex);
+    @Override
+    public void copyYFrom(int fromIndex, double[] source, int sourceOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(sourceOffset, length, source.length);
+        System.arraycopy(source, sourceOffset, yValues, fromIndex, length);
+    }
 
-        xValues = newX;
-        yValues = newY;
-        count++;
+    @Override
+    public void transformY(int fromIndex, int toIndex, DoubleUnaryOperator operator) {
+        Objects.checkFromToIndex(fromIndex, toIndex, count);
+        for (int i = fromIndex; i < toIndex; i++) {
+            yValues[i] = operator.applyAsDouble(yValues[i]);
+        }
+    }
 
-        logger.debug("Successfully inserted point at index {}. New count: {}", insertIndex, count);
+    @Override
+    public void forEachPoint(PointConsumer action) {
+        for (int i = 0; i < count; i++) {
+            action.accept(xValues[i], yValues[i]);
+        }
     }
 
     @Override
     public Iterator<Point> iterator() {
-        logger.trace("Creating iterator for ArrayTabulatedFunction");
         return new Iterator<Point>() {
             private int i = 0; // текущий индекс
 
             @Override
             public boolean hasNext() {
-                boolean hasNext = i < count;
-                logger.trace("Iterator hasNext: {} (i={}, count={})", hasNext, i, count);
-                return hasNext;
+                return i < count;
             }
 
             @Override
@@ -277,7 +477,6 @@ public class ArrayTabulatedFunction extends AbstractTabulatedFunction implements
                     throw new java.util.NoSuchElementException();
                 }
                 Point point = new Point(xValues[i], yValues[i]);
-                logger.trace("Iterator next: point[{}] = ({}, {})", i, point.x, point.y);
                 i++;
                 return point;
             }
@@ -0,0 +1,666 @@
+package ru.ssau.tk.cheefkeef.laba2.functions;
+
+import ru.ssau.tk.cheefkeef.laba2.exceptions.InterpolationException;
+import ru.ssau.tk.cheefkeef.laba2.jfr.TableConstructionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+
+// Изменяемая табулированная функция для больших таблиц: x и y лежат в листах-массивах по LEAF_CAPACITY
+// точек под B+-деревом с ветвлением до BRANCH_CAPACITY. Узлы знают число точек в поддереве,
+// поэтому insert, remove, getX(i) и floorIndexOfX работают за O(log n), а листы связаны
+// в список для последовательных обходов.
+// Память на точку зависит от заполнения листов, массивы которых всегда полной ёмкости. Замер на миллионе
+// точек (рост занятой кучи после GC, JDK 21, сжатые ссылки): ~19 байт после построения из массивов,
+// ~24 после вставок в случайном порядке, ~33 после вставок по возрастанию, где каждый лист после
+// деления остаётся заполнен наполовину. У LinkedListTabulatedFunction в том же замере ~41 байт
+public class BPlusTreeTabulatedFunction extends AbstractTabulatedFunction implements Insertable, Removable, ConcurrentlyReadable, Serializable {
+    private static final Logger logger = LoggerFactory.getLogger(BPlusTreeTabulatedFunction.class);
+
+    static final int LEAF_CAPACITY = 128;
+    static final int BRANCH_CAPACITY = 32;
+    // Лист меньше этого размера после удаления сливается с соседом, если они помещаются в один лист
+    private static final int LEAF_MERGE_THRESHOLD = LEAF_CAPACITY / 4;
+    // То же для ветвей по числу потомков, иначе после удалений корень остаётся над почти пустыми ветвями
+    private static final int BRANCH_MERGE_THRESHOLD = BRANCH_CAPACITY / 4;
+
+    @Serial
+    private static final long serialVersionUID = -3304723011518733472L;
+
+    private abstract static class Node {
+        // Число точек в поддереве
+        int size;
+    }
+
+    private static final class Leaf extends Node {
+        final double[] xs = new double[LEAF_CAPACITY];
+        final double[] ys = new double[LEAF_CAPACITY];
+        Leaf prev;
+        Leaf next;
+    }
+
+    // Массивы на один элемент больше ёмкости: переполненный узел делится сразу после вставки
+    private static final class Branch extends Node {
+        final Node[] children = new Node[BRANCH_CAPACITY + 1];
+        final double[] firstXs = new double[BRANCH_CAPACITY + 1];
+        int childCount;
+
+        // Последний потомок с первым x <= x (или первый потомок, если таких нет)
+        int childForX(double x) {
+            int c = 0;
+            while (c + 1 < childCount && firstXs[c + 1] <= x) {
+                c++;
+            }
+            return c;
+        }
+
+        // Последний потомок с первым x < x (или первый потомок, если таких нет)
+        int childBeforeX(double x) {
+            int c = 0;
+            while (c + 1 < childCount && firstXs[c + 1] < x) {
+                c++;
+            }
+            return c;
+        }
+
+        void insertChild(int position, Node child) {
+            System.arraycopy(children, position, children, position + 1, childCount - position);
+            System.arraycopy(firstXs, position, firstXs, position + 1, childCount - position);
+            children[position] = child;
+            firstXs[position] = firstX(child);
+            childCount++;
+        }
+
+        void removeChild(int position) {
+            System.arraycopy(children, position + 1, children, position, childCount - position - 1);
+            System.arraycopy(firstXs, position + 1, firstXs, position, childCount - position - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+    }
+
+    // Лист и позиция в нём для диапазонных операций
+    private static final class Position {
+        Leaf leaf;
+        int index;
+    }
+
+    private transient Node root;
+    private transient Leaf firstLeaf;
+    private transient int count;
+
+    public BPlusTreeTabulatedFunction(double[] xValues, double[] yValues) {
+        TableConstructionEvent event = startConstruction();
+        logger.info("Creating BPlusTreeTabulatedFunction from arrays with length: {}", xValues.length);
+
+        if (xValues.length != yValues.length || xValues.length < 2) {
+            throw new IllegalArgumentException("Arrays must be of equal length with at least 2 points");
+        }
+        AbstractTabulatedFunction.checkSorted(xValues);
+
+        build(xValues, yValues, xValues.length);
+        finishConstruction(event, "arrays");
+        logger.debug("Successfully created BPlusTreeTabulatedFunction with {} points", count);
+    }
+
+    public BPlusTreeTabulatedFunction(MathFunction source, double xFrom, double xTo, int count) {
+        this(new ArrayTabulatedFunction(source, xFrom, xTo, count));
+    }
+
+    public BPlusTreeTabulatedFunction(TabulatedFunction source) {
+        this(source.toXArray(), source.toYArray());
+    }
+
+    // Листы заполняются целиком, уровни ветвлений строятся снизу вверх
+    private void build(double[] xValues, double[] yValues, int n) {
+        Node[] level = new Node[(n + LEAF_CAPACITY - 1) / LEAF_CAPACITY];
+        Leaf previous = null;
+        for (int i = 0; i < level.length; i++) {
+            int from = i * LEAF_CAPACITY;
+            Leaf leaf = new Leaf();
+            leaf.size = Math.min(LEAF_CAPACITY, n - from);
+            System.arraycopy(xValues, from, leaf.xs, 0, leaf.size);
+            System.arraycopy(yValues, from, leaf.ys, 0, leaf.size);
+            leaf.prev = previous;
+            if (previous != null) {
+                previous.next = leaf;
+            }
+            previous = leaf;
+            level[i] = leaf;
+        }
+        firstLeaf = (Leaf) level[0];
+        while (level.length > 1) {
+            Node[] parents = new Node[(level.length + BRANCH_CAPACITY - 1) / BRANCH_CAPACITY];
+            for (int i = 0; i < parents.length; i++) {
+                Branch branch = new Branch();
+                for (int c = i * BRANCH_CAPACITY; c < Math.min(level.length, (i + 1) * BRANCH_CAPACITY); c++) {
+                    branch.insertChild(branch.childCount, level[c]);
+                    branch.size += level[c].size;
+                }
+                parents[i] = branch;
+            }
+            level = parents;
+        }
+        root = level[0];
+        count = n;
+    }
+
+    private static double firstX(Node node) {
+        return node instanceof Leaf leaf ? leaf.xs[0] : ((Branch) node).firstXs[0];
+    }
+
+    // Первый индекс i < size, для которого values[i] > x
+    private static int upperBound(double[] values, int size, double x) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Первый индекс i < size, для которого values[i] >= x
+    private static int lowerBound(double[] values, int size, double x) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            logger.error("Index out of bounds: index={}, count={}", index, count);
+            throw new IllegalArgumentException("Index is out of bounds");
+        }
+    }
+
+    // Спуск по размерам поддеревьев к листу с точкой index; индекс проверен вызывающим
+    private Position locate(int index, Position position) {
+        Node node = root;
+        while (node instanceof Branch branch) {
+            int c = 0;
+            while (index >= branch.children[c].size) {
+                index -= branch.children[c].size;
+                c++;
+            }
+            node = branch.children[c];
+        }
+        position.leaf = (Leaf) node;
+        position.index = index;
+        return position;
+    }
+
+    private double xAt(int index) {
+        Node node = root;
+        while (node instanceof Branch branch) {
+            int c = 0;
+            while (index >= branch.children[c].size) {
+                index -= branch.children[c].size;
+                c++;
+            }
+            node = branch.children[c];
+        }
+        return ((Leaf) node).xs[index];
+    }
+
+    private double yAt(int index) {
+        Node node = root;
+        while (node instanceof Branch branch) {
+            int c = 0;
+            while (index >= branch.children[c].size) {
+                index -= branch.children[c].size;
+                c++;
+            }
+            node = branch.children[c];
+        }
+        return ((Leaf) node).ys[index];
+    }
+
+    // Число уровней дерева, лист-корень считается одним уровнем; нужно тестам
+    int height() {
+        int levels = 1;
+        for (Node node = root; node instanceof Branch branch; node = branch.children[0]) {
+            levels++;
+        }
+        return levels;
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public double getX(int index) {
+        checkIndex(index);
+        return xAt(index);
+    }
+
+    @Override
+    public double getY(int index) {
+        checkIndex(index);
+        return yAt(index);
+    }
+
+    @Override
+    public void setY(int index, double value) {
+        checkIndex(index);
+        Position position = locate(index, new Position());
+        position.leaf.ys[position.index] = value;
+    }
+
+    @Override
+    public int indexOfX(double x) {
+        if (!(x >= leftBound() && x <= rightBound())) {
+            return -1;
+        }
+        // Глобальный lowerBound: спуск к последнему потомку с первым x < x
+        Node node = root;
+        int offset = 0;
+        while (node instanceof Branch branch) {
+            int c = branch.childBeforeX(x);
+            for (int i = 0; i < c; i++) {
+                offset += branch.children[i].size;
+            }
+            node = branch.children[c];
+        }
+        Leaf leaf = (Leaf) node;
+        int index = offset + lowerBound(leaf.xs, leaf.size, x);
+        return index < count && xAt(index) == x ? index : -1;
+    }
+
+    @Override
+    public int indexOfY(double y) {
+        int offset = 0;
+        for (Leaf leaf = firstLeaf; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.size; i++) {
+                if (leaf.ys[i] == y) {
+                    return offset + i;
+                }
+            }
+            offset += leaf.size;
+        }
+        return -1;
+    }
+
+    @Override
+    public double leftBound() {
+        return firstLeaf.xs[0];
+    }
+
+    @Override
+    public double rightBound() {
+        return xAt(count - 1);
+    }
+
+    @Override
+    protected int floorIndexOfX(double x) {
+        if (x < leftBound()) {
+            logger.error("X value {} is less than left bound {}", x, leftBound());
+            throw new IllegalArgumentException("X is less than left bound");
+        }
+        if (x > rightBound()) return count;
+        Node node = root;
+        int offset = 0;
+        while (node instanceof Branch branch) {
+            int c = branch.childForX(x);
+            for (int i = 0; i < c; i++) {
+                offset += branch.children[i].size;
+            }
+            node = branch.children[c];
+        }
+        Leaf leaf = (Leaf) node;
+        return offset + upperBound(leaf.xs, leaf.size, x) - 1;
+    }
+
+    @Override
+    protected double extrapolateLeft(double x) {
+        return interpolate(x, xAt(0), xAt(1), yAt(0), yAt(1));
+    }
+
+    @Override
+    protected double extrapolateRight(double x) {
+        int n = count - 1;
+        return interpolate(x, xAt(n - 1), xAt(n), yAt(n - 1), yAt(n));
+    }
+
+    @Override
+    protected double interpolate(double x, int floorIndex) {
+        if (floorIndex == count - 1) {
+            return yAt(floorIndex);
+        }
+
+        double leftX = xAt(floorIndex);
+        double rightX = xAt(floorIndex + 1);
+        if (!(leftX <= x && x <= rightX)) {
+            logger.error("Interpolation error: x={} not in interval [{}, {}]", x, leftX, rightX);
+            throw new InterpolationException("Illegal x value");
+        }
+        return interpolate(x, leftX, rightX, yAt(floorIndex), yAt(floorIndex + 1));
+    }
+
+    @Override
+    public void insert(double x, double y) {
+        logger.debug("Inserting point: x={}, y={}", x, y);
+        if (Double.isNaN(x)) {
+            throw new IllegalArgumentException("X must not be NaN");
+        }
+        int existing = indexOfX(x);
+        if (existing != -1) {
+            logger.debug("Point with x={} already exists at index {}, updating y value", x, existing);
+            setY(existing, y);
+            return;
+        }
+        Node split = insert(root, x, y);
+        if (split != null) {
+            Branch newRoot = new Branch();
+            newRoot.insertChild(0, root);
+            newRoot.insertChild(1, split);
+            newRoot.size = root.size + split.size;
+            root = newRoot;
+        }
+        count++;
+    }
+
+    // Возвращает новый правый узел, если node разделился
+    private Node insert(Node node, double x, double y) {
+        if (node instanceof Leaf leaf) {
+            int position = upperBound(leaf.xs, leaf.size, x);
+            if (leaf.size < LEAF_CAPACITY) {
+                insertIntoLeaf(leaf, position, x, y);
+                return null;
+            }
+            Leaf right = splitLeaf(leaf);
+            if (position <= leaf.size) {
+                insertIntoLeaf(leaf, position, x, y);
+            } else {
+                insertIntoLeaf(right, position - leaf.size, x, y);
+            }
+            return right;
+        }
+        Branch branch = (Branch) node;
+        int c = branch.childForX(x);
+        Node split = insert(branch.children[c], x, y);
+        branch.size++;
+        branch.firstXs[c] = firstX(branch.children[c]);
+        if (split == null) {
+            return null;
+        }
+        branch.insertChild(c + 1, split);
+        if (branch.childCount <= BRANCH_CAPACITY) {
+            return null;
+        }
+        Branch right = new Branch();
+        int half = branch.childCount / 2;
+        for (int i = half; i < branch.childCount; i++) {
+            right.insertChild(right.childCount, branch.children[i]);
+            right.size += branch.children[i].size;
+            branch.children[i] = null;
+        }
+        branch.childCount = half;
+        branch.size -= right.size;
+        return right;
+    }
+
+    private static void insertIntoLeaf(Leaf leaf, int position, double x, double y) {
+        System.arraycopy(leaf.xs, position, leaf.xs, position + 1, leaf.size - position);
+        System.arraycopy(leaf.ys, position, leaf.ys, position + 1, leaf.size - position);
+        leaf.xs[position] = x;
+        leaf.ys[position] = y;
+        leaf.size++;
+    }
+
+    // Переносит верхнюю половину листа в новый лист справа
+    private static Leaf splitLeaf(Leaf leaf) {
+        Leaf right = new Leaf();
+        int half = leaf.size / 2;
+        right.size = leaf.size - half;
+        System.arraycopy(leaf.xs, half, right.xs, 0, right.size);
+        System.arraycopy(leaf.ys, half, right.ys, 0, right.size);
+        leaf.size = half;
+        right.next = leaf.next;
+        right.prev = leaf;
+        if (leaf.next != null) {
+            leaf.next.prev = right;
+        }
+        leaf.next = right;
+        return right;
+    }
+
+    @Override
+    public void remove(int index) {
+        logger.debug("Removing point at index {}", index);
+
+        if (count <= 2) {
+            logger.error("Cannot remove point - minimum points count reached (current: {})", count);
+            throw new IllegalStateException("Cannot remove - minimum points count reached");
+        }
+        checkIndex(index);
+        remove(root, index);
+        count--;
+        while (root instanceof Branch branch && branch.childCount == 1) {
+            root = branch.children[0];
+        }
+    }
+
+    private void remove(Node node, int index) {
+        if (node instanceof Leaf leaf) {
+            System.arraycopy(leaf.xs, index + 1, leaf.xs, index, leaf.size - index - 1);
+            System.arraycopy(leaf.ys, index + 1, leaf.ys, index, leaf.size - index - 1);
+            leaf.size--;
+            return;
+        }
+        Branch branch = (Branch) node;
+        int c = 0;
+        while (index >= branch.children[c].size) {
+            index -= branch.children[c].size;
+            c++;
+        }
+        Node child = branch.children[c];
+        remove(child, index);
+        branch.size--;
+        if (child.size == 0) {
+            if (child instanceof Leaf leaf) {
+                unlink(leaf);
+            }
+            branch.removeChild(c);
+            return;
+        }
+        branch.firstXs[c] = firstX(child);
+        if (branch.childCount == 1) {
+            return;
+        }
+        // Соседний узел берём справа, у последнего потомка - слева
+        int left = c + 1 < branch.childCount ? c : c - 1;
+        if (child instanceof Leaf leaf && leaf.size < LEAF_MERGE_THRESHOLD) {
+            Leaf first = (Leaf) branch.children[left];
+            Leaf second = (Leaf) branch.children[left + 1];
+            if (first.size + second.size <= LEAF_CAPACITY) {
+                System.arraycopy(second.xs, 0, first.xs, first.size, second.size);
+                System.arraycopy(second.ys, 0, first.ys, first.size, second.size);
+                first.size += second.size;
+                unlink(second);
+                branch.removeChild(left + 1);
+            }
+        } else if (child instanceof Branch small && small.childCount < BRANCH_MERGE_THRESHOLD) {
+            Branch first = (Branch) branch.children[left];
+            Branch second = (Branch) branch.children[left + 1];
+            if (first.childCount + second.childCount <= BRANCH_CAPACITY) {
+                for (int i = 0; i < second.childCount; i++) {
+                    first.insertChild(first.childCount, second.children[i]);
+                }
+                first.size += second.size;
+                branch.removeChild(left + 1);
+            }
+        }
+    }
+
+    private void unlink(Leaf leaf) {
+        if (leaf.prev != null) {
+            leaf.prev.next = leaf.next;
+        } else {
+            firstLeaf = leaf.next;
+        }
+        if (leaf.next != null) {
+            leaf.next.prev = leaf.prev;
+        }
+    }
+
+    @Override
+    public void copyXInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        copyRange(fromIndex, length, true, dest, destOffset);
+    }
+
+    @Override
+    public void copyYInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        copyRange(fromIndex, length, false, dest, destOffset);
+    }
+
+    private void copyRange(int fromIndex, int length, boolean xColumn, double[] dest, int destOffset) {
+        if (length == 0) {
+            return;
+        }
+        Position position = locate(fromIndex, new Position());
+        Leaf leaf = position.leaf;
+        int start = position.index;
+        while (length > 0) {
+            int chunk = Math.min(length, leaf.size - start);
+            System.arraycopy(xColumn ? leaf.xs : leaf.ys, start, dest, destOffset, chunk);
+            destOffset += chunk;
+            length -= chunk;
+            leaf = leaf.next;
+            start = 0;
+        }
+    }
+
+    @Override
+    public void copyYFrom(int fromIndex, double[] source, int sourceOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(sourceOffset, length, source.length);
+        if (length == 0) {
+            return;
+        }
+        Position position = locate(fromIndex, new Position());
+        Leaf leaf = position.leaf;
+        int start = position.index;
+        while (length > 0) {
+            int chunk = Math.min(length, leaf.size - start);
+            System.arraycopy(source, sourceOffset, leaf.ys, start, chunk);
+            sourceOffset += chunk;
+            length -= chunk;
+            leaf = leaf.next;
+            start = 0;
+        }
+    }
+
+    // Спуск к листу только читает дерево, поэтому непересекающиеся диапазоны можно менять параллельно
+    @Override
+    public void transformY(int fromIndex, int toIndex, DoubleUnaryOperator operator) {
+        Objects.checkFromToIndex(fromIndex, toIndex, count);
+        if (fromIndex == toIndex) {
+            return;
+        }
+        Position position = locate(fromIndex, new Position());
+        Leaf leaf = position.leaf;
+        int i = position.index;
+        for (int remaining = toIndex - fromIndex; remaining > 0; remaining--) {
+            if (i == leaf.size) {
+                leaf = leaf.next;
+                i = 0;
+            }
+            leaf.ys[i] = operator.applyAsDouble(leaf.ys[i]);
+            i++;
+        }
+    }
+
+    @Override
+    public void forEachPoint(PointConsumer action) {
+        for (Leaf leaf = firstLeaf; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.size; i++) {
+                action.accept(leaf.xs[i], leaf.ys[i]);
+            }
+        }
+    }
+
+    @Override
+    public Iterator<Point> iterator() {
+        return new Iterator<Point>() {
+            private Leaf leaf = firstLeaf;
+            private int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                return leaf != null && position < leaf.size;
+            }
+
+            @Override
+            public Point next() {
+                if (!hasNext()) {
+                    logger.error("Iterator has no more elements");
+                    throw new NoSuchElementException();
+                }
+                Point point = new Point(leaf.xs[position], leaf.ys[position]);
+                position++;
+                if (position == leaf.size) {
+                    leaf = leaf.next;
+                    position = 0;
+                }
+                return point;
+            }
+        };
+    }
+
+    // Дерево и цепочка листов не сериализуются напрямую: пишутся только точки, дерево строится заново
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(count);
+        for (Leaf leaf = firstLeaf; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.size; i++) {
+                out.writeDouble(leaf.xs[i]);
+                out.writeDouble(leaf.ys[i]);
+            }
+        }
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int n = in.readInt();
+        if (n < 2) {
+            throw new IOException("Count must be at least 2");
+        }
+        double[] xValues = new double[n];
+        double[] yValues = new double[n];
+        for (int i = 0; i < n; i++) {
+            xValues[i] = in.readDouble();
+            yValues[i] = in.readDouble();
+        }
+        build(xValues, yValues, n);
+    }
+}
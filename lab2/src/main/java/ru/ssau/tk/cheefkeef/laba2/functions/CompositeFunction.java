@@ -13,4 +13,11 @@ public class CompositeFunction implements MathFunction {
     public double apply(double x) {
         return secondFunction.apply(firstFunction.apply(x));
     }
+
+    // Весь пакет проходит через первую функцию, затем на месте через вторую
+    @Override
+    public void applyAll(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        firstFunction.applyAll(xs, xsOffset, out, outOffset, length);
+        secondFunction.applyAll(out, outOffset, out, outOffset, length);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package ru.ssau.tk.cheefkeef.laba2.functions;
+
+// Метка для функций, чтения которых можно выполнять из нескольких потоков одновременно, пока нет записи:
+// чтение не пишет в общее состояние или пишет только кэш, публикуемый одной записью ссылки
+// и сверяемый с версией структуры. При гонке с записью чтение может вернуть неверное значение
+// или бросить исключение, но не портит сам объект, поэтому обёртка вправе повторить его под блокировкой
+public interface ConcurrentlyReadable {
+}
@@ -1,17 +1,30 @@
 package ru.ssau.tk.cheefkeef.laba2.functions;
 
 import ru.ssau.tk.cheefkeef.laba2.exceptions.InterpolationException;
+import ru.ssau.tk.cheefkeef.laba2.instrumentation.Instrumentation;
+import ru.ssau.tk.cheefkeef.laba2.instrumentation.Operation;
+import ru.ssau.tk.cheefkeef.laba2.instrumentation.OperationStats;
+import ru.ssau.tk.cheefkeef.laba2.jfr.TableConstructionEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
 
-public class LinkedListTabulatedFunction extends AbstractTabulatedFunction implements Insertable, Removable, Serializable { // a lot of explanation so I'll change to русский, но вообще комменты - это уточнение задания
+public class LinkedListTabulatedFunction extends AbstractTabulatedFunction implements Insertable, Removable, ConcurrentlyReadable, Serializable { // a lot of explanation so I'll change to русский, но вообще комменты - это уточнение задания
     // чтобы защита легче пошла
     private static final Logger logger = LoggerFactory.getLogger(LinkedListTabulatedFunction.class);
+    // На горячих путях вместо логирования — счётчики, см. Instrumentation
+    private static final OperationStats stats = Instrumentation.statsFor(LinkedListTabulatedFunction.class);
 
     private static class Node implements Serializable {
         @Serial
@@ -27,14 +40,67 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
         }
     }
 
+    // Элемент индексного уровня skip-списка. width - сколько узлов базового списка
+    // от этого элемента до следующего на том же уровне (для последнего - до конца списка)
+    private static class IndexEntry {
+        final Node node;
+        IndexEntry next;
+        IndexEntry down;
+        int width;
+
+        IndexEntry(Node node) {
+            this.node = node;
+        }
+    }
+
+    private static final int MAX_INDEX_LEVEL = 32;
+    // При включённом индексе от последнего узла идём пешком только на небольшие расстояния
+    private static final int FINGER_WALK_LIMIT = 16;
+
     @Serial
     private static final long serialVersionUID = 5602953659205222970L;
+    // Поля сериализованной формы те же, что писала стандартная сериализация, поэтому старые файлы читаются.
+    // Стандартная форма шла рекурсивно по next и переполняла стек уже на десятке тысяч точек,
+    // поэтому теперь head пишется как null, а узлы идут следом парами (x, y)
+    @Serial
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("head", Node.class),
+            new ObjectStreamField("count", int.class),
+            new ObjectStreamField("skipIndexEnabled", boolean.class)
+    };
     private Node head;
     protected int count; // защищённое поле, как в ArrayTabulatedFunction
 
+    // Необязательный skip-индекс над цепочкой узлов: O(log n) на доступ по индексу и поиск по x.
+    // Сам индекс не сериализуется, после чтения строится заново
+    private boolean skipIndexEnabled;
+    private transient IndexEntry[] indexHeads; // заголовки уровней, стоят на позиции -1
+    private transient int indexLevels;
+    private transient IndexEntry[] updatePath;
+    private transient int[] updatePositions;
+    private transient long randomState;
+
+    // Последний найденный getNode узел вместе с его индексом: последовательный обход
+    // getX(i)/getY(i) идёт от него и стоит O(1) на вызов.
+    // Узел, индекс и версия структуры лежат в одном объекте, который публикуется одной записью ссылки.
+    // Менять его поля на месте может только создавший его поток, поэтому последовательный обход
+    // в одном потоке ничего не выделяет, а другой поток, увидев чужой объект, создаёт и публикует свой
+    // и никогда не смешивает узел одного индекса с другим индексом.
+    // Вставка и удаление увеличивают structureVersion, и запомненный до них узел больше не используется,
+    // даже если его опубликовал читатель, шедший по списку одновременно с записью.
+    // apply и экстраполяция идут по узлам напрямую и этот объект не трогают
+    private static final class Finger {
+        final Thread owner = Thread.currentThread();
+        Node node;
+        int index;
+        int version;
+    }
+
+    private transient Finger finger;
+    private transient volatile int structureVersion;
+
     // Приватный метод добавления узла в конец
     private void addNode(double x, double y) {
-        logger.trace("Adding node: x={}, y={}", x, y);
         Node newNode = new Node(x, y);
         if (head == null) {
             // Пустой список: делаем циклический узел
@@ -48,14 +114,13 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
             head.prev = newNode;
             newNode.prev = last;
             newNode.next = head;
-            logger.trace("Added node to end of list");
         }
         count++;
-        logger.trace("Node added. Total count: {}", count);
     }
 
     // Конструктор 1: из двух массивов
     public LinkedListTabulatedFunction(double[] xValues, double[] yValues) {
+        TableConstructionEvent event = startConstruction();
         logger.info("Creating LinkedListTabulatedFunction from arrays with length: {}", xValues.length);
 
         if (xValues.length != yValues.length) {
@@ -72,11 +137,13 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
         for (int i = 0; i < xValues.length; i++) {
             addNode(xValues[i], yValues[i]);
         }
+        finishConstruction(event, "arrays");
         logger.info("Successfully created LinkedListTabulatedFunction with {} points", count);
     }
 
     // Конструктор 2: из функции и интервала
     public LinkedListTabulatedFunction(MathFunction source, double xFrom, double xTo, int count) {
+        TableConstructionEvent event = startConstruction();
         logger.info("Creating LinkedListTabulatedFunction from function: xFrom={}, xTo={}, count={}", xFrom, xTo, count);
 
         if (count < 2) {
@@ -97,7 +164,6 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
             for (int i = 0; i < count; i++) {
                 addNode(xFrom, y);
             }
-            logger.trace("Constant function: all y values = {}", y);
         } else {
             double step = (xTo - xFrom) / (count - 1);
             logger.debug("Step size: {}", step);
@@ -105,9 +171,9 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
                 double x = xFrom + i * step;
                 double y = source.apply(x);
                 addNode(x, y);
-                logger.trace("Point {}: x={}, y={}", i, x, y);
             }
         }
+        finishConstruction(event, source);
         logger.info("Successfully created LinkedListTabulatedFunction from source function");
     }
 
@@ -117,90 +183,118 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
             logger.error("Node index out of bounds: index={}, count={}", index, count);
             throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
         }
+        int version = structureVersion;
+        Finger finger = this.finger;
+        if (finger != null && finger.owner != Thread.currentThread()) {
+            finger = null;
+        }
+        Finger start = finger != null && finger.version == version ? finger : null;
+        int fingerDistance = start == null ? Integer.MAX_VALUE : Math.abs(index - start.index);
 
         Node current;
-        if (index <= count / 2) {
+        if (skipIndexEnabled && fingerDistance > FINGER_WALK_LIMIT) {
+            current = indexedNode(index);
+        } else if (fingerDistance <= index && fingerDistance <= count - 1 - index) {
+            // Идём от последнего найденного узла
+            current = start.node;
+            if (index >= start.index) {
+                for (int i = start.index; i < index; i++) {
+                    current = current.next;
+                }
+            } else {
+                for (int i = start.index; i > index; i--) {
+                    current = current.prev;
+                }
+            }
+        } else if (index <= count / 2) {
             // Идём от головы вперёд
             current = head;
             for (int i = 0; i < index; i++) {
                 current = current.next;
             }
-            logger.trace("Found node at index {} by forward traversal", index);
         } else {
             // Идём от головы назад (через prev)
             current = head;
             for (int i = 0; i < count - index; i++) {
                 current = current.prev;
             }
-            logger.trace("Found node at index {} by backward traversal", index);
         }
+        if (finger == null) {
+            // Чужие потоки читают у опубликованного объекта только owner, остальные поля можно заполнить после
+            finger = new Finger();
+            this.finger = finger;
+        }
+        finger.node = current;
+        finger.index = index;
+        finger.version = version;
         return current;
     }
 
+    // Вызывается после каждого изменения цепочки узлов, когда она уже согласована
+    private void structureChanged() {
+        structureVersion++;
+    }
+
     // Реализация методов интерфейса TabulatedFunction
     @Override
     public int getCount() {
-        logger.trace("Getting count: {}", count);
+        stats.increment(Operation.GET_COUNT);
         return count;
     }
 
     @Override
     public double getX(int index) {
-        double value = getNode(index).x;
-        logger.trace("Getting x[{}] = {}", index, value);
-        return value;
+        stats.increment(Operation.GET_X);
+        return getNode(index).x;
     }
 
     @Override
     public double getY(int index) {
-        double value = getNode(index).y;
-        logger.trace("Getting y[{}] = {}", index, value);
-        return value;
+        stats.increment(Operation.GET_Y);
+        return getNode(index).y;
     }
 
     @Override
     public void setY(int index, double value) {
-        Node node = getNode(index);
-        double oldValue = node.y;
-        node.y = value;
-        logger.debug("Set y[{}] from {} to {}", index, oldValue, value);
+        stats.increment(Operation.SET_Y);
+        getNode(index).y = value;
     }
 
     @Override
     public int indexOfX(double x) {
+        stats.increment(Operation.INDEX_OF_X);
         if (head == null) {
-            logger.debug("List is empty, x={} not found", x);
             return -1;
         }
+        if (skipIndexEnabled) {
+            int position = indexedSearch(x, false) + 1;
+            return position < count && getNode(position).x == x ? position : -1;
+        }
 
         Node current = head;
         for (int i = 0; i < count; i++) {
             if (current.x == x) { // точное сравнение double (как в условии)
-                logger.debug("Found x={} at index {}", x, i);
                 return i;
             }
             current = current.next;
         }
-        logger.debug("x={} not found in list", x);
         return -1;
     }
 
     @Override
     public int indexOfY(double y) {
+        stats.increment(Operation.INDEX_OF_Y);
         if (head == null) {
-            logger.debug("List is empty, y={} not found", y);
             return -1;
         }
 
         Node current = head;
         for (int i = 0; i < count; i++) {
             if (current.y == y) {
-                logger.debug("Found y={} at index {}", y, i);
                 return i;
             }
             current = current.next;
         }
-        logger.debug("y={} not found in list", y);
         return -1;
     }
 
@@ -210,9 +304,7 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
             logger.error("Cannot get left bound - list is empty");
             throw new IllegalStateException("List is empty");
         }
-        double bound = head.x;
-        logger.trace("Left bound: {}", bound);
-        return bound;
+        return head.x;
     }
 
     @Override
@@ -221,14 +313,13 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
             logger.error("Cannot get right bound - list is empty");
             throw new IllegalStateException("List is empty");
         }
-        double bound = head.prev.x;
-        logger.trace("Right bound: {}", bound);
-        return bound;
+        return head.prev.x;
     }
 
     // Реализация абстрактных методов из AbstractTabulatedFunction
     @Override
     protected int floorIndexOfX(double x) {
+        stats.increment(Operation.FLOOR_INDEX_OF_X);
         if (head == null) {
             logger.error("Cannot find floor index - list is empty");
             throw new IllegalStateException("List is empty");
@@ -239,68 +330,100 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
             throw new IllegalArgumentException("X is less than left bound");
         }
         if (x >= rightBound()) {
-            logger.debug("X value {} is greater than or equal to right bound, returning count-1={}", x, count - 1);
             return count - 1;
         }
+        if (skipIndexEnabled) {
+            return indexedSearch(x, true);
+        }
 
         Node current = head;
         for (int i = 0; i < count - 1; i++) {
             if (current.x <= x && x < current.next.x) {
-                logger.debug("Floor index for x={} is {}", x, i);
                 return i;
             }
             current = current.next;
         }
         // На случай, если x == rightBound(), но из-за погрешности не попало
-        logger.debug("Floor index for x={} is {}", x, count - 1);
         return count - 1;
     }
 
+    // Узлы берутся прямо от головы, без getNode и запоминания последнего узла
     @Override
     protected double extrapolateLeft(double x) {
+        stats.increment(Operation.EXTRAPOLATE);
         // count > 2 v konstruktore
-        double x0 = getX(0);
-        double x1 = getX(1);
-        double y0 = getY(0);
-        double y1 = getY(1);
-        double result = y0 + (y1 - y0) * (x - x0) / (x1 - x0);
-        logger.debug("Left extrapolation for x={}: result={}", x, result);
-        return result;
+        Node first = head;
+        Node second = first.next;
+        return interpolate(x, first.x, second.x, first.y, second.y);
     }
 
     @Override
     protected double extrapolateRight(double x) {
+        stats.increment(Operation.EXTRAPOLATE);
         // count > 2 v konstruktore
-        int n = count - 1;
-        double xn_1 = getX(n - 1);
-        double xn = getX(n);
-        double yn_1 = getY(n - 1);
-        double yn = getY(n);
-        double result = yn_1 + (yn - yn_1) * (x - xn_1) / (xn - xn_1);
-        logger.debug("Right extrapolation for x={}: result={}", x, result);
-        return result;
+        Node last = head.prev;
+        Node beforeLast = last.prev;
+        return interpolate(x, beforeLast.x, last.x, beforeLast.y, last.y);
     }
 
     @Override
     protected double interpolate(double x, int floorIndex) {
+        stats.increment(Operation.INTERPOLATE);
         // count > 2 v konstruktore
-        double x0 = getX(floorIndex);
-        double x1 = getX(floorIndex + 1);
+        Node left = getNode(floorIndex);
+        Node right = getNode(floorIndex + 1);
 
-        if (!(x0 <= x && x <= x1)) {
-            logger.error("Interpolation error: x={} not in interval [{}, {}]", x, x0, x1);
+        if (!(left.x <= x && x <= right.x)) {
+            logger.error("Interpolation error: x={} not in interval [{}, {}]", x, left.x, right.x);
             throw new InterpolationException("Illegal x value");
         }
+        return interpolate(x, left.x, right.x, left.y, right.y);
+    }
 
-        double y0 = getY(floorIndex);
-        double y1 = getY(floorIndex + 1);
-        double result = interpolate(x, x0, x1, y0, y1);
-        logger.debug("Interpolation for x={} at floorIndex={}: result={}", x, floorIndex, result);
-        return result;
+    // Один поиск первого узла с x >= заданного, без обращений по индексу:
+    // apply только читает узлы и ничего не выделяет. Для узла, как и раньше, берётся y первого узла с таким x
+    @Override
+    public double apply(double x) {
+        if (Double.isNaN(x)) {
+            return Double.NaN;
+        }
+        if (head == null) {
+            logger.error("Cannot apply - list is empty");
+            throw new IllegalStateException("List is empty");
+        }
+        if (x < head.x) {
+            return extrapolateLeft(x);
+        }
+        if (x > head.prev.x) {
+            return extrapolateRight(x);
+        }
+        stats.increment(Operation.FLOOR_INDEX_OF_X);
+        Node node;
+        if (skipIndexEnabled) {
+            node = indexedNode(indexedSearch(x, false) + 1);
+        } else {
+            // Шагов не больше числа точек: при гонке с remove (под оптимистичным чтением)
+            // все x могут оказаться меньше искомого, и обход по кольцу иначе не кончится
+            node = head;
+            int steps = count;
+            while (node.x < x) {
+                if (--steps < 0) {
+                    throw new ConcurrentModificationException("List changed during apply");
+                }
+                node = node.next;
+            }
+        }
+        if (node.x == x) {
+            return node.y;
+        }
+        stats.increment(Operation.INTERPOLATE);
+        Node left = node.prev;
+        return interpolate(x, left.x, node.x, left.y, node.y);
     }
 
     @Override
     public void insert(double x, double y) {
+        stats.increment(Operation.INSERT);
         logger.info("Inserting point: x={}, y={}", x, y);
 
         if (head == null) {
@@ -309,6 +432,10 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
             logger.debug("Inserted first node in empty list");
             return;
         }
+        if (skipIndexEnabled) {
+            insertIndexed(x, y);
+            return;
+        }
 
         // Проверяем, не нужно ли вставить в начало (x < всех существующих)
         if (x < head.x) {
@@ -321,6 +448,7 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
             last.next = newNode;
             head = newNode; // Обновляем голову
             count++;
+            structureChanged();
             logger.debug("Inserted node at beginning of list");
             return;
         }
@@ -342,6 +470,7 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
                 current.next.prev = newNode;
                 current.next = newNode;
                 count++;
+                structureChanged();
                 logger.debug("Inserted node in middle of list at appropriate position");
                 return;
             }
@@ -364,12 +493,14 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
             last.next = newNode;
             head.prev = newNode;
             count++;
+            structureChanged();
             logger.debug("Inserted node at end of list");
         }
     }
 
     @Override
     public void remove(int index) {
+        stats.increment(Operation.REMOVE);
         logger.info("Removing point at index {}", index);
 
         if (index < 0 || index >= count) {
@@ -384,6 +515,9 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
         }
 
         Node toRemove = getNode(index);
+        if (skipIndexEnabled) {
+            removeFromIndex(index);
+        }
 
         // Обновляем связи соседей
         toRemove.prev.next = toRemove.next;
@@ -398,22 +532,335 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
         count--;
         toRemove.next = null;
         toRemove.prev = null;
+        structureChanged();
 
         logger.debug("Successfully removed point at index {}. New count: {}", index, count);
     }
 
+    public boolean isSkipIndexEnabled() {
+        return skipIndexEnabled;
+    }
+
+    // Включение строит индекс за O(n), выключение просто отбрасывает его
+    public void setSkipIndexEnabled(boolean enabled) {
+        if (enabled == skipIndexEnabled) {
+            return;
+        }
+        skipIndexEnabled = enabled;
+        if (enabled) {
+            rebuildSkipIndex();
+        } else {
+            indexHeads = null;
+            updatePath = null;
+            updatePositions = null;
+            indexLevels = 0;
+        }
+        logger.debug("Skip index {} for {} points", enabled ? "enabled" : "disabled", count);
+    }
+
+    private void rebuildSkipIndex() {
+        indexHeads = new IndexEntry[MAX_INDEX_LEVEL];
+        updatePath = new IndexEntry[MAX_INDEX_LEVEL];
+        updatePositions = new int[MAX_INDEX_LEVEL];
+        randomState = 0x9E3779B97F4A7C15L;
+        indexLevels = 0;
+        addIndexLevel();
+
+        // updatePath здесь - последний элемент на каждом уровне
+        updatePath[0] = indexHeads[0];
+        updatePositions[0] = -1;
+        Node node = head;
+        for (int position = 0; position < count; position++) {
+            int height = randomIndexHeight();
+            while (indexLevels < height) {
+                addIndexLevel();
+                updatePath[indexLevels - 1] = indexHeads[indexLevels - 1];
+                updatePositions[indexLevels - 1] = -1;
+            }
+            IndexEntry below = null;
+            for (int level = 0; level < height; level++) {
+                IndexEntry entry = new IndexEntry(node);
+                entry.down = below;
+                updatePath[level].next = entry;
+                updatePath[level].width = position - updatePositions[level];
+                updatePath[level] = entry;
+                updatePositions[level] = position;
+                below = entry;
+            }
+            node = node.next;
+        }
+        for (int level = 0; level < indexLevels; level++) {
+            updatePath[level].width = count - updatePositions[level];
+        }
+    }
+
+    private void addIndexLevel() {
+        IndexEntry header = new IndexEntry(null);
+        header.width = count + 1;
+        header.down = indexLevels > 0 ? indexHeads[indexLevels - 1] : null;
+        indexHeads[indexLevels++] = header;
+    }
+
+    // Высота узла в индексе: каждый следующий уровень с вероятностью 1/4
+    private int randomIndexHeight() {
+        long r = randomState;
+        r ^= r << 13;
+        r ^= r >>> 7;
+        r ^= r << 17;
+        randomState = r;
+        return Math.min(Long.numberOfTrailingZeros(r) / 2, MAX_INDEX_LEVEL);
+    }
+
+    private Node indexedNode(int index) {
+        IndexEntry entry = indexHeads[indexLevels - 1];
+        int position = -1;
+        while (true) {
+            while (entry.next != null && position + entry.width <= index) {
+                position += entry.width;
+                entry = entry.next;
+            }
+            if (entry.down == null) {
+                break;
+            }
+            entry = entry.down;
+        }
+        Node node;
+        if (position == -1) {
+            node = head;
+            position = 0;
+        } else {
+            node = entry.node;
+        }
+        while (position < index) {
+            node = node.next;
+            position++;
+        }
+        return node;
+    }
+
+    // Последняя позиция с node.x < x (inclusive: node.x <= x), -1 если такой нет
+    private int indexedSearch(double x, boolean inclusive) {
+        IndexEntry entry = indexHeads[indexLevels - 1];
+        int position = -1;
+        while (true) {
+            while (entry.next != null && (inclusive ? entry.next.node.x <= x : entry.next.node.x < x)) {
+                position += entry.width;
+                entry = entry.next;
+            }
+            if (entry.down == null) {
+                break;
+            }
+            entry = entry.down;
+        }
+        Node node;
+        if (position == -1) {
+            if (!(inclusive ? head.x <= x : head.x < x)) {
+                return -1;
+            }
+            node = head;
+            position = 0;
+        } else {
+            node = entry.node;
+        }
+        while (position + 1 < count && (inclusive ? node.next.x <= x : node.next.x < x)) {
+            node = node.next;
+            position++;
+        }
+        return position;
+    }
+
+    // Для каждого уровня запоминает последний элемент, стоящий строго левее позиции
+    private void findIndexPath(int position) {
+        IndexEntry entry = indexHeads[indexLevels - 1];
+        int entryPosition = -1;
+        for (int level = indexLevels - 1; level >= 0; level--) {
+            while (entry.next != null && entryPosition + entry.width < position) {
+                entryPosition += entry.width;
+                entry = entry.next;
+            }
+            updatePath[level] = entry;
+            updatePositions[level] = entryPosition;
+            if (level > 0) {
+                entry = entry.down;
+            }
+        }
+    }
+
+    private void insertIndexed(double x, double y) {
+        int before = indexedSearch(x, false);
+        int position = before + 1;
+        Node candidate = position < count ? getNode(position) : null;
+        if (candidate != null && candidate.x == x) {
+            logger.debug("Point with x={} already exists, updating y value", x);
+            candidate.y = y;
+            return;
+        }
+
+        Node newNode = new Node(x, y);
+        Node next = candidate != null ? candidate : head;
+        newNode.next = next;
+        newNode.prev = next.prev;
+        next.prev.next = newNode;
+        next.prev = newNode;
+        if (position == 0) {
+            head = newNode;
+        }
+        int height = randomIndexHeight();
+        while (indexLevels < height) {
+            addIndexLevel();
+        }
+        findIndexPath(position);
+        IndexEntry below = null;
+        for (int level = 0; level < indexLevels; level++) {
+            IndexEntry entry = updatePath[level];
+            if (level < height) {
+                IndexEntry newEntry = new IndexEntry(newNode);
+                newEntry.next = entry.next;
+                newEntry.width = updatePositions[level] + entry.width + 1 - position;
+                newEntry.down = below;
+                entry.width = position - updatePositions[level];
+                entry.next = newEntry;
+                below = newEntry;
+            } else {
+                entry.width++;
+            }
+        }
+        count++;
+        structureChanged();
+        logger.debug("Inserted node at index {} using skip index", position);
+    }
+
+    private void removeFromIndex(int position) {
+        findIndexPath(position);
+        for (int level = 0; level < indexLevels; level++) {
+            IndexEntry entry = updatePath[level];
+            if (entry.next != null && updatePositions[level] + entry.width == position) {
+                entry.width += entry.next.width - 1;
+                entry.next = entry.next.next;
+            } else {
+                entry.width--;
+            }
+        }
+        while (indexLevels > 1 && indexHeads[indexLevels - 1].next == null) {
+            indexHeads[--indexLevels] = null;
+        }
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("head", null);
+        fields.put("count", count);
+        fields.put("skipIndexEnabled", skipIndexEnabled);
+        out.writeFields();
+        Node node = head;
+        for (int i = 0; i < count; i++) {
+            out.writeDouble(node.x);
+            out.writeDouble(node.y);
+            node = node.next;
+        }
+    }
+
+    // Старая форма: цепочка узлов в поле head, новая: head == null и пары (x, y) после полей
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        Node oldHead = (Node) fields.get("head", null);
+        int n = fields.get("count", 0);
+        skipIndexEnabled = fields.get("skipIndexEnabled", false);
+        if (n < 2) {
+            throw new IOException("Count must be at least 2");
+        }
+        if (oldHead != null) {
+            head = oldHead;
+            count = n;
+        } else {
+            for (int i = 0; i < n; i++) {
+                addNode(in.readDouble(), in.readDouble());
+            }
+        }
+        if (skipIndexEnabled) {
+            rebuildSkipIndex();
+        }
+    }
+
+    // Диапазон копируется одним проходом от узла fromIndex
+    @Override
+    public void copyXInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        if (length == 0) {
+            return;
+        }
+        Node node = getNode(fromIndex);
+        for (int i = 0; i < length; i++) {
+            dest[destOffset + i] = node.x;
+            node = node.next;
+        }
+    }
+
+    @Override
+    public void copyYInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        if (length == 0) {
+            return;
+        }
+        Node node = getNode(fromIndex);
+        for (int i = 0; i < length; i++) {
+            dest[destOffset + i] = node.y;
+            node = node.next;
+        }
+    }
+
+    @Override
+    public void copyYFrom(int fromIndex, double[] source, int sourceOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(sourceOffset, length, source.length);
+        if (length == 0) {
+            return;
+        }
+        Node node = getNode(fromIndex);
+        for (int i = 0; i < length; i++) {
+            node.y = source[sourceOffset + i];
+            node = node.next;
+        }
+    }
+
+    // Структура списка во время вызова меняться не должна; непересекающиеся диапазоны
+    // можно обрабатывать параллельно
+    @Override
+    public void transformY(int fromIndex, int toIndex, DoubleUnaryOperator operator) {
+        Objects.checkFromToIndex(fromIndex, toIndex, count);
+        if (fromIndex == toIndex) {
+            return;
+        }
+        Node node = getNode(fromIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            node.y = operator.applyAsDouble(node.y);
+            node = node.next;
+        }
+    }
+
+    // Один проход по списку от головы, без getNode для каждого индекса
+    @Override
+    public void forEachPoint(PointConsumer action) {
+        Node node = head;
+        for (int i = 0; i < count; i++) {
+            action.accept(node.x, node.y);
+            node = node.next;
+        }
+    }
+
     @Override
     public Iterator<Point> iterator() {
-        logger.trace("Creating iterator for LinkedListTabulatedFunction");
         return new Iterator<Point>() {
             private Node currentNode = head;
             private int currentIndex = 0;
 
             @Override
             public boolean hasNext() {
-                boolean hasNext = currentNode != null && currentIndex < count;
-                logger.trace("Iterator hasNext: {} (currentIndex={}, count={})", hasNext, currentIndex, count);
-                return hasNext;
+                return currentNode != null && currentIndex < count;
             }
 
             @Override
@@ -432,7 +879,6 @@ public class LinkedListTabulatedFunction extends AbstractTabulatedFunction imple
                     currentNode = null; // Достигли конца списка
                 }
 
-                logger.trace("Iterator next: point = ({}, {})", point.x, point.y);
                 return point;
             }
         };
@@ -0,0 +1,273 @@
+package ru.ssau.tk.cheefkeef.laba2.functions;
+
+import ru.ssau.tk.cheefkeef.laba2.exceptions.InterpolationException;
+import ru.ssau.tk.cheefkeef.laba2.jfr.TableConstructionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.DoubleUnaryOperator;
+
+// Табулированная функция только для чтения поверх файла в двоичном формате FunctionsIO:
+// int count, затем count пар (x, y) в big-endian. Файл отображается в память целиком,
+// значения читаются прямо из отображения без копирования в кучу, страницы делятся
+// между процессами через страничный кэш ОС. Отображение снимается в close().
+// Сортированность x при открытии не проверяется, чтобы не читать весь файл.
+public class MappedTabulatedFunction extends AbstractTabulatedFunction implements ConcurrentlyReadable, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MappedTabulatedFunction.class);
+
+    private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final long HEADER_SIZE = Integer.BYTES;
+    private static final long POINT_SIZE = 2L * Double.BYTES;
+
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final int count;
+    private final AtomicBoolean closing = new AtomicBoolean();
+
+    public MappedTabulatedFunction(Path path) throws IOException {
+        TableConstructionEvent event = startConstruction();
+        logger.info("Mapping tabulated function from {}", path);
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("File is too short to contain point count");
+            }
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+            int count = segment.get(INT, 0);
+            if (count < 2) {
+                throw new IOException("Count must be at least 2");
+            }
+            if (size < HEADER_SIZE + POINT_SIZE * count) {
+                throw new IOException("File is truncated: expected " + count + " points");
+            }
+            this.arena = arena;
+            this.segment = segment;
+            this.count = count;
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            logger.error("Failed to map tabulated function from {}", path, e);
+            throw e;
+        }
+        finishConstruction(event, "file");
+        logger.info("Mapped tabulated function with {} points", count);
+    }
+
+    public boolean isClosed() {
+        return !arena.scope().isAlive();
+    }
+
+    // Повторное закрытие ничего не делает. Флаг меняется CAS-ом, поэтому арену закрывает ровно один вызов
+    @Override
+    public void close() {
+        if (!closing.compareAndSet(false, true)) {
+            return;
+        }
+        arena.close();
+        logger.debug("Unmapped tabulated function with {} points", count);
+    }
+
+    private double xAt(int index) {
+        return segment.get(DOUBLE, HEADER_SIZE + POINT_SIZE * index);
+    }
+
+    private double yAt(int index) {
+        return segment.get(DOUBLE, HEADER_SIZE + POINT_SIZE * index + Double.BYTES);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            logger.error("Index out of bounds: index={}, count={}", index, count);
+            throw new IllegalArgumentException("Index is out of bounds");
+        }
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public double getX(int index) {
+        checkIndex(index);
+        return xAt(index);
+    }
+
+    @Override
+    public double getY(int index) {
+        checkIndex(index);
+        return yAt(index);
+    }
+
+    @Override
+    public void setY(int index, double value) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+
+    @Override
+    public int indexOfX(double x) {
+        if (!(x >= xAt(0) && x <= xAt(count - 1))) {
+            return -1;
+        }
+        int i = lowerBound(x);
+        return xAt(i) == x ? i : -1;
+    }
+
+    @Override
+    public int indexOfY(double y) {
+        for (int i = 0; i < count; i++) {
+            if (yAt(i) == y) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public double leftBound() {
+        return xAt(0);
+    }
+
+    @Override
+    public double rightBound() {
+        return xAt(count - 1);
+    }
+
+    @Override
+    protected int floorIndexOfX(double x) {
+        if (x < xAt(0)) {
+            logger.error("X value {} is less than left bound {}", x, xAt(0));
+            throw new IllegalArgumentException("X is less than left bound");
+        }
+        if (x > xAt(count - 1)) return count;
+        return upperBound(x) - 1;
+    }
+
+    // Первый индекс i, для которого x[i] >= x
+    private int lowerBound(double x) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xAt(mid) < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Первый индекс i, для которого x[i] > x
+    private int upperBound(double x) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xAt(mid) <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    protected double extrapolateLeft(double x) {
+        return interpolate(x, xAt(0), xAt(1), yAt(0), yAt(1));
+    }
+
+    @Override
+    protected double extrapolateRight(double x) {
+        int n = count - 1;
+        return interpolate(x, xAt(n - 1), xAt(n), yAt(n - 1), yAt(n));
+    }
+
+    @Override
+    protected double interpolate(double x, int floorIndex) {
+        if (floorIndex == count - 1) {
+            return yAt(floorIndex);
+        }
+
+        double leftX = xAt(floorIndex);
+        double rightX = xAt(floorIndex + 1);
+        if (!(leftX <= x && x <= rightX)) {
+            logger.error("Interpolation error: x={} not in interval [{}, {}]", x, leftX, rightX);
+            throw new InterpolationException("Illegal x value");
+        }
+        return interpolate(x, leftX, rightX, yAt(floorIndex), yAt(floorIndex + 1));
+    }
+
+    // x и y в файле чередуются, поэтому копирование идёт поэлементно, но без проверок индекса
+    @Override
+    public void copyXInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        for (int i = 0; i < length; i++) {
+            dest[destOffset + i] = xAt(fromIndex + i);
+        }
+    }
+
+    @Override
+    public void copyYInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        for (int i = 0; i < length; i++) {
+            dest[destOffset + i] = yAt(fromIndex + i);
+        }
+    }
+
+    @Override
+    public void copyYFrom(int fromIndex, double[] source, int sourceOffset, int length) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+
+    @Override
+    public void transformY(int fromIndex, int toIndex, DoubleUnaryOperator operator) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+
+    @Override
+    public void forEachPoint(PointConsumer action) {
+        for (int i = 0; i < count; i++) {
+            action.accept(xAt(i), yAt(i));
+        }
+    }
+
+    @Override
+    public Iterator<Point> iterator() {
+        return new Iterator<Point>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < count;
+            }
+
+            @Override
+            public Point next() {
+                if (!hasNext()) {
+                    logger.error("Iterator has no more elements");
+                    throw new NoSuchElementException();
+                }
+                Point point = new Point(xAt(i), yAt(i));
+                i++;
+                return point;
+            }
+        };
+    }
+}
@@ -1,8 +1,23 @@
 package ru.ssau.tk.cheefkeef.laba2.functions;
 
+import java.util.Objects;
+
 public interface MathFunction {
     double apply(double x);
 
+    // Пакетное вычисление: out[i] = apply(xs[i]). xs и out могут быть одним массивом
+    default void applyAll(double[] xs, double[] out) {
+        applyAll(xs, 0, out, 0, xs.length);
+    }
+
+    default void applyAll(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        Objects.checkFromIndexSize(xsOffset, length, xs.length);
+        Objects.checkFromIndexSize(outOffset, length, out.length);
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = apply(xs[xsOffset + i]);
+        }
+    }
+
     default CompositeFunction andThen(MathFunction afterFunction) {
         return new CompositeFunction(this, afterFunction);
     }
@@ -0,0 +1,318 @@
+package ru.ssau.tk.cheefkeef.laba2.functions;
+
+import ru.ssau.tk.cheefkeef.laba2.exceptions.InterpolationException;
+import ru.ssau.tk.cheefkeef.laba2.jfr.TableConstructionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.DoubleUnaryOperator;
+
+// Табулированная функция, столбцы x и y которой лежат вне кучи в MemorySegment.
+// Память принадлежит собственной Arena и освобождается явно через close();
+// после закрытия любое обращение бросает IllegalStateException.
+// Общая (shared) арена допускает доступ из любых потоков, ограниченная (confined) - только из создавшего.
+public class OffHeapTabulatedFunction extends AbstractTabulatedFunction implements ConcurrentlyReadable, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapTabulatedFunction.class);
+
+    private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE;
+
+    private final Arena arena;
+    private final MemorySegment xSegment;
+    private final MemorySegment ySegment;
+    private final int count;
+    private final AtomicBoolean closing = new AtomicBoolean();
+
+    public OffHeapTabulatedFunction(double[] xValues, double[] yValues) {
+        this(xValues, yValues, false);
+    }
+
+    public OffHeapTabulatedFunction(double[] xValues, double[] yValues, boolean confined) {
+        this(xValues, yValues, confined ? Arena.ofConfined() : Arena.ofShared());
+    }
+
+    // Арена переходит во владение функции; если конструктор бросает исключение, она закрывается сразу
+    OffHeapTabulatedFunction(double[] xValues, double[] yValues, Arena arena) {
+        TableConstructionEvent event = startConstruction();
+        logger.info("Creating OffHeapTabulatedFunction from arrays with length: {}", xValues.length);
+
+        try {
+            if (xValues.length != yValues.length || xValues.length < 2) {
+                throw new IllegalArgumentException("Arrays must be of equal length with at least 2 points");
+            }
+            AbstractTabulatedFunction.checkSorted(xValues);
+
+            this.count = xValues.length;
+            this.xSegment = arena.allocate(DOUBLE.byteSize() * count, DOUBLE.byteAlignment());
+            this.ySegment = arena.allocate(DOUBLE.byteSize() * count, DOUBLE.byteAlignment());
+            MemorySegment.copy(xValues, 0, xSegment, DOUBLE, 0, count);
+            MemorySegment.copy(yValues, 0, ySegment, DOUBLE, 0, count);
+        } catch (RuntimeException | Error e) {
+            arena.close();
+            throw e;
+        }
+        this.arena = arena;
+        finishConstruction(event, "arrays");
+        logger.debug("Successfully created OffHeapTabulatedFunction with {} points", count);
+    }
+
+    public OffHeapTabulatedFunction(MathFunction source, double xFrom, double xTo, int count) {
+        this(source, xFrom, xTo, count, false);
+    }
+
+    // Точки считаются прямо в сегмент, промежуточные массивы в куче не создаются
+    public OffHeapTabulatedFunction(MathFunction source, double xFrom, double xTo, int count, boolean confined) {
+        this(source, xFrom, xTo, count, confined ? Arena.ofConfined() : Arena.ofShared());
+    }
+
+    OffHeapTabulatedFunction(MathFunction source, double xFrom, double xTo, int count, Arena arena) {
+        TableConstructionEvent event = startConstruction();
+        logger.info("Creating OffHeapTabulatedFunction from function: xFrom={}, xTo={}, count={}", xFrom, xTo, count);
+
+        try {
+            if (count < 2) throw new IllegalArgumentException("Count is less than minimum");
+            if (xFrom > xTo) {
+                logger.warn("xFrom ({}) > xTo ({}), swapping values", xFrom, xTo);
+                double tmp = xFrom;
+                xFrom = xTo;
+                xTo = tmp;
+            }
+            this.count = count;
+            this.xSegment = arena.allocate(DOUBLE.byteSize() * count, DOUBLE.byteAlignment());
+            this.ySegment = arena.allocate(DOUBLE.byteSize() * count, DOUBLE.byteAlignment());
+
+            double step = (xTo - xFrom) / (count - 1);
+            for (int i = 0; i < count; i++) {
+                double x = xFrom == xTo ? xFrom : xFrom + step * i;
+                xSegment.setAtIndex(DOUBLE, i, x);
+                ySegment.setAtIndex(DOUBLE, i, source.apply(x));
+            }
+        } catch (RuntimeException | Error e) {
+            // source.apply может бросить исключение: без закрытия общая арена осталась бы жить
+            arena.close();
+            throw e;
+        }
+        this.arena = arena;
+        finishConstruction(event, source);
+        logger.info("Successfully created OffHeapTabulatedFunction from source function");
+    }
+
+    public boolean isClosed() {
+        return !arena.scope().isAlive();
+    }
+
+    // Повторное закрытие ничего не делает. Флаг меняется CAS-ом, поэтому арену закрывает ровно один вызов,
+    // даже если close() зовут из нескольких потоков сразу
+    @Override
+    public void close() {
+        if (!closing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            arena.close();
+        } catch (RuntimeException e) {
+            // Например, WrongThreadException для ограниченной арены: функция осталась открытой
+            closing.set(false);
+            throw e;
+        }
+        logger.debug("Released off-heap memory of {} points", count);
+    }
+
+    private double xAt(int index) {
+        return xSegment.getAtIndex(DOUBLE, index);
+    }
+
+    private double yAt(int index) {
+        return ySegment.getAtIndex(DOUBLE, index);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            logger.error("Index out of bounds: index={}, count={}", index, count);
+            throw new IllegalArgumentException("Index is out of bounds");
+        }
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public double getX(int index) {
+        checkIndex(index);
+        return xAt(index);
+    }
+
+    @Override
+    public double getY(int index) {
+        checkIndex(index);
+        return yAt(index);
+    }
+
+    @Override
+    public void setY(int index, double value) {
+        checkIndex(index);
+        ySegment.setAtIndex(DOUBLE, index, value);
+    }
+
+    @Override
+    public int indexOfX(double x) {
+        if (!(x >= xAt(0) && x <= xAt(count - 1))) {
+            return -1;
+        }
+        int i = lowerBound(x);
+        return xAt(i) == x ? i : -1;
+    }
+
+    @Override
+    public int indexOfY(double y) {
+        for (int i = 0; i < count; i++) {
+            if (yAt(i) == y) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public double leftBound() {
+        return xAt(0);
+    }
+
+    @Override
+    public double rightBound() {
+        return xAt(count - 1);
+    }
+
+    @Override
+    protected int floorIndexOfX(double x) {
+        if (x < xAt(0)) {
+            logger.error("X value {} is less than left bound {}", x, xAt(0));
+            throw new IllegalArgumentException("X is less than left bound");
+        }
+        if (x > xAt(count - 1)) return count;
+        return upperBound(x) - 1;
+    }
+
+    // Первый индекс i, для которого x[i] >= x
+    private int lowerBound(double x) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xAt(mid) < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Первый индекс i, для которого x[i] > x
+    private int upperBound(double x) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xAt(mid) <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    protected double extrapolateLeft(double x) {
+        return interpolate(x, xAt(0), xAt(1), yAt(0), yAt(1));
+    }
+
+    @Override
+    protected double extrapolateRight(double x) {
+        int n = count - 1;
+        return interpolate(x, xAt(n - 1), xAt(n), yAt(n - 1), yAt(n));
+    }
+
+    @Override
+    protected double interpolate(double x, int floorIndex) {
+        if (floorIndex == count - 1) {
+            return yAt(floorIndex);
+        }
+
+        double leftX = xAt(floorIndex);
+        double rightX = xAt(floorIndex + 1);
+        if (!(leftX <= x && x <= rightX)) {
+            logger.error("Interpolation error: x={} not in interval [{}, {}]", x, leftX, rightX);
+            throw new InterpolationException("Illegal x value");
+        }
+        return interpolate(x, leftX, rightX, yAt(floorIndex), yAt(floorIndex + 1));
+    }
+
+    @Override
+    public void copyXInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        MemorySegment.copy(xSegment, DOUBLE, DOUBLE.byteSize() * fromIndex, dest, destOffset, length);
+    }
+
+    @Override
+    public void copyYInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        MemorySegment.copy(ySegment, DOUBLE, DOUBLE.byteSize() * fromIndex, dest, destOffset, length);
+    }
+
+    @Override
+    public void copyYFrom(int fromIndex, double[] source, int sourceOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(sourceOffset, length, source.length);
+        MemorySegment.copy(source, sourceOffset, ySegment, DOUBLE, DOUBLE.byteSize() * fromIndex, length);
+    }
+
+    @Override
+    public void transformY(int fromIndex, int toIndex, DoubleUnaryOperator operator) {
+        Objects.checkFromToIndex(fromIndex, toIndex, count);
+        for (int i = fromIndex; i < toIndex; i++) {
+            ySegment.setAtIndex(DOUBLE, i, operator.applyAsDouble(yAt(i)));
+        }
+    }
+
+    @Override
+    public void forEachPoint(PointConsumer action) {
+        for (int i = 0; i < count; i++) {
+            action.accept(xAt(i), yAt(i));
+        }
+    }
+
+    @Override
+    public Iterator<Point> iterator() {
+        return new Iterator<Point>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < count;
+            }
+
+            @Override
+            public Point next() {
+                if (!hasNext()) {
+                    logger.error("Iterator has no more elements");
+                    throw new NoSuchElementException();
+                }
+                Point point = new Point(xAt(i), yAt(i));
+                i++;
+                return point;
+            }
+        };
+    }
+}
@@ -0,0 +1,573 @@
+package ru.ssau.tk.cheefkeef.laba2.functions;
+
+import ru.ssau.tk.cheefkeef.laba2.exceptions.InterpolationException;
+import ru.ssau.tk.cheefkeef.laba2.jfr.TableConstructionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+// Неизменяемая табулированная функция: точки лежат в листах по LEAF_CAPACITY штук под деревом
+// с ветвлением до BRANCH_CAPACITY. withY, withInserted и withoutIndex копируют только путь от корня
+// до изменённого листа (O(log n) памяти), остальные узлы разделяются со старой версией.
+// Любой экземпляр - готовый снимок: читать его можно из любых потоков без блокировок и копирования
+public final class PersistentTabulatedFunction extends AbstractTabulatedFunction implements ConcurrentlyReadable, Serializable {
+    private static final Logger logger = LoggerFactory.getLogger(PersistentTabulatedFunction.class);
+
+    static final int LEAF_CAPACITY = 64;
+    static final int BRANCH_CAPACITY = 32;
+    // Лист меньше этого размера после удаления сливается с соседом, если они помещаются в один лист
+    private static final int LEAF_MERGE_THRESHOLD = LEAF_CAPACITY / 4;
+
+    @Serial
+    private static final long serialVersionUID = 2840390127445617402L;
+
+    private abstract static class Node implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        abstract int size();
+
+        abstract double firstX();
+    }
+
+    // Массивы листа имеют точный размер и после создания не меняются
+    private static final class Leaf extends Node {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        final double[] xs;
+        final double[] ys;
+
+        Leaf(double[] xs, double[] ys) {
+            this.xs = xs;
+            this.ys = ys;
+        }
+
+        @Override
+        int size() {
+            return xs.length;
+        }
+
+        @Override
+        double firstX() {
+            return xs[0];
+        }
+    }
+
+    private static final class Branch extends Node {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        final Node[] children;
+        // starts[c] - индекс первой точки children[c] внутри узла, starts[children.length] - размер узла
+        final int[] starts;
+        final double[] firstXs;
+
+        Branch(Node[] children) {
+            this.children = children;
+            this.starts = new int[children.length + 1];
+            this.firstXs = new double[children.length];
+            for (int c = 0; c < children.length; c++) {
+                starts[c + 1] = starts[c] + children[c].size();
+                firstXs[c] = children[c].firstX();
+            }
+        }
+
+        // Замена потомка без изменения размеров и первых x: служебные массивы разделяются
+        Branch(Node[] children, int[] starts, double[] firstXs) {
+            this.children = children;
+            this.starts = starts;
+            this.firstXs = firstXs;
+        }
+
+        @Override
+        int size() {
+            return starts[children.length];
+        }
+
+        @Override
+        double firstX() {
+            return firstXs[0];
+        }
+
+        // Потомок, содержащий точку с индексом index
+        int childAt(int index) {
+            int c = Arrays.binarySearch(starts, 0, children.length, index);
+            return c >= 0 ? c : -c - 2;
+        }
+
+        // Последний потомок с первым x <= x (или первый потомок, если таких нет)
+        int childForX(double x) {
+            int low = 0;
+            int high = children.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (firstXs[mid] <= x) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return Math.max(low - 1, 0);
+        }
+
+        // Последний потомок с первым x < x (или первый потомок, если таких нет)
+        int childBeforeX(double x) {
+            int low = 0;
+            int high = children.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (firstXs[mid] < x) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return Math.max(low - 1, 0);
+        }
+    }
+
+    private final Node root;
+
+    public PersistentTabulatedFunction(double[] xValues, double[] yValues) {
+        TableConstructionEvent event = startConstruction();
+        logger.info("Creating PersistentTabulatedFunction from arrays with length: {}", xValues.length);
+
+        if (xValues.length != yValues.length || xValues.length < 2) {
+            throw new IllegalArgumentException("Arrays must be of equal length with at least 2 points");
+        }
+        AbstractTabulatedFunction.checkSorted(xValues);
+
+        this.root = build(xValues, yValues);
+        finishConstruction(event, "arrays");
+        logger.debug("Successfully created PersistentTabulatedFunction with {} points", root.size());
+    }
+
+    public PersistentTabulatedFunction(MathFunction source, double xFrom, double xTo, int count) {
+        this(new ArrayTabulatedFunction(source, xFrom, xTo, count));
+    }
+
+    // Снимок произвольной табулированной функции через пакетный экспорт столбцов
+    public PersistentTabulatedFunction(TabulatedFunction source) {
+        this(source.toXArray(), source.toYArray());
+    }
+
+    private PersistentTabulatedFunction(Node root) {
+        this.root = root;
+    }
+
+    private static Node build(double[] xValues, double[] yValues) {
+        int n = xValues.length;
+        Node[] level = new Node[(n + LEAF_CAPACITY - 1) / LEAF_CAPACITY];
+        for (int i = 0; i < level.length; i++) {
+            int from = i * LEAF_CAPACITY;
+            int to = Math.min(n, from + LEAF_CAPACITY);
+            level[i] = new Leaf(Arrays.copyOfRange(xValues, from, to), Arrays.copyOfRange(yValues, from, to));
+        }
+        while (level.length > 1) {
+            Node[] parents = new Node[(level.length + BRANCH_CAPACITY - 1) / BRANCH_CAPACITY];
+            for (int i = 0; i < parents.length; i++) {
+                int from = i * BRANCH_CAPACITY;
+                int to = Math.min(level.length, from + BRANCH_CAPACITY);
+                parents[i] = new Branch(Arrays.copyOfRange(level, from, to));
+            }
+            level = parents;
+        }
+        return level[0];
+    }
+
+    // Новая версия с y[index] = value
+    public PersistentTabulatedFunction withY(int index, double value) {
+        checkIndex(index);
+        return new PersistentTabulatedFunction(withY(root, index, value));
+    }
+
+    private static Node withY(Node node, int index, double value) {
+        if (node instanceof Leaf leaf) {
+            double[] ys = leaf.ys.clone();
+            ys[index] = value;
+            return new Leaf(leaf.xs, ys);
+        }
+        Branch branch = (Branch) node;
+        int c = branch.childAt(index);
+        Node[] children = branch.children.clone();
+        children[c] = withY(children[c], index - branch.starts[c], value);
+        return new Branch(children, branch.starts, branch.firstXs);
+    }
+
+    // Новая версия с добавленной точкой; если x уже есть, заменяется его y, как в Insertable.insert
+    public PersistentTabulatedFunction withInserted(double x, double y) {
+        if (Double.isNaN(x)) {
+            throw new IllegalArgumentException("X must not be NaN");
+        }
+        int existing = indexOfX(x);
+        if (existing != -1) {
+            logger.debug("Point with x={} already exists at index {}, replacing y value", x, existing);
+            return withY(existing, y);
+        }
+        Node[] parts = insert(root, x, y);
+        return new PersistentTabulatedFunction(parts.length == 1 ? parts[0] : new Branch(parts));
+    }
+
+    // Возвращает один узел или два, если узел переполнился и разделился
+    private static Node[] insert(Node node, double x, double y) {
+        if (node instanceof Leaf leaf) {
+            int size = leaf.size();
+            int position = upperBound(leaf.xs, x);
+            double[] xs = new double[size + 1];
+            double[] ys = new double[size + 1];
+            System.arraycopy(leaf.xs, 0, xs, 0, position);
+            System.arraycopy(leaf.ys, 0, ys, 0, position);
+            xs[position] = x;
+            ys[position] = y;
+            System.arraycopy(leaf.xs, position, xs, position + 1, size - position);
+            System.arraycopy(leaf.ys, position, ys, position + 1, size - position);
+            if (xs.length <= LEAF_CAPACITY) {
+                return new Node[]{new Leaf(xs, ys)};
+            }
+            int half = xs.length / 2;
+            return new Node[]{
+                    new Leaf(Arrays.copyOfRange(xs, 0, half), Arrays.copyOfRange(ys, 0, half)),
+                    new Leaf(Arrays.copyOfRange(xs, half, xs.length), Arrays.copyOfRange(ys, half, ys.length))
+            };
+        }
+        Branch branch = (Branch) node;
+        int c = branch.childForX(x);
+        Node[] replacement = insert(branch.children[c], x, y);
+        Node[] children = replaceChild(branch.children, c, replacement);
+        if (children.length <= BRANCH_CAPACITY) {
+            return new Node[]{new Branch(children)};
+        }
+        int half = children.length / 2;
+        return new Node[]{
+                new Branch(Arrays.copyOfRange(children, 0, half)),
+                new Branch(Arrays.copyOfRange(children, half, children.length))
+        };
+    }
+
+    // Новая версия без точки с индексом index
+    public PersistentTabulatedFunction withoutIndex(int index) {
+        if (root.size() <= 2) {
+            logger.error("Cannot remove point - minimum points count reached (current: {})", root.size());
+            throw new IllegalStateException("Cannot remove - minimum points count reached");
+        }
+        checkIndex(index);
+        Node newRoot = remove(root, index);
+        while (newRoot instanceof Branch branch && branch.children.length == 1) {
+            newRoot = branch.children[0];
+        }
+        return new PersistentTabulatedFunction(newRoot);
+    }
+
+    // Возвращает null, если узел опустел
+    private static Node remove(Node node, int index) {
+        if (node instanceof Leaf leaf) {
+            int size = leaf.size();
+            if (size == 1) {
+                return null;
+            }
+            double[] xs = new double[size - 1];
+            double[] ys = new double[size - 1];
+            System.arraycopy(leaf.xs, 0, xs, 0, index);
+            System.arraycopy(leaf.ys, 0, ys, 0, index);
+            System.arraycopy(leaf.xs, index + 1, xs, index, size - index - 1);
+            System.arraycopy(leaf.ys, index + 1, ys, index, size - index - 1);
+            return new Leaf(xs, ys);
+        }
+        Branch branch = (Branch) node;
+        int c = branch.childAt(index);
+        Node child = remove(branch.children[c], index - branch.starts[c]);
+        if (child == null) {
+            if (branch.children.length == 1) {
+                return null;
+            }
+            return new Branch(replaceChild(branch.children, c, new Node[0]));
+        }
+        if (child instanceof Leaf leaf && leaf.size() < LEAF_MERGE_THRESHOLD && branch.children.length > 1) {
+            // Соседний лист берём справа, у последнего потомка - слева
+            int left = c + 1 < branch.children.length ? c : c - 1;
+            Leaf first = left == c ? leaf : (Leaf) branch.children[left];
+            Leaf second = left == c ? (Leaf) branch.children[c + 1] : leaf;
+            if (first.size() + second.size() <= LEAF_CAPACITY) {
+                Node[] children = new Node[branch.children.length - 1];
+                System.arraycopy(branch.children, 0, children, 0, left);
+                children[left] = concat(first, second);
+                System.arraycopy(branch.children, left + 2, children, left + 1, branch.children.length - left - 2);
+                return new Branch(children);
+            }
+        }
+        Node[] children = branch.children.clone();
+        children[c] = child;
+        return new Branch(children);
+    }
+
+    private static Leaf concat(Leaf first, Leaf second) {
+        double[] xs = Arrays.copyOf(first.xs, first.size() + second.size());
+        double[] ys = Arrays.copyOf(first.ys, xs.length);
+        System.arraycopy(second.xs, 0, xs, first.size(), second.size());
+        System.arraycopy(second.ys, 0, ys, first.size(), second.size());
+        return new Leaf(xs, ys);
+    }
+
+    private static Node[] replaceChild(Node[] children, int index, Node[] replacement) {
+        Node[] result = new Node[children.length - 1 + replacement.length];
+        System.arraycopy(children, 0, result, 0, index);
+        System.arraycopy(replacement, 0, result, index, replacement.length);
+        System.arraycopy(children, index + 1, result, index + replacement.length, children.length - index - 1);
+        return result;
+    }
+
+    // Первый индекс i, для которого values[i] > x
+    private static int upperBound(double[] values, double x) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Первый индекс i, для которого values[i] >= x
+    private static int lowerBound(double[] values, double x) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= root.size()) {
+            logger.error("Index out of bounds: index={}, count={}", index, root.size());
+            throw new IllegalArgumentException("Index is out of bounds");
+        }
+    }
+
+    private double xAt(int index) {
+        Node node = root;
+        while (node instanceof Branch branch) {
+            int c = branch.childAt(index);
+            index -= branch.starts[c];
+            node = branch.children[c];
+        }
+        return ((Leaf) node).xs[index];
+    }
+
+    private double yAt(int index) {
+        Node node = root;
+        while (node instanceof Branch branch) {
+            int c = branch.childAt(index);
+            index -= branch.starts[c];
+            node = branch.children[c];
+        }
+        return ((Leaf) node).ys[index];
+    }
+
+    @Override
+    public int getCount() {
+        return root.size();
+    }
+
+    @Override
+    public double getX(int index) {
+        checkIndex(index);
+        return xAt(index);
+    }
+
+    @Override
+    public double getY(int index) {
+        checkIndex(index);
+        return yAt(index);
+    }
+
+    @Override
+    public void setY(int index, double value) {
+        throw new UnsupportedOperationException("Persistent tabulated function is immutable, use withY");
+    }
+
+    @Override
+    public int indexOfX(double x) {
+        if (!(x >= leftBound() && x <= rightBound())) {
+            return -1;
+        }
+        // Глобальный lowerBound: спуск к последнему потомку с первым x < x
+        Node node = root;
+        int offset = 0;
+        while (node instanceof Branch branch) {
+            int c = branch.childBeforeX(x);
+            offset += branch.starts[c];
+            node = branch.children[c];
+        }
+        int index = offset + lowerBound(((Leaf) node).xs, x);
+        return index < root.size() && xAt(index) == x ? index : -1;
+    }
+
+    @Override
+    public int indexOfY(double y) {
+        int[] found = {-1};
+        int[] position = {0};
+        forEachPoint((px, py) -> {
+            if (found[0] == -1 && py == y) {
+                found[0] = position[0];
+            }
+            position[0]++;
+        });
+        return found[0];
+    }
+
+    @Override
+    public double leftBound() {
+        return root.firstX();
+    }
+
+    @Override
+    public double rightBound() {
+        return xAt(root.size() - 1);
+    }
+
+    @Override
+    protected int floorIndexOfX(double x) {
+        if (x < leftBound()) {
+            logger.error("X value {} is less than left bound {}", x, leftBound());
+            throw new IllegalArgumentException("X is less than left bound");
+        }
+        if (x > rightBound()) return root.size();
+        Node node = root;
+        int offset = 0;
+        while (node instanceof Branch branch) {
+            int c = branch.childForX(x);
+            offset += branch.starts[c];
+            node = branch.children[c];
+        }
+        return offset + upperBound(((Leaf) node).xs, x) - 1;
+    }
+
+    @Override
+    protected double extrapolateLeft(double x) {
+        return interpolate(x, xAt(0), xAt(1), yAt(0), yAt(1));
+    }
+
+    @Override
+    protected double extrapolateRight(double x) {
+        int n = root.size() - 1;
+        return interpolate(x, xAt(n - 1), xAt(n), yAt(n - 1), yAt(n));
+    }
+
+    @Override
+    protected double interpolate(double x, int floorIndex) {
+        if (floorIndex == root.size() - 1) {
+            return yAt(floorIndex);
+        }
+
+        double leftX = xAt(floorIndex);
+        double rightX = xAt(floorIndex + 1);
+        if (!(leftX <= x && x <= rightX)) {
+            logger.error("Interpolation error: x={} not in interval [{}, {}]", x, leftX, rightX);
+            throw new InterpolationException("Illegal x value");
+        }
+        return interpolate(x, leftX, rightX, yAt(floorIndex), yAt(floorIndex + 1));
+    }
+
+    @Override
+    public void copyXInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, root.size());
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        copyRange(root, fromIndex, fromIndex + length, true, dest, destOffset);
+    }
+
+    @Override
+    public void copyYInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, root.size());
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        copyRange(root, fromIndex, fromIndex + length, false, dest, destOffset);
+    }
+
+    private static void copyRange(Node node, int from, int to, boolean xColumn, double[] dest, int destOffset) {
+        if (from >= to) {
+            return;
+        }
+        if (node instanceof Leaf leaf) {
+            System.arraycopy(xColumn ? leaf.xs : leaf.ys, from, dest, destOffset, to - from);
+            return;
+        }
+        Branch branch = (Branch) node;
+        for (int c = branch.childAt(from); c < branch.children.length && branch.starts[c] < to; c++) {
+            int childFrom = Math.max(from, branch.starts[c]);
+            int childTo = Math.min(to, branch.starts[c + 1]);
+            copyRange(branch.children[c], childFrom - branch.starts[c], childTo - branch.starts[c],
+                    xColumn, dest, destOffset + childFrom - from);
+        }
+    }
+
+    @Override
+    public void forEachPoint(PointConsumer action) {
+        forEachPoint(root, action);
+    }
+
+    private static void forEachPoint(Node node, PointConsumer action) {
+        if (node instanceof Leaf leaf) {
+            for (int i = 0; i < leaf.xs.length; i++) {
+                action.accept(leaf.xs[i], leaf.ys[i]);
+            }
+            return;
+        }
+        for (Node child : ((Branch) node).children) {
+            forEachPoint(child, action);
+        }
+    }
+
+    // Итератор обходит ту версию, из которой создан; копирование не нужно
+    @Override
+    public Iterator<Point> iterator() {
+        return new Iterator<Point>() {
+            private int index = 0;
+            private Leaf leaf;
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                return index < root.size();
+            }
+
+            @Override
+            public Point next() {
+                if (!hasNext()) {
+                    logger.error("Iterator has no more elements");
+                    throw new NoSuchElementException();
+                }
+                if (leaf == null || position == leaf.size()) {
+                    Node node = root;
+                    int local = index;
+                    while (node instanceof Branch branch) {
+                        int c = branch.childAt(local);
+                        local -= branch.starts[c];
+                        node = branch.children[c];
+                    }
+                    leaf = (Leaf) node;
+                    position = local;
+                }
+                Point point = new Point(leaf.xs[position], leaf.ys[position]);
+                position++;
+                index++;
+                return point;
+            }
+        };
+    }
+}
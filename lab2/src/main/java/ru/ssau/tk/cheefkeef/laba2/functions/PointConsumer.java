@@ -0,0 +1,7 @@
+package ru.ssau.tk.cheefkeef.laba2.functions;
+
+// Получает точки табулированной функции как пару примитивов, без создания Point
+@FunctionalInterface
+public interface PointConsumer {
+    void accept(double x, double y);
+}
@@ -1,6 +1,8 @@
 package ru.ssau.tk.cheefkeef.laba2.functions;
 
 import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
 
 public interface TabulatedFunction extends MathFunction, Iterable<Point> {
     int getCount();
@@ -19,6 +21,81 @@ public interface TabulatedFunction extends MathFunction, Iterable<Point> {
 
     double rightBound();
 
+    // Обход точек по возрастанию индекса без создания объектов Point.
+    // Реализации переопределяют обход, чтобы не платить getX/getY за каждый элемент
+    default void forEachPoint(PointConsumer action) {
+        int count = getCount();
+        for (int i = 0; i < count; i++) {
+            action.accept(getX(i), getY(i));
+        }
+    }
+
+    // Пакетный экспорт: length значений начиная с индекса fromIndex в dest[destOffset..].
+    // Реализации копируют из своего хранилища напрямую, без проверок и логирования на элемент
+    default void copyXInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, getCount());
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        for (int i = 0; i < length; i++) {
+            dest[destOffset + i] = getX(fromIndex + i);
+        }
+    }
+
+    default void copyYInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, getCount());
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        for (int i = 0; i < length; i++) {
+            dest[destOffset + i] = getY(fromIndex + i);
+        }
+    }
+
+    // Пакетный импорт y: y[fromIndex + i] = source[sourceOffset + i]
+    default void copyYFrom(int fromIndex, double[] source, int sourceOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, getCount());
+        Objects.checkFromIndexSize(sourceOffset, length, source.length);
+        for (int i = 0; i < length; i++) {
+            setY(fromIndex + i, source[sourceOffset + i]);
+        }
+    }
+
+    default void copyXInto(double[] dest, int destOffset) {
+        copyXInto(0, dest, destOffset, getCount());
+    }
+
+    default void copyYInto(double[] dest, int destOffset) {
+        copyYInto(0, dest, destOffset, getCount());
+    }
+
+    // Снимки столбцов в новые массивы
+    default double[] toXArray() {
+        double[] result = new double[getCount()];
+        copyXInto(result, 0);
+        return result;
+    }
+
+    default double[] toYArray() {
+        double[] result = new double[getCount()];
+        copyYInto(result, 0);
+        return result;
+    }
+
+    // y[i] = operator(y[i]) для всех точек
+    default void transformY(DoubleUnaryOperator operator) {
+        transformY(0, getCount(), operator);
+    }
+
+    // y[i] = operator(y[i]) для fromIndex <= i < toIndex. Реализации меняют y на месте и не трогают
+    // общее состояние вне диапазона, поэтому непересекающиеся диапазоны можно обрабатывать параллельно
+    default void transformY(int fromIndex, int toIndex, DoubleUnaryOperator operator) {
+        Objects.checkFromToIndex(fromIndex, toIndex, getCount());
+        int length = toIndex - fromIndex;
+        double[] values = new double[length];
+        copyYInto(fromIndex, values, 0, length);
+        for (int i = 0; i < length; i++) {
+            values[i] = operator.applyAsDouble(values[i]);
+        }
+        copyYFrom(fromIndex, values, 0, length);
+    }
+
     @Override
     Iterator<Point> iterator();
 }
\ No newline at end of file
@@ -0,0 +1,299 @@
+package ru.ssau.tk.cheefkeef.laba2.functions;
+
+import ru.ssau.tk.cheefkeef.laba2.exceptions.InterpolationException;
+import ru.ssau.tk.cheefkeef.laba2.jfr.TableConstructionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+
+// Табулированная функция на равномерной сетке: хранит только xFrom, step и y[].
+// x[i] = xFrom + step * i считается на лету, поэтому getX, indexOfX и floorIndexOfX работают за O(1).
+public class UniformTabulatedFunction extends AbstractTabulatedFunction implements ConcurrentlyReadable, Serializable {
+    private static final Logger logger = LoggerFactory.getLogger(UniformTabulatedFunction.class);
+
+    // Сколько ulp вокруг (xTo - xFrom) / (count - 1) перебираем в поисках шага, точно воспроизводящего сетку
+    private static final int STEP_ULP_SEARCH = 4;
+
+    @Serial
+    private static final long serialVersionUID = -4181796563254018842L;
+
+    private final double xFrom;
+    private final double step;
+    private final double[] yValues;
+    private final int count;
+
+    public UniformTabulatedFunction(double[] xValues, double[] yValues) {
+        TableConstructionEvent event = startConstruction();
+        logger.info("Creating UniformTabulatedFunction from arrays with length: {}", xValues.length);
+
+        if (xValues.length != yValues.length || xValues.length < 2) {
+            throw new IllegalArgumentException("Arrays must be of equal length with at least 2 points");
+        }
+        AbstractTabulatedFunction.checkSorted(xValues);
+
+        this.count = xValues.length;
+        this.xFrom = xValues[0];
+        double step = findStep(xValues);
+        if (Double.isNaN(step)) {
+            logger.error("Grid is not uniform: no step reproduces all {} nodes exactly", count);
+            throw new IllegalArgumentException("Grid is not uniform");
+        }
+        this.step = step;
+        this.yValues = Arrays.copyOf(yValues, count);
+        finishConstruction(event, "arrays");
+        logger.debug("Successfully created UniformTabulatedFunction with {} points, step {}", count, step);
+    }
+
+    public UniformTabulatedFunction(MathFunction source, double xFrom, double xTo, int count) {
+        TableConstructionEvent event = startConstruction();
+        logger.info("Creating UniformTabulatedFunction from function: xFrom={}, xTo={}, count={}", xFrom, xTo, count);
+
+        if (count < 2) throw new IllegalArgumentException("Count is less than minimum");
+        if (xFrom > xTo) {
+            logger.warn("xFrom ({}) > xTo ({}), swapping values", xFrom, xTo);
+            double tmp = xFrom;
+            xFrom = xTo;
+            xTo = tmp;
+        }
+        this.count = count;
+        this.xFrom = xFrom;
+        // Та же формула шага, что и в ArrayTabulatedFunction: сетки совпадают бит в бит
+        this.step = (xTo - xFrom) / (count - 1);
+        this.yValues = new double[count];
+        for (int i = 0; i < count; i++) {
+            yValues[i] = source.apply(xFrom + step * i);
+        }
+        finishConstruction(event, source);
+        logger.info("Successfully created UniformTabulatedFunction from source function");
+    }
+
+    // Можно ли хранить сетку как xFrom + step * i, не изменив ни одного узла
+    public static boolean isUniform(double[] xValues) {
+        return xValues.length >= 2 && !Double.isNaN(findStep(xValues));
+    }
+
+    // Подбирает шаг, при котором xValues[0] + step * i совпадает с каждым узлом бит в бит.
+    // Приближённый шаг не подходит: getX вернул бы другие x, и сравнение с исходной сеткой сломалось бы.
+    // Если точного шага нет, возвращает NaN.
+    private static double findStep(double[] xValues) {
+        int n = xValues.length;
+        double candidate = (xValues[n - 1] - xValues[0]) / (n - 1);
+        if (Double.isInfinite(candidate) || Double.isNaN(candidate)) {
+            return Double.NaN;
+        }
+
+        double down = candidate;
+        double up = candidate;
+        for (int ulp = 0; ulp <= STEP_ULP_SEARCH; ulp++) {
+            if (reproducesGrid(xValues, down)) {
+                return down;
+            }
+            if (reproducesGrid(xValues, up)) {
+                return up;
+            }
+            down = Math.nextDown(down);
+            up = Math.nextUp(up);
+        }
+        return Double.NaN;
+    }
+
+    private static boolean reproducesGrid(double[] xValues, double step) {
+        for (int i = 1; i < xValues.length; i++) {
+            if (xValues[0] + step * i != xValues[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public double getStep() {
+        return step;
+    }
+
+    private double xAt(int index) {
+        return xFrom + step * index;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            logger.error("Index out of bounds: index={}, count={}", index, count);
+            throw new IllegalArgumentException("Index is out of bounds");
+        }
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public double getX(int index) {
+        checkIndex(index);
+        return xAt(index);
+    }
+
+    @Override
+    public double getY(int index) {
+        checkIndex(index);
+        return yValues[index];
+    }
+
+    @Override
+    public void setY(int index, double value) {
+        checkIndex(index);
+        yValues[index] = value;
+    }
+
+    @Override
+    public int indexOfX(double x) {
+        if (!(x >= xFrom && x <= rightBound())) {
+            return -1;
+        }
+        // При нулевом шаге все узлы совпадают, первый из них - xFrom
+        int i = step == 0 ? 0 : gridFloorIndex(x);
+        return xAt(i) == x ? i : -1;
+    }
+
+    @Override
+    public int indexOfY(double y) {
+        for (int i = 0; i < count; i++) {
+            if (yValues[i] == y) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public double leftBound() {
+        return xFrom;
+    }
+
+    @Override
+    public double rightBound() {
+        return xAt(count - 1);
+    }
+
+    @Override
+    protected int floorIndexOfX(double x) {
+        if (x < xFrom) {
+            logger.error("X value {} is less than left bound {}", x, xFrom);
+            throw new IllegalArgumentException("X is less than left bound");
+        }
+        if (x > rightBound()) return count;
+        return step == 0 ? count - 1 : gridFloorIndex(x);
+    }
+
+    // Индекс считается по шагу, затем поправляется на погрешность округления.
+    // Требует xFrom <= x <= rightBound() и step > 0
+    private int gridFloorIndex(double x) {
+        int i = (int) ((x - xFrom) / step);
+        if (i < 0) {
+            i = 0;
+        } else if (i > count - 1) {
+            i = count - 1;
+        }
+        while (i < count - 1 && xAt(i + 1) <= x) {
+            i++;
+        }
+        while (i > 0 && xAt(i) > x) {
+            i--;
+        }
+        return i;
+    }
+
+    @Override
+    protected double extrapolateLeft(double x) {
+        return interpolate(x, xAt(0), xAt(1), yValues[0], yValues[1]);
+    }
+
+    @Override
+    protected double extrapolateRight(double x) {
+        int n = count - 1;
+        return interpolate(x, xAt(n - 1), xAt(n), yValues[n - 1], yValues[n]);
+    }
+
+    @Override
+    protected double interpolate(double x, int floorIndex) {
+        if (floorIndex == count - 1) {
+            return yValues[floorIndex];
+        }
+
+        double leftX = xAt(floorIndex);
+        double rightX = xAt(floorIndex + 1);
+        if (!(leftX <= x && x <= rightX)) {
+            logger.error("Interpolation error: x={} not in interval [{}, {}]", x, leftX, rightX);
+            throw new InterpolationException("Illegal x value");
+        }
+
+        return interpolate(x, leftX, rightX, yValues[floorIndex], yValues[floorIndex + 1]);
+    }
+
+    @Override
+    public void copyXInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        for (int i = 0; i < length; i++) {
+            dest[destOffset + i] = xAt(fromIndex + i);
+        }
+    }
+
+    @Override
+    public void copyYInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        System.arraycopy(yValues, fromIndex, dest, destOffset, length);
+    }
+
+    @Override
+    public void copyYFrom(int fromIndex, double[] source, int sourceOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(sourceOffset, length, source.length);
+        System.arraycopy(source, sourceOffset, yValues, fromIndex, length);
+    }
+
+    @Override
+    public void transformY(int fromIndex, int toIndex, DoubleUnaryOperator operator) {
+        Objects.checkFromToIndex(fromIndex, toIndex, count);
+        for (int i = fromIndex; i < toIndex; i++) {
+            yValues[i] = operator.applyAsDouble(yValues[i]);
+        }
+    }
+
+    @Override
+    public void forEachPoint(PointConsumer action) {
+        for (int i = 0; i < count; i++) {
+            action.accept(xAt(i), yValues[i]);
+        }
+    }
+
+    @Override
+    public Iterator<Point> iterator() {
+        return new Iterator<Point>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < count;
+            }
+
+            @Override
+            public Point next() {
+                if (!hasNext()) {
+                    logger.error("Iterator has no more elements");
+                    throw new NoSuchElementException();
+                }
+                Point point = new Point(xAt(i), yValues[i]);
+                i++;
+                return point;
+            }
+        };
+    }
+}
@@ -0,0 +1,597 @@
+package ru.ssau.tk.cheefkeef.laba2.functions;
+
+import ru.ssau.tk.cheefkeef.laba2.exceptions.InterpolationException;
+import ru.ssau.tk.cheefkeef.laba2.jfr.TableConstructionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+
+// Развёрнутый (unrolled) вариант LinkedListTabulatedFunction: узел списка хранит блок до BLOCK_CAPACITY
+// точек в примитивных массивах. Обход идёт по подряд лежащим double, а не по указателю на каждом шаге.
+// Массивы блока всегда полной ёмкости, поэтому память на точку зависит от заполнения: ~17 байт
+// у полных блоков после построения из массивов, а в замере на 200 тысячах точек (рост кучи после GC)
+// ~24 после вставок в случайном порядке и ~34 после вставок по возрастанию, где блоки после деления
+// остаются заполнены наполовину. У LinkedListTabulatedFunction ~41 байт.
+// Семантика insert/remove и исключения те же, что у LinkedListTabulatedFunction
+public class UnrolledLinkedListTabulatedFunction extends AbstractTabulatedFunction implements Insertable, Removable, ConcurrentlyReadable, Serializable {
+    private static final Logger logger = LoggerFactory.getLogger(UnrolledLinkedListTabulatedFunction.class);
+
+    static final int BLOCK_CAPACITY = 64;
+    // Блок меньше этого размера после удаления сливается с соседом, если они помещаются в один блок
+    private static final int BLOCK_MERGE_THRESHOLD = BLOCK_CAPACITY / 4;
+
+    @Serial
+    private static final long serialVersionUID = 5790871337602184231L;
+
+    private static final class Block {
+        final double[] xs = new double[BLOCK_CAPACITY];
+        final double[] ys = new double[BLOCK_CAPACITY];
+        int size;
+        Block prev;
+        Block next;
+    }
+
+    // Блоки не сериализуются напрямую: writeObject пишет точки, readObject собирает блоки заново
+    private transient Block head;
+    private transient Block tail;
+    private transient int count;
+
+    // Блок вместе с индексом его первой точки и версией структуры, при которой он найден.
+    // Последний найденный blockAt результат публикуется одной записью ссылки, поэтому параллельные
+    // читатели не смешивают блок одного поиска с началом другого. Вставка и удаление увеличивают
+    // structureVersion, и найденное до них больше не используется
+    private record Cursor(Block block, int start, int version) {
+    }
+
+    private transient Cursor lastCursor;
+    private transient volatile int structureVersion;
+
+    public UnrolledLinkedListTabulatedFunction(double[] xValues, double[] yValues) {
+        TableConstructionEvent event = startConstruction();
+        logger.info("Creating UnrolledLinkedListTabulatedFunction from arrays with length: {}", xValues.length);
+
+        if (xValues.length != yValues.length) {
+            logger.error("Arrays length mismatch: x.length={}, y.length={}", xValues.length, yValues.length);
+            throw new IllegalArgumentException("Arrays must have the same length");
+        }
+        if (xValues.length < 2) {
+            logger.error("Array length {} is less than minimum required (2)", xValues.length);
+            throw new IllegalArgumentException("Length must be at least 2");
+        }
+        AbstractTabulatedFunction.checkSorted(xValues);
+
+        build(xValues, yValues, xValues.length);
+        finishConstruction(event, "arrays");
+        logger.info("Successfully created UnrolledLinkedListTabulatedFunction with {} points", count);
+    }
+
+    public UnrolledLinkedListTabulatedFunction(MathFunction source, double xFrom, double xTo, int count) {
+        this(new LinkedListTabulatedFunction(source, xFrom, xTo, count));
+    }
+
+    // Например, для перевода уже сохранённых LinkedListTabulatedFunction в компактный вид
+    public UnrolledLinkedListTabulatedFunction(TabulatedFunction source) {
+        this(source.toXArray(), source.toYArray());
+    }
+
+    private void build(double[] xValues, double[] yValues, int n) {
+        head = null;
+        tail = null;
+        for (int from = 0; from < n; from += BLOCK_CAPACITY) {
+            Block block = new Block();
+            block.size = Math.min(BLOCK_CAPACITY, n - from);
+            System.arraycopy(xValues, from, block.xs, 0, block.size);
+            System.arraycopy(yValues, from, block.ys, 0, block.size);
+            block.prev = tail;
+            if (tail == null) {
+                head = block;
+            } else {
+                tail.next = block;
+            }
+            tail = block;
+        }
+        count = n;
+        structureChanged();
+    }
+
+    // Вызывается после каждого изменения цепочки блоков или сдвига точек внутри блока
+    private void structureChanged() {
+        structureVersion++;
+    }
+
+    // Первый индекс i < block.size, для которого x[i] > x
+    private static int upperBound(Block block, double x) {
+        int low = 0;
+        int high = block.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (block.xs[mid] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Первый индекс i < block.size, для которого x[i] >= x
+    private static int lowerBound(Block block, double x) {
+        int low = 0;
+        int high = block.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (block.xs[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            logger.error("Index out of bounds: index={}, count={}", index, count);
+            throw new IllegalArgumentException("Index is out of bounds");
+        }
+    }
+
+    // Блок с точкой index и его начало, поиск от ближайшего из головы, хвоста и последнего найденного блока.
+    // Если точка в том же блоке, что и в прошлый раз, возвращается прежний Cursor без выделения памяти
+    private Cursor blockAt(int index) {
+        int version = structureVersion;
+        Cursor last = lastCursor;
+        if (last != null && last.version() != version) {
+            last = null;
+        }
+        if (last != null && index >= last.start() && index < last.start() + last.block().size) {
+            return last;
+        }
+        Block block;
+        int start;
+        if (last != null && Math.abs(index - last.start()) < Math.min(index, count - 1 - index)) {
+            block = last.block();
+            start = last.start();
+        } else if (index <= count / 2) {
+            block = head;
+            start = 0;
+        } else {
+            block = tail;
+            start = count - tail.size;
+        }
+        while (index < start) {
+            block = block.prev;
+            start -= block.size;
+        }
+        while (index >= start + block.size) {
+            start += block.size;
+            block = block.next;
+        }
+        Cursor cursor = new Cursor(block, start, version);
+        lastCursor = cursor;
+        return cursor;
+    }
+
+    // Размеры блоков от головы к хвосту; нужно тестам
+    int[] blockSizes() {
+        int blocks = 0;
+        for (Block block = head; block != null; block = block.next) {
+            blocks++;
+        }
+        int[] sizes = new int[blocks];
+        int i = 0;
+        for (Block block = head; block != null; block = block.next) {
+            sizes[i++] = block.size;
+        }
+        return sizes;
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public double getX(int index) {
+        checkIndex(index);
+        Cursor cursor = blockAt(index);
+        return cursor.block().xs[index - cursor.start()];
+    }
+
+    @Override
+    public double getY(int index) {
+        checkIndex(index);
+        Cursor cursor = blockAt(index);
+        return cursor.block().ys[index - cursor.start()];
+    }
+
+    @Override
+    public void setY(int index, double value) {
+        checkIndex(index);
+        Cursor cursor = blockAt(index);
+        cursor.block().ys[index - cursor.start()] = value;
+    }
+
+    @Override
+    public int indexOfX(double x) {
+        int start = 0;
+        for (Block block = head; block != null; block = block.next) {
+            if (block.xs[block.size - 1] >= x) {
+                int i = lowerBound(block, x);
+                return block.xs[i] == x ? start + i : -1;
+            }
+            start += block.size;
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOfY(double y) {
+        int start = 0;
+        for (Block block = head; block != null; block = block.next) {
+            for (int i = 0; i < block.size; i++) {
+                if (block.ys[i] == y) {
+                    return start + i;
+                }
+            }
+            start += block.size;
+        }
+        return -1;
+    }
+
+    @Override
+    public double leftBound() {
+        return head.xs[0];
+    }
+
+    @Override
+    public double rightBound() {
+        return tail.xs[tail.size - 1];
+    }
+
+    @Override
+    protected int floorIndexOfX(double x) {
+        if (x < leftBound()) {
+            logger.error("X value {} is less than left bound {}", x, leftBound());
+            throw new IllegalArgumentException("X is less than left bound");
+        }
+        if (x > rightBound()) return count;
+        int start = 0;
+        for (Block block = head; block != null; block = block.next) {
+            if (block.xs[block.size - 1] > x) {
+                // Если x меньше первого x блока, получится последний индекс предыдущего блока
+                return start + upperBound(block, x) - 1;
+            }
+            start += block.size;
+        }
+        return count - 1;
+    }
+
+    @Override
+    protected double extrapolateLeft(double x) {
+        if (head.size >= 2) {
+            return interpolate(x, head.xs[0], head.xs[1], head.ys[0], head.ys[1]);
+        }
+        return interpolate(x, head.xs[0], head.next.xs[0], head.ys[0], head.next.ys[0]);
+    }
+
+    @Override
+    protected double extrapolateRight(double x) {
+        int n = tail.size - 1;
+        if (n >= 1) {
+            return interpolate(x, tail.xs[n - 1], tail.xs[n], tail.ys[n - 1], tail.ys[n]);
+        }
+        Block previous = tail.prev;
+        int p = previous.size - 1;
+        return interpolate(x, previous.xs[p], tail.xs[0], previous.ys[p], tail.ys[0]);
+    }
+
+    @Override
+    protected double interpolate(double x, int floorIndex) {
+        if (floorIndex == count - 1) {
+            return getY(floorIndex);
+        }
+
+        Cursor cursor = blockAt(floorIndex);
+        Block block = cursor.block();
+        int i = floorIndex - cursor.start();
+        double leftX = block.xs[i];
+        double leftY = block.ys[i];
+        double rightX;
+        double rightY;
+        if (i + 1 < block.size) {
+            rightX = block.xs[i + 1];
+            rightY = block.ys[i + 1];
+        } else {
+            rightX = block.next.xs[0];
+            rightY = block.next.ys[0];
+        }
+        if (!(leftX <= x && x <= rightX)) {
+            logger.error("Interpolation error: x={} not in interval [{}, {}]", x, leftX, rightX);
+            throw new InterpolationException("Illegal x value");
+        }
+        return interpolate(x, leftX, rightX, leftY, rightY);
+    }
+
+    // Один проход по блокам до первого блока, последний x которого не меньше x:
+    // apply только читает блоки и не трогает lastCursor. Для узла берётся y первой точки с таким x
+    @Override
+    public double apply(double x) {
+        if (Double.isNaN(x)) {
+            return Double.NaN;
+        }
+        if (x < leftBound()) {
+            return extrapolateLeft(x);
+        }
+        if (x > rightBound()) {
+            return extrapolateRight(x);
+        }
+        Block block = head;
+        while (block.xs[block.size - 1] < x) {
+            block = block.next;
+        }
+        int i = lowerBound(block, x);
+        if (block.xs[i] == x) {
+            return block.ys[i];
+        }
+        double leftX;
+        double leftY;
+        if (i > 0) {
+            leftX = block.xs[i - 1];
+            leftY = block.ys[i - 1];
+        } else {
+            Block previous = block.prev;
+            leftX = previous.xs[previous.size - 1];
+            leftY = previous.ys[previous.size - 1];
+        }
+        return interpolate(x, leftX, block.xs[i], leftY, block.ys[i]);
+    }
+
+    @Override
+    public void insert(double x, double y) {
+        logger.debug("Inserting point: x={}, y={}", x, y);
+
+        // Первый блок, последний x которого не меньше x; если таких нет - хвост
+        Block block = head;
+        while (block.next != null && block.xs[block.size - 1] < x) {
+            block = block.next;
+        }
+        int position = lowerBound(block, x);
+        if (position < block.size && block.xs[position] == x) {
+            logger.debug("Point with x={} already exists, updating y value", x);
+            block.ys[position] = y;
+            return;
+        }
+        if (block.size == BLOCK_CAPACITY) {
+            Block right = split(block);
+            if (position > block.size) {
+                position -= block.size;
+                block = right;
+            }
+        }
+        System.arraycopy(block.xs, position, block.xs, position + 1, block.size - position);
+        System.arraycopy(block.ys, position, block.ys, position + 1, block.size - position);
+        block.xs[position] = x;
+        block.ys[position] = y;
+        block.size++;
+        count++;
+        structureChanged();
+    }
+
+    // Переносит верхнюю половину блока в новый блок справа
+    private Block split(Block block) {
+        Block right = new Block();
+        int half = block.size / 2;
+        right.size = block.size - half;
+        System.arraycopy(block.xs, half, right.xs, 0, right.size);
+        System.arraycopy(block.ys, half, right.ys, 0, right.size);
+        block.size = half;
+        right.prev = block;
+        right.next = block.next;
+        if (block.next != null) {
+            block.next.prev = right;
+        } else {
+            tail = right;
+        }
+        block.next = right;
+        return right;
+    }
+
+    @Override
+    public void remove(int index) {
+        logger.debug("Removing point at index {}", index);
+
+        if (index < 0 || index >= count) {
+            logger.error("Index out of bounds: index={}, count={}", index, count);
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+        if (count <= 2) {
+            logger.error("Cannot remove point - minimum points count reached (current: {})", count);
+            throw new IllegalStateException("Cannot remove point, cause we need at least 2 points");
+        }
+
+        Cursor cursor = blockAt(index);
+        Block block = cursor.block();
+        int i = index - cursor.start();
+        System.arraycopy(block.xs, i + 1, block.xs, i, block.size - i - 1);
+        System.arraycopy(block.ys, i + 1, block.ys, i, block.size - i - 1);
+        block.size--;
+        count--;
+
+        if (block.size == 0) {
+            unlink(block);
+        } else if (block.size < BLOCK_MERGE_THRESHOLD) {
+            // Сливаем с правым соседом, у хвоста - с левым
+            Block first = block.next != null ? block : block.prev;
+            if (first != null && first.size + first.next.size <= BLOCK_CAPACITY) {
+                Block second = first.next;
+                System.arraycopy(second.xs, 0, first.xs, first.size, second.size);
+                System.arraycopy(second.ys, 0, first.ys, first.size, second.size);
+                first.size += second.size;
+                unlink(second);
+            }
+        }
+        structureChanged();
+    }
+
+    private void unlink(Block block) {
+        if (block.prev != null) {
+            block.prev.next = block.next;
+        } else {
+            head = block.next;
+        }
+        if (block.next != null) {
+            block.next.prev = block.prev;
+        } else {
+            tail = block.prev;
+        }
+    }
+
+    @Override
+    public void copyXInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        copyRange(fromIndex, length, true, dest, destOffset);
+    }
+
+    @Override
+    public void copyYInto(int fromIndex, double[] dest, int destOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(destOffset, length, dest.length);
+        copyRange(fromIndex, length, false, dest, destOffset);
+    }
+
+    private void copyRange(int fromIndex, int length, boolean xColumn, double[] dest, int destOffset) {
+        if (length == 0) {
+            return;
+        }
+        Cursor cursor = blockAt(fromIndex);
+        Block block = cursor.block();
+        int start = fromIndex - cursor.start();
+        while (length > 0) {
+            int chunk = Math.min(length, block.size - start);
+            System.arraycopy(xColumn ? block.xs : block.ys, start, dest, destOffset, chunk);
+            destOffset += chunk;
+            length -= chunk;
+            block = block.next;
+            start = 0;
+        }
+    }
+
+    @Override
+    public void copyYFrom(int fromIndex, double[] source, int sourceOffset, int length) {
+        Objects.checkFromIndexSize(fromIndex, length, count);
+        Objects.checkFromIndexSize(sourceOffset, length, source.length);
+        if (length == 0) {
+            return;
+        }
+        Cursor cursor = blockAt(fromIndex);
+        Block block = cursor.block();
+        int start = fromIndex - cursor.start();
+        while (length > 0) {
+            int chunk = Math.min(length, block.size - start);
+            System.arraycopy(source, sourceOffset, block.ys, start, chunk);
+            sourceOffset += chunk;
+            length -= chunk;
+            block = block.next;
+            start = 0;
+        }
+    }
+
+    // Начальный блок ищется без запоминания, чтобы потоки с разными диапазонами не писали в общие поля
+    @Override
+    public void transformY(int fromIndex, int toIndex, DoubleUnaryOperator operator) {
+        Objects.checkFromToIndex(fromIndex, toIndex, count);
+        if (fromIndex == toIndex) {
+            return;
+        }
+        Block block = head;
+        int i = fromIndex;
+        while (i >= block.size) {
+            i -= block.size;
+            block = block.next;
+        }
+        for (int remaining = toIndex - fromIndex; remaining > 0; remaining--) {
+            if (i == block.size) {
+                block = block.next;
+                i = 0;
+            }
+            block.ys[i] = operator.applyAsDouble(block.ys[i]);
+            i++;
+        }
+    }
+
+    @Override
+    public void forEachPoint(PointConsumer action) {
+        for (Block block = head; block != null; block = block.next) {
+            for (int i = 0; i < block.size; i++) {
+                action.accept(block.xs[i], block.ys[i]);
+            }
+        }
+    }
+
+    @Override
+    public Iterator<Point> iterator() {
+        return new Iterator<Point>() {
+            private Block block = head;
+            private int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                return block != null && position < block.size;
+            }
+
+            @Override
+            public Point next() {
+                if (!hasNext()) {
+                    logger.error("Iterator has no more elements");
+                    throw new NoSuchElementException("No more elements in the list");
+                }
+                Point point = new Point(block.xs[position], block.ys[position]);
+                position++;
+                if (position == block.size) {
+                    block = block.next;
+                    position = 0;
+                }
+                return point;
+            }
+        };
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(count);
+        for (Block block = head; block != null; block = block.next) {
+            for (int i = 0; i < block.size; i++) {
+                out.writeDouble(block.xs[i]);
+                out.writeDouble(block.ys[i]);
+            }
+        }
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int n = in.readInt();
+        if (n < 2) {
+            throw new IOException("Count must be at least 2");
+        }
+        double[] xValues = new double[n];
+        double[] yValues = new double[n];
+        for (int i = 0; i < n; i++) {
+            xValues[i] = in.readDouble();
+            yValues[i] = in.readDouble();
+        }
+        build(xValues, yValues, n);
+    }
+}
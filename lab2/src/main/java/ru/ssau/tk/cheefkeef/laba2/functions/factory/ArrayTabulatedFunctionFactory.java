@@ -2,10 +2,14 @@ package ru.ssau.tk.cheefkeef.laba2.functions.factory;
 
 import ru.ssau.tk.cheefkeef.laba2.functions.ArrayTabulatedFunction;
 import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Timer;
 
 public class ArrayTabulatedFunctionFactory implements TabulatedFunctionFactory {
+    private static final FactoryMetrics metrics = new FactoryMetrics("array");
+
     @Override
     public TabulatedFunction create(double[] xValues, double[] yValues) {
-        return new ArrayTabulatedFunction(xValues, yValues);
+        Timer.Sample sample = metrics.start();
+        return metrics.created(sample, new ArrayTabulatedFunction(xValues, yValues));
     }
 }
\ No newline at end of file
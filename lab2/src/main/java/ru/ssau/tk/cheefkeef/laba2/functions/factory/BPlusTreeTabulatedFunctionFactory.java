@@ -0,0 +1,15 @@
+package ru.ssau.tk.cheefkeef.laba2.functions.factory;
+
+import ru.ssau.tk.cheefkeef.laba2.functions.BPlusTreeTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Timer;
+
+public class BPlusTreeTabulatedFunctionFactory implements TabulatedFunctionFactory {
+    private static final FactoryMetrics metrics = new FactoryMetrics("bPlusTree");
+
+    @Override
+    public TabulatedFunction create(double[] xValues, double[] yValues) {
+        Timer.Sample sample = metrics.start();
+        return metrics.created(sample, new BPlusTreeTabulatedFunction(xValues, yValues));
+    }
+}
@@ -0,0 +1,28 @@
+package ru.ssau.tk.cheefkeef.laba2.functions.factory;
+
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Histogram;
+import ru.ssau.tk.cheefkeef.laba2.metrics.MetricsRegistry;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Timer;
+
+// Время создания и размеры таблиц одной фабрики: factory.<имя>.create и factory.<имя>.size
+final class FactoryMetrics {
+    private final Timer create;
+    private final Histogram sizes;
+
+    FactoryMetrics(String name) {
+        MetricsRegistry registry = MetricsRegistry.getDefault();
+        this.create = registry.timer("factory." + name + ".create");
+        this.sizes = registry.histogram("factory." + name + ".size");
+    }
+
+    Timer.Sample start() {
+        return create.start();
+    }
+
+    TabulatedFunction created(Timer.Sample sample, TabulatedFunction function) {
+        sample.stop();
+        sizes.record(function.getCount());
+        return function;
+    }
+}
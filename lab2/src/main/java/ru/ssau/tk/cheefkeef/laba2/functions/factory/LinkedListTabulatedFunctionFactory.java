@@ -2,10 +2,14 @@ package ru.ssau.tk.cheefkeef.laba2.functions.factory;
 
 import ru.ssau.tk.cheefkeef.laba2.functions.LinkedListTabulatedFunction;
 import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Timer;
 
 public class LinkedListTabulatedFunctionFactory implements TabulatedFunctionFactory {
+    private static final FactoryMetrics metrics = new FactoryMetrics("linkedList");
+
     @Override
     public TabulatedFunction create(double[] xValues, double[] yValues) {
-        return new LinkedListTabulatedFunction(xValues, yValues);
+        Timer.Sample sample = metrics.start();
+        return metrics.created(sample, new LinkedListTabulatedFunction(xValues, yValues));
     }
 }
\ No newline at end of file
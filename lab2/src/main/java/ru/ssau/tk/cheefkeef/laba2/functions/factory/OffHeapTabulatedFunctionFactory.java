@@ -0,0 +1,26 @@
+package ru.ssau.tk.cheefkeef.laba2.functions.factory;
+
+import ru.ssau.tk.cheefkeef.laba2.functions.OffHeapTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Timer;
+
+// Созданные функции держат память вне кучи до вызова close()
+public class OffHeapTabulatedFunctionFactory implements TabulatedFunctionFactory {
+    private static final FactoryMetrics metrics = new FactoryMetrics("offHeap");
+
+    private final boolean confined;
+
+    public OffHeapTabulatedFunctionFactory() {
+        this(false);
+    }
+
+    public OffHeapTabulatedFunctionFactory(boolean confined) {
+        this.confined = confined;
+    }
+
+    @Override
+    public TabulatedFunction create(double[] xValues, double[] yValues) {
+        Timer.Sample sample = metrics.start();
+        return metrics.created(sample, new OffHeapTabulatedFunction(xValues, yValues, confined));
+    }
+}
@@ -4,4 +4,9 @@ import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
 
 public interface TabulatedFunctionFactory {
     TabulatedFunction create(double[] xValues, double[] yValues);
+
+    // Перенос функции в реализацию этой фабрики через пакетный экспорт столбцов
+    default TabulatedFunction create(TabulatedFunction source) {
+        return create(source.toXArray(), source.toYArray());
+    }
 }
\ No newline at end of file
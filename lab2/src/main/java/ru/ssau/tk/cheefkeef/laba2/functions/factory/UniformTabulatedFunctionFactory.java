@@ -0,0 +1,20 @@
+package ru.ssau.tk.cheefkeef.laba2.functions.factory;
+
+import ru.ssau.tk.cheefkeef.laba2.functions.ArrayTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Timer;
+import ru.ssau.tk.cheefkeef.laba2.functions.UniformTabulatedFunction;
+
+public class UniformTabulatedFunctionFactory implements TabulatedFunctionFactory {
+    private static final FactoryMetrics metrics = new FactoryMetrics("uniform");
+
+    @Override
+    public TabulatedFunction create(double[] xValues, double[] yValues) {
+        Timer.Sample sample = metrics.start();
+        // Сетку, которую нельзя задать точным шагом (например, накопленную x += 0.1), храним как есть
+        if (!UniformTabulatedFunction.isUniform(xValues)) {
+            return metrics.created(sample, new ArrayTabulatedFunction(xValues, yValues));
+        }
+        return metrics.created(sample, new UniformTabulatedFunction(xValues, yValues));
+    }
+}
@@ -0,0 +1,15 @@
+package ru.ssau.tk.cheefkeef.laba2.functions.factory;
+
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Timer;
+import ru.ssau.tk.cheefkeef.laba2.functions.UnrolledLinkedListTabulatedFunction;
+
+public class UnrolledLinkedListTabulatedFunctionFactory implements TabulatedFunctionFactory {
+    private static final FactoryMetrics metrics = new FactoryMetrics("unrolledLinkedList");
+
+    @Override
+    public TabulatedFunction create(double[] xValues, double[] yValues) {
+        Timer.Sample sample = metrics.start();
+        return metrics.created(sample, new UnrolledLinkedListTabulatedFunction(xValues, yValues));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package ru.ssau.tk.cheefkeef.laba2.functions.kernels;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Выбор ядер при первом обращении. Векторные ядра используются, если JVM запущена
+// с --add-modules jdk.incubator.vector и предпочтительный вектор вмещает больше одного double.
+// Отключить без изменения кода: -Dlaba2.kernels.vector=false
+public final class Kernels {
+    private static final Logger logger = LoggerFactory.getLogger(Kernels.class);
+
+    private static final TabulatedKernels INSTANCE = select();
+
+    private Kernels() {
+        throw new UnsupportedOperationException("Utility class Kernels cannot be instantiated");
+    }
+
+    public static TabulatedKernels get() {
+        return INSTANCE;
+    }
+
+    private static TabulatedKernels select() {
+        if (!Boolean.parseBoolean(System.getProperty("laba2.kernels.vector", "true"))) {
+            logger.info("Vector kernels disabled by system property, using scalar kernels");
+            return new ScalarTabulatedKernels();
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            logger.info("Module jdk.incubator.vector is not available, using scalar kernels");
+            return new ScalarTabulatedKernels();
+        }
+        try {
+            VectorTabulatedKernels kernels = new VectorTabulatedKernels();
+            if (kernels.laneCount() < 2) {
+                logger.info("Hardware vectors hold a single double, using scalar kernels");
+                return new ScalarTabulatedKernels();
+            }
+            logger.info("Using vector kernels with {} lanes", kernels.laneCount());
+            return kernels;
+        } catch (LinkageError e) {
+            logger.warn("Vector kernels failed to load, using scalar kernels", e);
+            return new ScalarTabulatedKernels();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ru.ssau.tk.cheefkeef.laba2.functions.kernels;
+
+public class ScalarTabulatedKernels implements TabulatedKernels {
+
+    @Override
+    public boolean isSorted(double[] values, int from, int to) {
+        for (int i = from; i < to - 1; i++) {
+            if (values[i] > values[i + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int indexOf(double[] values, int from, int to, double value) {
+        for (int i = from; i < to; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public double min(double[] values, int from, int to) {
+        double result = values[from];
+        for (int i = from + 1; i < to; i++) {
+            result = Math.min(result, values[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public double max(double[] values, int from, int to) {
+        double result = values[from];
+        for (int i = from + 1; i < to; i++) {
+            result = Math.max(result, values[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean anyAbsBelow(double[] values, int length, double threshold) {
+        for (int i = 0; i < length; i++) {
+            if (Math.abs(values[i]) < threshold) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void interpolate(double[] xs, int xsOffset, int[] floors, double[] xValues, double[] yValues,
+                            double[] out, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            int floor = floors[i];
+            double x = xs[xsOffset + i];
+            double leftX = xValues[floor];
+            double leftY = yValues[floor];
+            out[outOffset + i] = leftY + (yValues[floor + 1] - leftY) * (x - leftX) / (xValues[floor + 1] - leftX);
+        }
+    }
+
+    @Override
+    public void add(double[] a, double[] b, double[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    @Override
+    public void subtract(double[] a, double[] b, double[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = a[i] - b[i];
+        }
+    }
+
+    @Override
+    public void multiply(double[] a, double[] b, double[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = a[i] * b[i];
+        }
+    }
+
+    @Override
+    public void divide(double[] a, double[] b, double[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = a[i] / b[i];
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.ssau.tk.cheefkeef.laba2.functions.kernels;
+
+// Циклы по столбцам табулированных функций, которые выгодно считать пакетно.
+// Реализации: скалярная и на jdk.incubator.vector, выбор - в Kernels.get()
+public interface TabulatedKernels {
+
+    // Ни для одного i из [from, to - 1) не выполняется values[i] > values[i + 1]
+    boolean isSorted(double[] values, int from, int to);
+
+    // Первый индекс из [from, to) с values[i] == value, иначе -1
+    int indexOf(double[] values, int from, int to, double value);
+
+    // Минимум и максимум по правилам Math.min / Math.max, диапазон не пустой
+    double min(double[] values, int from, int to);
+
+    double max(double[] values, int from, int to);
+
+    // Есть ли в [0, length) элемент с |values[i]| < threshold
+    boolean anyAbsBelow(double[] values, int length, double threshold);
+
+    // out[outOffset + i] - линейная интерполяция в xs[xsOffset + i] по отрезку
+    // [floors[i], floors[i] + 1] сетки xValues/yValues
+    void interpolate(double[] xs, int xsOffset, int[] floors, double[] xValues, double[] yValues,
+                     double[] out, int outOffset, int length);
+
+    void add(double[] a, double[] b, double[] out, int length);
+
+    void subtract(double[] a, double[] b, double[] out, int length);
+
+    void multiply(double[] a, double[] b, double[] out, int length);
+
+    void divide(double[] a, double[] b, double[] out, int length);
+}
@@ -0,0 +1,173 @@
+package ru.ssau.tk.cheefkeef.laba2.functions.kernels;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+// Ядра на jdk.incubator.vector. Класс загружается только через Kernels,
+// поэтому без модуля jdk.incubator.vector остальной код работает на скалярных ядрах.
+// Хвосты короче ширины вектора досчитываются скалярно, результаты совпадают со скалярными бит в бит
+public class VectorTabulatedKernels implements TabulatedKernels {
+
+    private final VectorSpecies<Double> species;
+    private final ScalarTabulatedKernels scalar = new ScalarTabulatedKernels();
+
+    public VectorTabulatedKernels() {
+        this(DoubleVector.SPECIES_PREFERRED);
+    }
+
+    // Ширина вектора в битах: 64, 128, 256 или 512
+    public VectorTabulatedKernels(int bitSize) {
+        this(VectorSpecies.of(double.class, VectorShape.forBitSize(bitSize)));
+    }
+
+    private VectorTabulatedKernels(VectorSpecies<Double> species) {
+        this.species = species;
+    }
+
+    public int laneCount() {
+        return species.length();
+    }
+
+    @Override
+    public boolean isSorted(double[] values, int from, int to) {
+        int n = to - from;
+        if (n < 2) {
+            return true;
+        }
+        int i = from;
+        int upper = from + species.loopBound(n - 1);
+        for (; i < upper; i += species.length()) {
+            DoubleVector current = DoubleVector.fromArray(species, values, i);
+            DoubleVector next = DoubleVector.fromArray(species, values, i + 1);
+            if (current.compare(VectorOperators.GT, next).anyTrue()) {
+                return false;
+            }
+        }
+        return scalar.isSorted(values, i, to);
+    }
+
+    @Override
+    public int indexOf(double[] values, int from, int to, double value) {
+        int i = from;
+        int upper = from + species.loopBound(to - from);
+        for (; i < upper; i += species.length()) {
+            VectorMask<Double> mask = DoubleVector.fromArray(species, values, i).compare(VectorOperators.EQ, value);
+            if (mask.anyTrue()) {
+                return i + mask.firstTrue();
+            }
+        }
+        return scalar.indexOf(values, i, to, value);
+    }
+
+    @Override
+    public double min(double[] values, int from, int to) {
+        int i = from;
+        int upper = from + species.loopBound(to - from);
+        if (upper == from) {
+            return scalar.min(values, from, to);
+        }
+        DoubleVector acc = DoubleVector.fromArray(species, values, i);
+        for (i += species.length(); i < upper; i += species.length()) {
+            acc = acc.lanewise(VectorOperators.MIN, DoubleVector.fromArray(species, values, i));
+        }
+        double result = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < to; i++) {
+            result = Math.min(result, values[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public double max(double[] values, int from, int to) {
+        int i = from;
+        int upper = from + species.loopBound(to - from);
+        if (upper == from) {
+            return scalar.max(values, from, to);
+        }
+        DoubleVector acc = DoubleVector.fromArray(species, values, i);
+        for (i += species.length(); i < upper; i += species.length()) {
+            acc = acc.lanewise(VectorOperators.MAX, DoubleVector.fromArray(species, values, i));
+        }
+        double result = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i++) {
+            result = Math.max(result, values[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean anyAbsBelow(double[] values, int length, double threshold) {
+        int i = 0;
+        int upper = species.loopBound(length);
+        for (; i < upper; i += species.length()) {
+            if (DoubleVector.fromArray(species, values, i).abs().compare(VectorOperators.LT, threshold).anyTrue()) {
+                return true;
+            }
+        }
+        for (; i < length; i++) {
+            if (Math.abs(values[i]) < threshold) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Сбор узлов по floors (gather) на JDK 21 не интринсифицирован для double и по замерам
+    // KernelsBenchmark в 3 раза медленнее скалярного цикла, поэтому интерполяция остаётся скалярной
+    @Override
+    public void interpolate(double[] xs, int xsOffset, int[] floors, double[] xValues, double[] yValues,
+                            double[] out, int outOffset, int length) {
+        scalar.interpolate(xs, xsOffset, floors, xValues, yValues, out, outOffset, length);
+    }
+
+    @Override
+    public void add(double[] a, double[] b, double[] out, int length) {
+        int i = 0;
+        int upper = species.loopBound(length);
+        for (; i < upper; i += species.length()) {
+            DoubleVector.fromArray(species, a, i).add(DoubleVector.fromArray(species, b, i)).intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    @Override
+    public void subtract(double[] a, double[] b, double[] out, int length) {
+        int i = 0;
+        int upper = species.loopBound(length);
+        for (; i < upper; i += species.length()) {
+            DoubleVector.fromArray(species, a, i).sub(DoubleVector.fromArray(species, b, i)).intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = a[i] - b[i];
+        }
+    }
+
+    @Override
+    public void multiply(double[] a, double[] b, double[] out, int length) {
+        int i = 0;
+        int upper = species.loopBound(length);
+        for (; i < upper; i += species.length()) {
+            DoubleVector.fromArray(species, a, i).mul(DoubleVector.fromArray(species, b, i)).intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = a[i] * b[i];
+        }
+    }
+
+    @Override
+    public void divide(double[] a, double[] b, double[] out, int length) {
+        int i = 0;
+        int upper = species.loopBound(length);
+        for (; i < upper; i += species.length()) {
+            DoubleVector.fromArray(species, a, i).div(DoubleVector.fromArray(species, b, i)).intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = a[i] / b[i];
+        }
+    }
+}
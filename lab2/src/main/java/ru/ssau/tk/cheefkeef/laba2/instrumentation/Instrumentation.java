@@ -0,0 +1,31 @@
+package ru.ssau.tk.cheefkeef.laba2.instrumentation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Инструментирование горячих путей табулированных функций вместо логирования каждого вызова.
+// Включается без пересборки: -Dlaba2.instrumentation=true (только счётчики),
+// -Dlaba2.instrumentation.timing=true (дополнительно время через System.nanoTime).
+// Флаги static final, поэтому при выключенном инструментировании JIT убирает проверки целиком
+public final class Instrumentation {
+    public static final boolean ENABLED = Boolean.getBoolean("laba2.instrumentation");
+    public static final boolean TIMING = ENABLED && Boolean.getBoolean("laba2.instrumentation.timing");
+
+    private static final Map<String, OperationStats> STATS = new ConcurrentHashMap<>();
+
+    private Instrumentation() {
+    }
+
+    // Один набор счётчиков на класс, его удобно держать в static final поле
+    public static OperationStats statsFor(Class<?> type) {
+        return STATS.computeIfAbsent(type.getName(), OperationStats::new);
+    }
+
+    public static Map<String, OperationStats> allStats() {
+        return Map.copyOf(STATS);
+    }
+
+    public static void resetAll() {
+        STATS.values().forEach(OperationStats::reset);
+    }
+}
@@ -0,0 +1,16 @@
+package ru.ssau.tk.cheefkeef.laba2.instrumentation;
+
+// Операции табулированной функции, для которых ведутся счётчики
+public enum Operation {
+    GET_COUNT,
+    GET_X,
+    GET_Y,
+    SET_Y,
+    INDEX_OF_X,
+    INDEX_OF_Y,
+    FLOOR_INDEX_OF_X,
+    INTERPOLATE,
+    EXTRAPOLATE,
+    INSERT,
+    REMOVE
+}
@@ -0,0 +1,79 @@
+package ru.ssau.tk.cheefkeef.laba2.instrumentation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Счётчики вызовов и суммарное время по операциям одного класса.
+// LongAdder не делит одну кэш-линию между потоками, поэтому параллельное чтение функции
+// не упирается в счётчик. Все методы записи ничего не делают, пока инструментирование выключено
+public final class OperationStats {
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final String name;
+    private final LongAdder[] counts = new LongAdder[OPERATIONS.length];
+    private final LongAdder[] nanos = new LongAdder[OPERATIONS.length];
+
+    OperationStats(String name) {
+        this.name = name;
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            counts[i] = new LongAdder();
+            nanos[i] = new LongAdder();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment(Operation operation) {
+        if (Instrumentation.ENABLED) {
+            counts[operation.ordinal()].increment();
+        }
+    }
+
+    // Метка начала для record; без замера времени System.nanoTime не вызывается
+    public long start() {
+        return Instrumentation.TIMING ? System.nanoTime() : 0L;
+    }
+
+    public void record(Operation operation, long start) {
+        if (Instrumentation.ENABLED) {
+            counts[operation.ordinal()].increment();
+            if (Instrumentation.TIMING) {
+                nanos[operation.ordinal()].add(System.nanoTime() - start);
+            }
+        }
+    }
+
+    public long getCount(Operation operation) {
+        return counts[operation.ordinal()].sum();
+    }
+
+    public long getTotalNanos(Operation operation) {
+        return nanos[operation.ordinal()].sum();
+    }
+
+    public void reset() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            counts[i].reset();
+            nanos[i].reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(name).append(" {");
+        boolean first = true;
+        for (Operation operation : OPERATIONS) {
+            long count = getCount(operation);
+            if (count == 0) {
+                continue;
+            }
+            builder.append(first ? " " : ", ").append(operation).append('=').append(count);
+            if (Instrumentation.TIMING) {
+                builder.append(" (").append(getTotalNanos(operation)).append(" ns)");
+            }
+            first = false;
+        }
+        return builder.append(" }").toString();
+    }
+}
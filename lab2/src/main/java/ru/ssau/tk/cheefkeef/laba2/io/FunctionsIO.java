@@ -1,11 +1,18 @@
 package ru.ssau.tk.cheefkeef.laba2.io;
 
+import ru.ssau.tk.cheefkeef.laba2.functions.MappedTabulatedFunction;
 import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
 import ru.ssau.tk.cheefkeef.laba2.functions.factory.TabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.jfr.FunctionsIOEvent;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Counter;
+import ru.ssau.tk.cheefkeef.laba2.metrics.MetricsRegistry;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.Locale;
@@ -13,47 +20,74 @@ import java.util.Locale;
 public final class FunctionsIO {
     private static final Logger logger = LoggerFactory.getLogger(FunctionsIO.class);
 
+    // Сколько точек двоичного формата кодируется за один вызов write/readFully
+    private static final int IO_CHUNK_POINTS = 1024;
+    private static final int POINT_BYTES = 2 * Double.BYTES;
+
+    private static final Counter bytesRead = MetricsRegistry.getDefault().counter("io.bytesRead");
+    private static final Counter bytesWritten = MetricsRegistry.getDefault().counter("io.bytesWritten");
+
     private FunctionsIO() {
         throw new UnsupportedOperationException("Utility class FunctionsIO cannot be instantiated");
     }
 
     public static void writeTabulatedFunction(BufferedWriter writer, TabulatedFunction function) throws IOException {
         logger.info("Starting tabulated function write to BufferedWriter");
-        PrintWriter printWriter = new PrintWriter(writer);
+        FunctionsIOEvent event = new FunctionsIOEvent();
+        event.begin();
+        Timer.Sample sample = MetricsRegistry.getDefault().timer("io.write.text").start();
+        CountingWriter countingWriter = new CountingWriter(writer);
+        PrintWriter printWriter = new PrintWriter(countingWriter);
         int count = function.getCount();
         logger.debug("Function count: {}", count);
         printWriter.println(count);
 
-        for (var point : function) {
-            printWriter.printf("%f %f\n", point.x, point.y);
-            logger.trace("Written point: x={}, y={}", point.x, point.y);
-        }
+        function.forEachPoint((x, y) -> printWriter.printf("%f %f\n", x, y));
 
         printWriter.flush();
+        finish(event, sample, FunctionsIOEvent.WRITE, "text", countingWriter.count, count);
         logger.info("Successfully wrote {} points to BufferedWriter", count);
     }
 
     public static void writeTabulatedFunction(BufferedOutputStream outputStream, TabulatedFunction function)
             throws IOException {
         logger.info("Starting tabulated function write to BufferedOutputStream");
+        FunctionsIOEvent event = new FunctionsIOEvent();
+        event.begin();
+        Timer.Sample sample = MetricsRegistry.getDefault().timer("io.write.binary").start();
         DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
         int count = function.getCount();
         logger.debug("Function count: {}", count);
         dataOutputStream.writeInt(count);
 
-        for (int i = 0; i < count; i++) {
-            dataOutputStream.writeDouble(function.getX(i));
-            dataOutputStream.writeDouble(function.getY(i));
-            logger.trace("Written point {}: x={}, y={}", i, function.getX(i), function.getY(i));
+        // Столбцы выгружаются пакетами и кодируются в один буфер; формат тот же, что у writeDouble
+        int chunkSize = Math.min(count, IO_CHUNK_POINTS);
+        double[] xChunk = new double[chunkSize];
+        double[] yChunk = new double[chunkSize];
+        ByteBuffer buffer = ByteBuffer.allocate(chunkSize * POINT_BYTES);
+        for (int from = 0; from < count; from += chunkSize) {
+            int length = Math.min(chunkSize, count - from);
+            function.copyXInto(from, xChunk, 0, length);
+            function.copyYInto(from, yChunk, 0, length);
+            buffer.clear();
+            for (int i = 0; i < length; i++) {
+                buffer.putDouble(xChunk[i]);
+                buffer.putDouble(yChunk[i]);
+            }
+            dataOutputStream.write(buffer.array(), 0, buffer.position());
         }
 
         dataOutputStream.flush();
+        finish(event, sample, FunctionsIOEvent.WRITE, "binary", Integer.BYTES + (long) count * POINT_BYTES, count);
         logger.info("Successfully wrote {} points to BufferedOutputStream", count);
     }
 
     public static TabulatedFunction readTabulatedFunction(BufferedReader reader, TabulatedFunctionFactory factory)
             throws IOException {
         logger.info("Starting tabulated function read from BufferedReader");
+        FunctionsIOEvent event = new FunctionsIOEvent();
+        event.begin();
+        Timer.Sample sample = MetricsRegistry.getDefault().timer("io.read.text").start();
         String countLine = reader.readLine();
         if (countLine == null) {
             logger.error("File is empty - cannot read count");
@@ -80,6 +114,8 @@ public final class FunctionsIO {
         // Создаём форматтер для русской локали (запятая как десятичный разделитель)
         NumberFormat numberFormat = NumberFormat.getInstance(Locale.forLanguageTag("ru"));
         logger.debug("Using Russian locale for number parsing");
+        // Символы вместе с переводами строк
+        long chars = countLine.length() + 1;
 
         for (int i = 0; i < count; i++) {
             String line = reader.readLine();
@@ -88,6 +124,7 @@ public final class FunctionsIO {
                 throw new IOException("Unexpected end of file at line " + (i + 2));
             }
 
+            chars += line.length() + 1;
             String[] parts = line.trim().split(" ");
             if (parts.length != 2) {
                 logger.error("Invalid line format at line {}: '{}'", i + 2, line);
@@ -97,7 +134,6 @@ public final class FunctionsIO {
             try {
                 xValues[i] = numberFormat.parse(parts[0]).doubleValue();
                 yValues[i] = numberFormat.parse(parts[1]).doubleValue();
-                logger.trace("Parsed point {}: x={}, y={}", i, xValues[i], yValues[i]);
             } catch (ParseException e) {
                 logger.error("Failed to parse numbers at line {}: '{}'", i + 2, line, e);
                 throw new IOException("Failed to parse number at line " + (i + 2) + ": " + line, e);
@@ -105,6 +141,7 @@ public final class FunctionsIO {
         }
 
         TabulatedFunction result = factory.create(xValues, yValues);
+        finish(event, sample, FunctionsIOEvent.READ, "text", chars, count);
         logger.info("Successfully created tabulated function with {} points", count);
         return result;
     }
@@ -112,6 +149,9 @@ public final class FunctionsIO {
     public static TabulatedFunction readTabulatedFunction(BufferedInputStream inputStream, TabulatedFunctionFactory factory)
             throws IOException {
         logger.info("Starting tabulated function read from BufferedInputStream");
+        FunctionsIOEvent event = new FunctionsIOEvent();
+        event.begin();
+        Timer.Sample sample = MetricsRegistry.getDefault().timer("io.read.binary").start();
         DataInputStream dataInputStream = new DataInputStream(inputStream);
         int count = dataInputStream.readInt();
         logger.debug("Reading {} points", count);
@@ -124,30 +164,134 @@ public final class FunctionsIO {
         double[] xValues = new double[count];
         double[] yValues = new double[count];
 
-        for (int i = 0; i < count; i++) {
-            xValues[i] = dataInputStream.readDouble();
-            yValues[i] = dataInputStream.readDouble();
-            logger.trace("Read point {}: x={}, y={}", i, xValues[i], yValues[i]);
+        int chunkSize = Math.min(count, IO_CHUNK_POINTS);
+        byte[] chunk = new byte[chunkSize * POINT_BYTES];
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        for (int from = 0; from < count; from += chunkSize) {
+            int length = Math.min(chunkSize, count - from);
+            dataInputStream.readFully(chunk, 0, length * POINT_BYTES);
+            buffer.clear();
+            for (int i = from; i < from + length; i++) {
+                xValues[i] = buffer.getDouble();
+                yValues[i] = buffer.getDouble();
+            }
         }
 
         TabulatedFunction result = factory.create(xValues, yValues);
+        finish(event, sample, FunctionsIOEvent.READ, "binary", Integer.BYTES + (long) count * POINT_BYTES, count);
         logger.info("Successfully created tabulated function with {} points", count);
         return result;
     }
 
+    // Открывает файл двоичного формата без чтения в кучу; функцию нужно закрыть после использования
+    public static MappedTabulatedFunction mapTabulatedFunction(Path path) throws IOException {
+        return new MappedTabulatedFunction(path);
+    }
+
     public static void serialize(BufferedOutputStream stream, TabulatedFunction function) throws IOException {
         logger.info("Starting serialization of tabulated function");
-        ObjectOutputStream objectOutputStream = new ObjectOutputStream(stream);
+        FunctionsIOEvent event = new FunctionsIOEvent();
+        event.begin();
+        Timer.Sample sample = MetricsRegistry.getDefault().timer("io.write.serialized").start();
+        CountingOutputStream countingStream = new CountingOutputStream(stream);
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(countingStream);
         objectOutputStream.writeObject(function);
         objectOutputStream.flush();
+        finish(event, sample, FunctionsIOEvent.WRITE, "serialized", countingStream.count, function.getCount());
         logger.info("Successfully serialized tabulated function");
     }
 
     public static TabulatedFunction deserialize(BufferedInputStream stream) throws IOException, ClassNotFoundException {
         logger.info("Starting deserialization of tabulated function");
-        ObjectInputStream objectInputStream = new ObjectInputStream(stream);
+        FunctionsIOEvent event = new FunctionsIOEvent();
+        event.begin();
+        Timer.Sample sample = MetricsRegistry.getDefault().timer("io.read.serialized").start();
+        CountingInputStream countingStream = new CountingInputStream(stream);
+        ObjectInputStream objectInputStream = new ObjectInputStream(countingStream);
         TabulatedFunction result = (TabulatedFunction) objectInputStream.readObject();
+        finish(event, sample, FunctionsIOEvent.READ, "serialized", countingStream.count, result.getCount());
         logger.info("Successfully deserialized tabulated function with {} points", result.getCount());
         return result;
     }
-}
\ No newline at end of file
+
+    // Общее завершение чтения и записи: метрики io.* и событие JFR
+    private static void finish(FunctionsIOEvent event, Timer.Sample sample, String direction, String format,
+                               long bytes, int points) {
+        sample.stop();
+        (FunctionsIOEvent.READ.equals(direction) ? bytesRead : bytesWritten).add(bytes);
+        event.finish(direction, format, bytes, points);
+    }
+
+    // Обёртки только считают переданные данные для FunctionsIOEvent, массивы передаются дальше целиком
+    private static final class CountingWriter extends FilterWriter {
+        private long count;
+
+        CountingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            out.write(c);
+            count++;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            out.write(buffer, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void write(String str, int offset, int length) throws IOException {
+            out.write(str, offset, length);
+            count += length;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            out.write(buffer, offset, length);
+            count += length;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = in.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.ssau.tk.cheefkeef.laba2.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("ru.ssau.tk.cheefkeef.laba2.Derive")
+@Label("Derive")
+@Description("Numerical differentiation of a tabulated function")
+@Category({"Laba2", "Operations"})
+@Threshold("1 ms")
+public class DeriveEvent extends Event {
+    @Label("Implementation")
+    public String implementation;
+
+    @Label("Size")
+    public int size;
+
+    public void finish(Object function, int size) {
+        end();
+        if (shouldCommit()) {
+            this.implementation = function.getClass().getSimpleName();
+            this.size = size;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.ssau.tk.cheefkeef.laba2.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("ru.ssau.tk.cheefkeef.laba2.FunctionsIO")
+@Label("Functions IO")
+@Description("Read or write of a tabulated function by FunctionsIO")
+@Category({"Laba2", "IO"})
+@Threshold("1 ms")
+public class FunctionsIOEvent extends Event {
+    public static final String READ = "read";
+    public static final String WRITE = "write";
+
+    @Label("Direction")
+    public String direction;
+
+    // text, binary или serialized
+    @Label("Format")
+    public String format;
+
+    // Для текстового формата — число символов, все они ASCII
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Points")
+    public int points;
+
+    public void finish(String direction, String format, long bytes, int points) {
+        end();
+        if (shouldCommit()) {
+            this.direction = direction;
+            this.format = format;
+            this.bytes = bytes;
+            this.points = points;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ru.ssau.tk.cheefkeef.laba2.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+// Длительность события — ожидание монитора или блокировки обёртки, без времени работы под ними.
+// Использование:
+//     LockWaitEvent wait = LockWaitEvent.beginWait();
+//     synchronized (lock) {
+//         LockWaitEvent.endWait(wait, "getX");
+//         ...
+//     }
+// Пока событие выключено, beginWait ничего не создаёт и возвращает null
+@Name("ru.ssau.tk.cheefkeef.laba2.LockWait")
+@Label("Tabulated Function Lock Wait")
+@Description("Time spent waiting for the lock of a concurrent tabulated function wrapper")
+@Category({"Laba2", "Concurrency"})
+@Threshold("10 ms")
+public class LockWaitEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(LockWaitEvent.class);
+
+    @Label("Operation")
+    public String operation;
+
+    public static LockWaitEvent beginWait() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        LockWaitEvent event = new LockWaitEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endWait(LockWaitEvent event, String operation) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.ssau.tk.cheefkeef.laba2.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+// События пакета пишутся только в запущенную запись JFR, без записи begin/commit почти ничего не стоят.
+// Порог по умолчанию задан аннотацией и меняется без пересборки, например
+// -XX:StartFlightRecording:ru.ssau.tk.cheefkeef.laba2.TableConstruction#threshold=0ms
+@Name("ru.ssau.tk.cheefkeef.laba2.TableConstruction")
+@Label("Table Construction")
+@Description("Construction of a tabulated function")
+@Category({"Laba2", "Functions"})
+@Threshold("1 ms")
+public class TableConstructionEvent extends Event {
+    @Label("Implementation")
+    public String implementation;
+
+    @Label("Size")
+    public int size;
+
+    // "arrays" для конструктора из массивов, "file" для отображённого файла, иначе простое имя исходной MathFunction
+    @Label("Source")
+    public String source;
+
+    public void finish(Class<?> implementation, int size, String source) {
+        end();
+        if (shouldCommit()) {
+            this.implementation = implementation.getSimpleName();
+            this.size = size;
+            this.source = source;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.ssau.tk.cheefkeef.laba2.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("ru.ssau.tk.cheefkeef.laba2.TabulatedOperation")
+@Label("Tabulated Operation")
+@Description("Point-wise operation of TabulatedFunctionOperationService")
+@Category({"Laba2", "Operations"})
+@Threshold("1 ms")
+public class TabulatedOperationEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Size")
+    public int size;
+
+    @Label("Left Implementation")
+    public String leftImplementation;
+
+    @Label("Right Implementation")
+    public String rightImplementation;
+
+    public void finish(String operation, int size, Object left, Object right) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.size = size;
+            this.leftImplementation = left.getClass().getSimpleName();
+            this.rightImplementation = right.getClass().getSimpleName();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.ssau.tk.cheefkeef.laba2.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// AsyncAppender с настраиваемой политикой сброса: когда в очереди остаётся меньше
+// discardingThreshold мест, отбрасываются события уровня discardLevel и ниже
+// (у стандартного AsyncAppender граница зашита на INFO). При neverBlock=true событие,
+// не поместившееся в полную очередь, тоже отбрасывается, поток вызова не ждёт.
+// Отброшенные события считаются; счёт приблизительный, гонку с воркером не ловим
+public class DroppingAsyncAppender extends AsyncAppender {
+    private Level discardLevel = Level.INFO;
+    private final LongAdder dropped = new LongAdder();
+
+    public String getDiscardLevel() {
+        return discardLevel.toString();
+    }
+
+    public void setDiscardLevel(String level) {
+        this.discardLevel = Level.toLevel(level, Level.INFO);
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        return event.getLevel().toInt() <= discardLevel.toInt();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        if ((remaining < getDiscardingThreshold() && isDiscardable(event)) || (isNeverBlock() && remaining == 0)) {
+            dropped.increment();
+            return;
+        }
+        super.append(event);
+    }
+}
@@ -0,0 +1,143 @@
+package ru.ssau.tk.cheefkeef.laba2.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.spi.FilterReply;
+import ch.qos.logback.core.util.Duration;
+import org.slf4j.Marker;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Считает вызовы логгеров с именем на prefix до проверки уровня и раз в period пишет
+// сводку по классам на INFO в логгер SUMMARY_LOGGER. Так отключённые DEBUG-события
+// остаются видны как частота, но не создают ни событий, ни записей в файл.
+// Решение фильтра всегда NEUTRAL, уровни логгеров работают как обычно
+public class EventRateTurboFilter extends TurboFilter {
+    public static final String SUMMARY_LOGGER = "ru.ssau.tk.cheefkeef.laba2.logging.EventRates";
+
+    private String prefix = "ru.ssau.tk.cheefkeef";
+    private Duration period = Duration.buildBySeconds(10);
+
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+    private long lastReportNanos;
+    private long lastDropped;
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public Duration getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(Duration period) {
+        this.period = period;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isDebugEnabled() и подобные приходят с format == null, их не считаем
+        if (format == null) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        if (name.startsWith(prefix) && !SUMMARY_LOGGER.equals(name)) {
+            LongAdder counter = counts.get(name);
+            if (counter == null) {
+                counter = counts.computeIfAbsent(name, k -> new LongAdder());
+            }
+            counter.increment();
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    @Override
+    public void start() {
+        lastReportNanos = System.nanoTime();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-event-rates");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = period.getMilliseconds();
+        scheduler.scheduleAtFixedRate(this::report, millis, millis, TimeUnit.MILLISECONDS);
+        super.start();
+    }
+
+    // При остановке контекста аппендеры уже закрыты, поэтому последнюю сводку не пишем
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        super.stop();
+    }
+
+    // Пишет сводку за время с прошлого вызова и обнуляет счётчики
+    public void report() {
+        long now = System.nanoTime();
+        double seconds = Math.max(now - lastReportNanos, 1) / 1e9;
+        lastReportNanos = now;
+
+        Map<String, Long> snapshot = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : counts.entrySet()) {
+            long count = entry.getValue().sumThenReset();
+            if (count > 0) {
+                snapshot.put(entry.getKey(), count);
+            }
+        }
+        long droppedTotal = droppedCount();
+        long dropped = droppedTotal - lastDropped;
+        lastDropped = droppedTotal;
+        if (snapshot.isEmpty() && dropped == 0) {
+            return;
+        }
+
+        StringBuilder rates = new StringBuilder();
+        for (Map.Entry<String, Long> entry : snapshot.entrySet()) {
+            String name = entry.getKey();
+            if (rates.length() > 0) {
+                rates.append(", ");
+            }
+            rates.append(name.substring(name.lastIndexOf('.') + 1)).append('=').append(entry.getValue())
+                    .append(String.format(Locale.ROOT, " (%.1f/s)", entry.getValue() / seconds));
+        }
+        summaryLogger().info("Log events in last {} s: {}; dropped by async queues: {}",
+                String.format(Locale.ROOT, "%.1f", seconds), rates, dropped);
+    }
+
+    private Logger summaryLogger() {
+        return ((LoggerContext) getContext()).getLogger(SUMMARY_LOGGER);
+    }
+
+    private long droppedCount() {
+        long total = 0;
+        for (Logger logger : ((LoggerContext) getContext()).getLoggerList()) {
+            Iterator<Appender<ILoggingEvent>> appenders = logger.iteratorForAppenders();
+            while (appenders.hasNext()) {
+                if (appenders.next() instanceof DroppingAsyncAppender async) {
+                    total += async.getDroppedCount();
+                }
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.ssau.tk.cheefkeef.laba2.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Монотонный счётчик; скорость считает тот, кто снимает значения
+public final class Counter implements CounterMXBean {
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    @Override
+    public long getCount() {
+        return value.sum();
+    }
+}
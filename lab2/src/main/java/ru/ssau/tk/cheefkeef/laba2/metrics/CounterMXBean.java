@@ -0,0 +1,5 @@
+package ru.ssau.tk.cheefkeef.laba2.metrics;
+
+public interface CounterMXBean {
+    long getCount();
+}
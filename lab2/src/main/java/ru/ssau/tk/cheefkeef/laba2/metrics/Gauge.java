@@ -0,0 +1,17 @@
+package ru.ssau.tk.cheefkeef.laba2.metrics;
+
+import java.util.function.LongSupplier;
+
+// Значение вычисляется при каждом чтении
+public final class Gauge implements GaugeMXBean {
+    private final LongSupplier supplier;
+
+    Gauge(LongSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public long getValue() {
+        return supplier.getAsLong();
+    }
+}
@@ -0,0 +1,19 @@
+package ru.ssau.tk.cheefkeef.laba2.metrics;
+
+public interface HistogramMXBean {
+    long getCount();
+
+    double getMean();
+
+    long getMax();
+
+    long getP50();
+
+    long getP90();
+
+    long getP99();
+
+    long getP999();
+
+    void reset();
+}
@@ -0,0 +1,96 @@
+package ru.ssau.tk.cheefkeef.laba2.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+// Реестр метрик библиотеки. Каждая метрика при создании публикуется как MXBean
+// ru.ssau.tk.cheefkeef.laba2:type=<Counter|Gauge|Histogram|Timer>,name=<имя>,
+// так что её читают jconsole, VisualVM или JMC без сторонних агентов.
+// Повторный запрос по тому же имени возвращает ту же метрику
+public final class MetricsRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+
+    public static final String DOMAIN = "ru.ssau.tk.cheefkeef.laba2";
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry(ManagementFactory.getPlatformMBeanServer());
+
+    static {
+        // Накопленный объём выделений всех потоков; скорость — разность двух чтений
+        DEFAULT.gauge("jvm.allocatedBytes", Timer::totalAllocatedBytes);
+    }
+
+    private final MBeanServer server;
+    private final Map<String, Object> metrics = new ConcurrentHashMap<>();
+
+    // server == null: метрики только в памяти, без публикации
+    public MetricsRegistry(MBeanServer server) {
+        this.server = server;
+    }
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public Counter counter(String name) {
+        return get(name, "Counter", Counter.class, key -> new Counter());
+    }
+
+    public Histogram histogram(String name) {
+        return get(name, "Histogram", Histogram.class, key -> new Histogram());
+    }
+
+    public Timer timer(String name) {
+        return get(name, "Timer", Timer.class, key -> new Timer());
+    }
+
+    public Gauge gauge(String name, LongSupplier supplier) {
+        return get(name, "Gauge", Gauge.class, key -> new Gauge(supplier));
+    }
+
+    public Map<String, Object> getMetrics() {
+        return Map.copyOf(metrics);
+    }
+
+    private <T> T get(String name, String type, Class<T> metricClass, Function<String, T> constructor) {
+        Object metric = metrics.get(name);
+        if (metric == null) {
+            metric = metrics.computeIfAbsent(name, key -> {
+                T created = constructor.apply(key);
+                publish(type, key, created);
+                return created;
+            });
+        }
+        if (!metricClass.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as "
+                    + metric.getClass().getSimpleName());
+        }
+        return metricClass.cast(metric);
+    }
+
+    private void publish(String type, String name, Object metric) {
+        if (server == null) {
+            return;
+        }
+        try {
+            server.registerMBean(metric, objectName(type, name));
+        } catch (InstanceAlreadyExistsException e) {
+            logger.warn("MBean for metric {} is already registered", name);
+        } catch (JMException e) {
+            logger.warn("Failed to register MBean for metric {}", name, e);
+        }
+    }
+
+    public static ObjectName objectName(String type, String name) throws JMException {
+        return new ObjectName(DOMAIN + ":type=" + type + ",name=" + name);
+    }
+}
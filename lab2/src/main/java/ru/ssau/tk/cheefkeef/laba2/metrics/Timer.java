@@ -0,0 +1,115 @@
+package ru.ssau.tk.cheefkeef.laba2.metrics;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+// Время операции в гистограмму и выделенная потоком за операцию память в счётчик.
+// Память считается по ThreadMXBean.getCurrentThreadAllocatedBytes, поэтому операция
+// должна начинаться и заканчиваться в одном потоке. Рассчитан на операции над целыми таблицами:
+// на каждый замер создаётся один объект Sample
+public final class Timer implements TimerMXBean {
+    private static final ThreadMXBean THREADS = allocationMeter();
+
+    private final Histogram latency = new Histogram();
+    private final LongAdder allocated = new LongAdder();
+
+    Timer() {
+    }
+
+    private static ThreadMXBean allocationMeter() {
+        if (ManagementFactory.getThreadMXBean() instanceof ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+
+    static long currentThreadAllocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    static long totalAllocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getTotalThreadAllocatedBytes();
+    }
+
+    public Sample start() {
+        return new Sample(System.nanoTime(), currentThreadAllocatedBytes());
+    }
+
+    public void record(long nanos, long allocatedBytes) {
+        latency.record(nanos);
+        allocated.add(allocatedBytes);
+    }
+
+    public long percentile(double q) {
+        return latency.percentile(q);
+    }
+
+    @Override
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    @Override
+    public double getMean() {
+        return latency.getMean();
+    }
+
+    @Override
+    public long getMax() {
+        return latency.getMax();
+    }
+
+    @Override
+    public long getP50() {
+        return latency.getP50();
+    }
+
+    @Override
+    public long getP90() {
+        return latency.getP90();
+    }
+
+    @Override
+    public long getP99() {
+        return latency.getP99();
+    }
+
+    @Override
+    public long getP999() {
+        return latency.getP999();
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return allocated.sum();
+    }
+
+    @Override
+    public double getAllocatedBytesPerOperation() {
+        long n = latency.getCount();
+        return n == 0 ? 0 : (double) allocated.sum() / n;
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        allocated.reset();
+    }
+
+    public final class Sample {
+        private final long startNanos;
+        private final long startAllocated;
+
+        private Sample(long startNanos, long startAllocated) {
+            this.startNanos = startNanos;
+            this.startAllocated = startAllocated;
+        }
+
+        public void stop() {
+            record(System.nanoTime() - startNanos, currentThreadAllocatedBytes() - startAllocated);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ru.ssau.tk.cheefkeef.laba2.metrics;
+
+// Время в наносекундах
+public interface TimerMXBean extends HistogramMXBean {
+    long getAllocatedBytes();
+
+    double getAllocatedBytesPerOperation();
+}
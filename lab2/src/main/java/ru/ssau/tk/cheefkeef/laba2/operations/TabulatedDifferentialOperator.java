@@ -4,9 +4,12 @@ import ru.ssau.tk.cheefkeef.laba2.concurrent.SynchronizedTabulatedFunction;
 import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
 import ru.ssau.tk.cheefkeef.laba2.functions.factory.ArrayTabulatedFunctionFactory;
 import ru.ssau.tk.cheefkeef.laba2.functions.factory.TabulatedFunctionFactory;
-import ru.ssau.tk.cheefkeef.laba2.functions.Point;
+import ru.ssau.tk.cheefkeef.laba2.jfr.DeriveEvent;
+import ru.ssau.tk.cheefkeef.laba2.metrics.MetricsRegistry;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Timer;
 
 public class TabulatedDifferentialOperator implements DifferentialOperator<TabulatedFunction> {
+    private static final Timer deriveTimer = MetricsRegistry.getDefault().timer("operations.derive");
 
     private TabulatedFunctionFactory factory;
 
@@ -31,34 +34,37 @@ public class TabulatedDifferentialOperator implements DifferentialOperator<Tabul
         if (function == null) {
             throw new IllegalArgumentException("Function must not be null");
         }
+        DeriveEvent event = new DeriveEvent();
+        event.begin();
+        Timer.Sample sample = deriveTimer.start();
 
-        Point[] points = TabulatedFunctionOperationService.asPoints(function);
-        int n = points.length;
+        int n = function.getCount();
 
-        double[] xValues = new double[n];
-        double[] yValues = new double[n];
+        // Узлы сетки остаются теми же, исходные y нужны целиком для разностей
+        double[] xValues = function.toXArray();
+        double[] sourceY = function.toYArray();
 
-        // Копируем узлы сетки — они остаются теми же
-        for (int i = 0; i < n; i++) {
-            xValues[i] = points[i].x;
-        }
+        double[] yValues = new double[n];
 
         // Численное дифференцирование:
         // Для первой точки используем правую разностную производную:
         // f'(x0) =примерно (f(x1) - f(x0)) / (x1 - x0)
-        yValues[0] = (points[1].y - points[0].y) / (points[1].x - points[0].x);
+        yValues[0] = (sourceY[1] - sourceY[0]) / (xValues[1] - xValues[0]);
 
         // Для последней точки используем левую разностную производную:
         // f'(xn-1) =примерно (f(xn-1) - f(xn-2) / (xn-1 - xn-2)
-        yValues[n - 1] = (points[n - 1].y - points[n - 2].y) / (points[n - 1].x - points[n - 2].x);
+        yValues[n - 1] = (sourceY[n - 1] - sourceY[n - 2]) / (xValues[n - 1] - xValues[n - 2]);
 
         // Для внутренних точек используем центральную разностную производную:
         // f'(xi) =примерно (f(xi-1) - f(xi-1)) / (xi+1 - xi-1),   где 1 <= i <= n-2
         for (int i = 1; i < n - 1; i++) {
-            yValues[i] = (points[i + 1].y - points[i - 1].y) / (points[i + 1].x - points[i - 1].x);
+            yValues[i] = (sourceY[i + 1] - sourceY[i - 1]) / (xValues[i + 1] - xValues[i - 1]);
         }
 
-        return factory.create(xValues, yValues);
+        TabulatedFunction result = factory.create(xValues, yValues);
+        sample.stop();
+        event.finish(function, n);
+        return result;
     }
 
     public TabulatedFunction deriveSynchronously(TabulatedFunction function) {
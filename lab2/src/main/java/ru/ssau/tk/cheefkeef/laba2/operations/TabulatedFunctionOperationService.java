@@ -2,14 +2,20 @@ package ru.ssau.tk.cheefkeef.laba2.operations;
 
 import ru.ssau.tk.cheefkeef.laba2.exceptions.InconsistentFunctionsException;
 import ru.ssau.tk.cheefkeef.laba2.functions.Point;
+import ru.ssau.tk.cheefkeef.laba2.functions.PointConsumer;
 import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
 import ru.ssau.tk.cheefkeef.laba2.functions.factory.ArrayTabulatedFunctionFactory;
 import ru.ssau.tk.cheefkeef.laba2.functions.factory.TabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.functions.kernels.Kernels;
+import ru.ssau.tk.cheefkeef.laba2.jfr.TabulatedOperationEvent;
+import ru.ssau.tk.cheefkeef.laba2.metrics.MetricsRegistry;
+import ru.ssau.tk.cheefkeef.laba2.metrics.Timer;
 
 public class TabulatedFunctionOperationService {
+    // Поэлементная операция над целыми столбцами y: out[i] = u[i] (op) v[i]
     @FunctionalInterface
     private interface BiOperation {
-        double apply(double u, double v);
+        void apply(double[] u, double[] v, double[] out, int length);
     }
 
     private TabulatedFunctionFactory factory;
@@ -30,10 +36,14 @@ public class TabulatedFunctionOperationService {
         this.factory = factory;
     }
 
-    private TabulatedFunction doOperation(TabulatedFunction a, TabulatedFunction b, BiOperation operation) {
+    private TabulatedFunction doOperation(TabulatedFunction a, TabulatedFunction b, String name, BiOperation operation) {
         if (a == null || b == null) {
             throw new NullPointerException("Functions must not be null");
         }
+        TabulatedOperationEvent event = new TabulatedOperationEvent();
+        event.begin();
+        // Метрика operations.<имя>: задержка и выделенная память на операцию
+        Timer.Sample sample = MetricsRegistry.getDefault().timer("operations." + name).start();
 
         int countA = a.getCount();
         int countB = b.getCount();
@@ -42,47 +52,52 @@ public class TabulatedFunctionOperationService {
             throw new InconsistentFunctionsException("Functions have different number of points");
         }
 
-        Point[] pointsA = asPoints(a);
-        Point[] pointsB = asPoints(b);
-
-        double[] xValues = new double[countA];
-        double[] yValues = new double[countA];
-
-        for (int i = 0; i < countA; i++) {
-            double xA = pointsA[i].x;
-            double xB = pointsB[i].x;
-
-            if (xA != xB) {
-                throw new InconsistentFunctionsException(
-                        String.format("X-values differ at index %d: %f vs %f", i, xA, xB)
-                );
+        double[] xValues = a.toXArray();
+        double[] yValuesA = a.toYArray();
+        double[] yValuesB = new double[countA];
+
+        b.forEachPoint(new PointConsumer() {
+            private int i = 0;
+
+            @Override
+            public void accept(double x, double y) {
+                if (x != xValues[i]) {
+                    throw new InconsistentFunctionsException(
+                            String.format("X-values differ at index %d: %f vs %f", i, xValues[i], x)
+                    );
+                }
+                yValuesB[i] = y;
+                i++;
             }
+        });
 
-            xValues[i] = xA;
-            yValues[i] = operation.apply(pointsA[i].y, pointsB[i].y);
-        }
+        double[] yValues = new double[countA];
+        operation.apply(yValuesA, yValuesB, yValues, countA);
 
-        return factory.create(xValues, yValues);
+        TabulatedFunction result = factory.create(xValues, yValues);
+        sample.stop();
+        event.finish(name, countA, a, b);
+        return result;
     }
 
     public TabulatedFunction add(TabulatedFunction a, TabulatedFunction b) {
-        return doOperation(a, b, (u, v) -> u + v);
+        return doOperation(a, b, "add", Kernels.get()::add);
     }
 
     public TabulatedFunction subtract(TabulatedFunction a, TabulatedFunction b) {
-        return doOperation(a, b, (u, v) -> u - v);
+        return doOperation(a, b, "subtract", Kernels.get()::subtract);
     }
 
     public TabulatedFunction multiply(TabulatedFunction a, TabulatedFunction b) {
-        return doOperation(a, b, (u, v) -> u * v);
+        return doOperation(a, b, "multiply", Kernels.get()::multiply);
     }
 
     public TabulatedFunction divide(TabulatedFunction a, TabulatedFunction b) {
-        return doOperation(a, b, (u, v) -> {
-            if (Math.abs(v) < 1e-12) {
+        return doOperation(a, b, "divide", (u, v, out, length) -> {
+            if (Kernels.get().anyAbsBelow(v, length, 1e-12)) {
                 throw new ArithmeticException("Division by zero in tabulated function");
             }
-            return u / v;
+            Kernels.get().divide(u, v, out, length);
         });
     }
 
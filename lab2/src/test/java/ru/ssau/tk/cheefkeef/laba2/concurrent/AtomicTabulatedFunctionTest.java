@@ -0,0 +1,87 @@
+package ru.ssau.tk.cheefkeef.laba2.concurrent;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.tk.cheefkeef.laba2.functions.ArrayTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.IdentityFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomicTabulatedFunctionTest {
+
+    @Test
+    void matchesArrayFunction() {
+        double[] x = {0, 1, 2, 2, 4};
+        double[] y = {0, 1, 4, 5, 16};
+        TabulatedFunction expected = new ArrayTabulatedFunction(x, y);
+        AtomicTabulatedFunction f = new AtomicTabulatedFunction(x, y);
+
+        for (double q : new double[]{-1.0, 0.0, 0.5, 2.0, 3.0, 4.0, 6.0}) {
+            assertEquals(expected.apply(q), f.apply(q), 1e-12, "x = " + q);
+        }
+        assertEquals(2, f.indexOfX(2.0));
+        assertEquals(3, f.indexOfY(5.0));
+        assertArrayEquals(y, f.toYArray(), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> f.getY(5));
+        assertThrows(IllegalArgumentException.class, () -> f.updateY(-1, v -> v));
+    }
+
+    @Test
+    void atomicOperationsReturnValues() {
+        AtomicTabulatedFunction f = new AtomicTabulatedFunction(new double[]{0, 1}, new double[]{2, 3});
+        assertEquals(4.0, f.updateY(0, v -> v * 2), 0.0);
+        assertEquals(7.0, f.accumulateY(1, 4.0, Double::sum), 0.0);
+        assertEquals(4.0, f.getAndSetY(0, -1.0), 0.0);
+        assertEquals(-1.0, f.getY(0), 0.0);
+        assertTrue(f.compareAndSetY(0, -1.0, 5.0));
+        assertFalse(f.compareAndSetY(0, -1.0, 6.0));
+        assertEquals(5.0, f.getY(0), 0.0);
+    }
+
+    // Гистограмма по таблице из нескольких потоков: ни одно прибавление не теряется
+    @Test
+    void concurrentAccumulateLosesNoUpdates() throws InterruptedException {
+        AtomicTabulatedFunction histogram = new AtomicTabulatedFunction(
+                new ArrayTabulatedFunction(new IdentityFunction(), 0.0, 15.0, 16));
+        histogram.transformY(y -> 0.0);
+        int threadsCount = 4;
+        int samples = 50_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadsCount; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < samples; i++) {
+                    histogram.accumulateY(random.nextInt(16), 1.0, Double::sum);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double total = 0;
+        for (int i = 0; i < histogram.getCount(); i++) {
+            total += histogram.getY(i);
+        }
+        assertEquals(threadsCount * samples, total, 0.0);
+    }
+
+    @Test
+    void multiplyingTasksWithoutMonitor() throws InterruptedException {
+        AtomicTabulatedFunction f = new AtomicTabulatedFunction(
+                new ArrayTabulatedFunction(new IdentityFunction(), 1.0, 100.0, 100));
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            threads.add(Thread.ofPlatform().start(new MultiplyingTask(f)));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int i = 0; i < f.getCount(); i++) {
+            assertEquals(8 * f.getX(i), f.getY(i), 0.0);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package ru.ssau.tk.cheefkeef.laba2.concurrent;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.tk.cheefkeef.laba2.functions.ArrayTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.IdentityFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.LinkedListTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.Point;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.UniformTabulatedFunction;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StampedLockTabulatedFunctionTest {
+
+    @Test
+    void readsAndWritesGoToDelegate() {
+        ArrayTabulatedFunction original = new ArrayTabulatedFunction(new double[]{0, 1, 2}, new double[]{0, 1, 4});
+        StampedLockTabulatedFunction f = new StampedLockTabulatedFunction(original);
+
+        assertEquals(3, f.getCount());
+        assertEquals(1.0, f.getX(1), 0.0);
+        assertEquals(4.0, f.getY(2), 0.0);
+        assertEquals(0.0, f.leftBound(), 0.0);
+        assertEquals(2.0, f.rightBound(), 0.0);
+        assertEquals(2.5, f.apply(1.5), 1e-10);
+        assertEquals(1, f.indexOfX(1.0));
+        assertEquals(2, f.indexOfY(4.0));
+
+        f.setY(0, 10.0);
+        assertEquals(10.0, original.getY(0), 0.0);
+        assertArrayEquals(new double[]{10, 1, 4}, f.toYArray(), 0.0);
+    }
+
+    @Test
+    void invalidIndexThrowsSameException() {
+        StampedLockTabulatedFunction f = new StampedLockTabulatedFunction(
+                new ArrayTabulatedFunction(new double[]{0, 1}, new double[]{0, 1}));
+        assertThrows(IllegalArgumentException.class, () -> f.getY(5));
+        assertThrows(IllegalArgumentException.class, () -> f.getX(-1));
+    }
+
+    @Test
+    void insertAndRemove() {
+        StampedLockTabulatedFunction f = new StampedLockTabulatedFunction(
+                new LinkedListTabulatedFunction(new double[]{0, 2}, new double[]{0, 4}));
+        f.insert(1.0, 1.0);
+        assertEquals(3, f.getCount());
+        assertEquals(1.0, f.getY(1), 0.0);
+        f.remove(0);
+        assertEquals(1.0, f.leftBound(), 0.0);
+    }
+
+    @Test
+    void insertUnsupportedByDelegate() {
+        StampedLockTabulatedFunction f = new StampedLockTabulatedFunction(
+                new UniformTabulatedFunction(new IdentityFunction(), 0.0, 1.0, 3));
+        assertThrows(UnsupportedOperationException.class, () -> f.insert(0.25, 0.25));
+        assertThrows(UnsupportedOperationException.class, () -> f.remove(0));
+    }
+
+    @Test
+    void nullDelegate() {
+        assertThrows(NullPointerException.class, () -> new StampedLockTabulatedFunction(null));
+    }
+
+    @Test
+    void iteratorWalksSnapshot() {
+        StampedLockTabulatedFunction f = new StampedLockTabulatedFunction(
+                new ArrayTabulatedFunction(new double[]{1, 2}, new double[]{10, 20}));
+        Iterator<Point> it = f.iterator();
+        f.setY(1, 99.0);
+        assertEquals(10.0, it.next().y, 0.0);
+        assertEquals(20.0, it.next().y, 0.0);
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    void doSynchronouslyIsAtomic() throws InterruptedException {
+        StampedLockTabulatedFunction f = new StampedLockTabulatedFunction(
+                new ArrayTabulatedFunction(new double[]{0, 1}, new double[]{0, 0}));
+        int threadsCount = 4;
+        int increments = 10_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadsCount; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < increments; i++) {
+                    f.doSynchronously(func -> {
+                        func.setY(0, func.getY(0) + 1);
+                        return null;
+                    });
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(threadsCount * increments, f.getY(0), 0.0);
+    }
+
+    // Писатель меняет оба y за одну операцию, читатели не должны увидеть их разными
+    @Test
+    void readSynchronouslySeesConsistentState() throws InterruptedException {
+        StampedLockTabulatedFunction f = new StampedLockTabulatedFunction(
+                new ArrayTabulatedFunction(new double[]{0, 1}, new double[]{0, 0}));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 1; running.get(); i++) {
+                double value = i;
+                f.doSynchronously(func -> {
+                    func.setY(0, value);
+                    func.setY(1, value);
+                    return null;
+                });
+            }
+        });
+        for (int i = 0; i < 100_000; i++) {
+            double[] pair = f.readSynchronously(func -> new double[]{func.getY(0), func.getY(1)});
+            if (pair[0] != pair[1]) {
+                failure.set(pair[0] + " != " + pair[1]);
+                break;
+            }
+        }
+        running.set(false);
+        writer.join();
+        assertNull(failure.get());
+    }
+
+    // Вставки в связный список параллельно с оптимистичными apply: исключения наружу не выходят
+    @Test
+    void optimisticReadsSurviveConcurrentInserts() throws InterruptedException {
+        StampedLockTabulatedFunction f = new StampedLockTabulatedFunction(
+                new LinkedListTabulatedFunction(new double[]{0, 1}, new double[]{0, 1}));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    while (running.get()) {
+                        double y = f.apply(0.5);
+                        if (y != 0.5) {
+                            throw new AssertionError("apply(0.5) = " + y);
+                        }
+                        f.getY(f.getCount() - 1);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+        for (int i = 1; i <= 5_000; i++) {
+            f.insert(1.0 + i, 1.0 + i);
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+        assertEquals(5_002, f.getCount());
+    }
+
+    // Параллельные читатели одного связного списка при идущих записях y: каждый получает x своего индекса
+    @Test
+    void concurrentReadersOverLinkedList() throws InterruptedException {
+        StampedLockTabulatedFunction f = new StampedLockTabulatedFunction(
+                new LinkedListTabulatedFunction(new IdentityFunction(), 0.0, 1999.0, 2000));
+        AtomicInteger wrong = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; running.get(); i = (i + 7) % 2000) {
+                f.setY(i, -i);
+            }
+        });
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            int offset = t * 125;
+            int step = 1 + t % 5;
+            readers.add(Thread.ofPlatform().start(() -> {
+                for (int round = 0; round < 20; round++) {
+                    for (int i = offset; i < f.getCount(); i += step) {
+                        if (f.getX(i) != i) {
+                            wrong.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        running.set(false);
+        writer.join();
+        assertEquals(0, wrong.get());
+    }
+
+    // Писатель удаляет и снова вставляет последнюю точку, читатель оптимистично считает apply у правого края.
+    // Раньше обход кольца в apply мог крутиться вечно: читатель видел старую правую границу,
+    // а после удаления все x оказывались меньше искомого
+    @Test
+    void optimisticApplySurvivesRemoveOfLastPoint() throws InterruptedException {
+        int n = 1000;
+        StampedLockTabulatedFunction f = new StampedLockTabulatedFunction(
+                new LinkedListTabulatedFunction(new IdentityFunction(), 0.0, n - 1, n));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = Thread.ofPlatform().daemon().start(() -> {
+            while (running.get()) {
+                f.remove(n - 1);
+                f.insert(n - 1, n - 1);
+            }
+        });
+        Thread reader = Thread.ofPlatform().daemon().start(() -> {
+            try {
+                for (int i = 0; i < 500_000; i++) {
+                    double x = i % 2 == 0 ? n - 1 : n - 1.5;
+                    double y = f.apply(x);
+                    if (y != x) {
+                        throw new AssertionError("apply(" + x + ") = " + y);
+                    }
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+        reader.join(60_000);
+        boolean hung = reader.isAlive();
+        running.set(false);
+        writer.join(10_000);
+        assertFalse(hung, "apply did not finish");
+        assertNull(failure.get());
+        assertEquals(n, f.getCount());
+    }
+
+    // Делегат без ConcurrentlyReadable читается только одним потоком за раз
+    @Test
+    void unmarkedDelegateIsReadExclusively() throws InterruptedException {
+        ExclusiveReadsFunction delegate = new ExclusiveReadsFunction();
+        StampedLockTabulatedFunction f = new StampedLockTabulatedFunction(delegate);
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    f.getX(i % 2);
+                    f.apply(0.5);
+                }
+            }));
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertFalse(delegate.overlapped);
+    }
+
+    // Запоминает, были ли два чтения одновременно; внутри чтения уступает процессор, чтобы пересечение было вероятным
+    private static class ExclusiveReadsFunction implements TabulatedFunction {
+        private final TabulatedFunction table = new ArrayTabulatedFunction(new double[]{0, 1}, new double[]{0, 1});
+        private final AtomicInteger active = new AtomicInteger();
+        volatile boolean overlapped;
+
+        private void enter() {
+            if (active.incrementAndGet() > 1) {
+                overlapped = true;
+            }
+            Thread.yield();
+        }
+
+        private void exit() {
+            active.decrementAndGet();
+        }
+
+        @Override
+        public int getCount() {
+            return table.getCount();
+        }
+
+        @Override
+        public double getX(int index) {
+            enter();
+            try {
+                return table.getX(index);
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public double getY(int index) {
+            return table.getY(index);
+        }
+
+        @Override
+        public void setY(int index, double value) {
+            table.setY(index, value);
+        }
+
+        @Override
+        public int indexOfX(double x) {
+            return table.indexOfX(x);
+        }
+
+        @Override
+        public int indexOfY(double y) {
+            return table.indexOfY(y);
+        }
+
+        @Override
+        public double leftBound() {
+            return table.leftBound();
+        }
+
+        @Override
+        public double rightBound() {
+            return table.rightBound();
+        }
+
+        @Override
+        public double apply(double x) {
+            enter();
+            try {
+                return table.apply(x);
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public Iterator<Point> iterator() {
+            return table.iterator();
+        }
+    }
+}
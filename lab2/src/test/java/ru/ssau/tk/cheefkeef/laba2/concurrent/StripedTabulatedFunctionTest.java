@@ -0,0 +1,154 @@
+package ru.ssau.tk.cheefkeef.laba2.concurrent;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.tk.cheefkeef.laba2.exceptions.ArrayIsNotSortedException;
+import ru.ssau.tk.cheefkeef.laba2.functions.ArrayTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.IdentityFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.Point;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedTabulatedFunctionTest {
+
+    private static StripedTabulatedFunction identity(int count, int stripes) {
+        return new StripedTabulatedFunction(
+                new ArrayTabulatedFunction(new IdentityFunction(), 0.0, count - 1, count), stripes);
+    }
+
+    @Test
+    void matchesArrayFunction() {
+        double[] x = {0, 1, 2, 2, 4, 5};
+        double[] y = {0, 1, 4, 5, 16, 25};
+        TabulatedFunction expected = new ArrayTabulatedFunction(x, y);
+        StripedTabulatedFunction f = new StripedTabulatedFunction(x, y, 3);
+
+        for (double q : new double[]{-1.0, 0.0, 0.5, 1.5, 2.0, 3.0, 4.5, 5.0, 7.0}) {
+            assertEquals(expected.apply(q), f.apply(q), 1e-12, "x = " + q);
+        }
+        assertTrue(Double.isNaN(f.apply(Double.NaN)));
+        assertEquals(2, f.indexOfX(2.0));
+        assertEquals(-1, f.indexOfX(3.0));
+        assertEquals(4, f.indexOfY(16.0));
+        assertEquals(0.0, f.leftBound(), 0.0);
+        assertEquals(5.0, f.rightBound(), 0.0);
+
+        double[] xs = {-1.0, 0.5, 2.0, 4.5, 7.0};
+        double[] out = new double[xs.length];
+        double[] expectedOut = new double[xs.length];
+        f.applyAll(xs, 0, out, 0, xs.length);
+        expected.applyAll(xs, 0, expectedOut, 0, xs.length);
+        assertArrayEquals(expectedOut, out, 1e-12);
+    }
+
+    @Test
+    void stripeGeometry() {
+        StripedTabulatedFunction f = identity(10, 3);
+        assertEquals(4, f.getStripeSize());
+        assertEquals(3, f.getStripeCount());
+
+        StripedTabulatedFunction tooManyStripes = identity(3, 100);
+        assertEquals(3, tooManyStripes.getStripeCount());
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> identity(10, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new StripedTabulatedFunction(new double[]{1}, new double[]{1}, 1));
+        assertThrows(ArrayIsNotSortedException.class,
+                () -> new StripedTabulatedFunction(new double[]{2, 1}, new double[]{1, 1}, 1));
+        StripedTabulatedFunction f = identity(4, 2);
+        assertThrows(IllegalArgumentException.class, () -> f.getY(4));
+        assertThrows(IllegalArgumentException.class, () -> f.setY(-1, 0.0));
+    }
+
+    @Test
+    void snapshotsAndIterator() {
+        StripedTabulatedFunction f = identity(5, 2);
+        f.setY(3, 30.0);
+        assertArrayEquals(new double[]{0, 1, 2, 30, 4}, f.toYArray(), 0.0);
+        assertArrayEquals(new double[]{0, 1, 2, 3, 4}, f.toXArray(), 0.0);
+
+        Iterator<Point> it = f.iterator();
+        f.setY(0, -1.0);
+        assertEquals(0.0, it.next().y, 0.0);
+
+        double[] source = {7, 8, 9};
+        f.copyYFrom(1, source, 0, 3);
+        double[] dest = new double[3];
+        f.copyYInto(1, dest, 0, 3);
+        assertArrayEquals(source, dest, 0.0);
+    }
+
+    @Test
+    void writersOnDisjointStripes() throws InterruptedException {
+        StripedTabulatedFunction f = identity(40_000, 8);
+        int stripeSize = f.getStripeSize();
+        List<Thread> writers = new ArrayList<>();
+        for (int s = 0; s < f.getStripeCount(); s++) {
+            int from = s * stripeSize;
+            int to = Math.min(from + stripeSize, f.getCount());
+            writers.add(Thread.ofPlatform().start(() -> {
+                for (int round = 0; round < 10; round++) {
+                    for (int i = from; i < to; i++) {
+                        f.setY(i, f.getY(i) + 1);
+                    }
+                }
+            }));
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        for (int i = 0; i < f.getCount(); i++) {
+            assertEquals(f.getX(i) + 10, f.getY(i), 0.0);
+        }
+    }
+
+    @Test
+    void parallelTransformAlignedToStripes() {
+        StripedTabulatedFunction f = identity(100_000, 16);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TransformYTask.transformParallel(f, y -> 2 * y, pool, f.getStripeSize());
+        } finally {
+            pool.shutdown();
+        }
+        for (int i = 0; i < f.getCount(); i += 101) {
+            assertEquals(2 * f.getX(i), f.getY(i), 0.0);
+        }
+    }
+
+    // Писатель меняет обе точки по краям границы полос одной операцией; apply между ними
+    // должен видеть их одинаковыми, иначе получится половинное значение
+    @Test
+    void applyAcrossStripeBoundaryIsConsistent() throws InterruptedException {
+        StripedTabulatedFunction f = new StripedTabulatedFunction(
+                new double[]{0, 1, 2, 3}, new double[]{0, 0, 0, 0}, 2);
+        assertEquals(2, f.getStripeSize());
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread writer = Thread.ofPlatform().start(() -> {
+            while (running.get()) {
+                f.transformY(1, 3, y -> y + 1);
+            }
+        });
+        for (int i = 0; i < 200_000; i++) {
+            double y = f.apply(1.5);
+            if (y != Math.rint(y)) {
+                failure.set("apply(1.5) = " + y);
+                break;
+            }
+        }
+        running.set(false);
+        writer.join();
+        assertNull(failure.get());
+    }
+}
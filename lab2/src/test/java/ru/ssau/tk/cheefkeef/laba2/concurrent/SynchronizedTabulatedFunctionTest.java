@@ -228,4 +228,16 @@ public class SynchronizedTabulatedFunctionTest {
         assertFalse(it.hasNext());
         assertThrows(NoSuchElementException.class, it::next);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testForEachPointHoldsLock() {
+        SynchronizedTabulatedFunction syncFunc = new SynchronizedTabulatedFunction(
+                new ArrayTabulatedFunction(new double[]{1.0, 2.0}, new double[]{3.0, 4.0}));
+        double[] sum = {0.0};
+        syncFunc.forEachPoint((x, y) -> {
+            assertTrue(Thread.holdsLock(syncFunc));
+            sum[0] += x * y;
+        });
+        assertEquals(11.0, sum[0], 0.0);
+    }
+}
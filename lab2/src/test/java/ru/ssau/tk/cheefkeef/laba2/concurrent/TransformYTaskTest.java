@@ -0,0 +1,96 @@
+package ru.ssau.tk.cheefkeef.laba2.concurrent;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.tk.cheefkeef.laba2.functions.ArrayTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.IdentityFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.LinkedListTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.UnitFunction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransformYTaskTest {
+
+    @Test
+    void parallelTransformOverArray() {
+        TabulatedFunction f = new ArrayTabulatedFunction(new IdentityFunction(), 0.0, 99_999.0, 100_000);
+        TransformYTask.transformParallel(f, y -> y * 3);
+        for (int i = 0; i < f.getCount(); i += 997) {
+            assertEquals(3.0 * f.getX(i), f.getY(i), 0.0);
+        }
+        assertEquals(3.0 * 99_999.0, f.getY(99_999), 0.0);
+    }
+
+    @Test
+    void parallelTransformOverLinkedListWithSmallPartitions() {
+        LinkedListTabulatedFunction f = new LinkedListTabulatedFunction(new IdentityFunction(), 0.0, 999.0, 1000);
+        f.getY(500);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TransformYTask.transformParallel(f, y -> -y, pool, 7);
+        } finally {
+            pool.shutdown();
+        }
+        for (int i = 0; i < f.getCount(); i++) {
+            assertEquals(-f.getX(i), f.getY(i), 0.0);
+        }
+    }
+
+    @Test
+    void synchronizedFunctionLocksOncePerPartition() {
+        SynchronizedTabulatedFunction f = new SynchronizedTabulatedFunction(
+                new ArrayTabulatedFunction(new UnitFunction(), 0.0, 1.0, 10_000));
+        TransformYTask.transformParallel(f, y -> {
+            assertTrue(Thread.holdsLock(f));
+            return y + 1;
+        }, ForkJoinPool.commonPool(), 1000);
+        for (int i = 0; i < f.getCount(); i++) {
+            assertEquals(2.0, f.getY(i), 0.0);
+        }
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        TabulatedFunction f = new ArrayTabulatedFunction(new double[]{1.0, 2.0}, new double[]{1.0, 2.0});
+        assertThrows(IllegalArgumentException.class, () -> new TransformYTask(f, 0, 2, y -> y, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> new TransformYTask(f, 0, 3, y -> y, 1));
+        assertThrows(NullPointerException.class, () -> new TransformYTask(f, 0, 2, null, 1));
+    }
+
+    @Test
+    void multiplyingTasksCompleteWithoutSleeping() throws InterruptedException {
+        TabulatedFunction f = new LinkedListTabulatedFunction(new UnitFunction(), 1.0, 1000.0, 1000);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Thread thread = new Thread(new MultiplyingTask(f));
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int i = 0; i < f.getCount(); i++) {
+            assertEquals(1024.0, f.getY(i), 0.0);
+        }
+    }
+
+    @Test
+    void multiplyingTasksShareUnsynchronizedArrayFunction() throws InterruptedException {
+        TabulatedFunction f = new ArrayTabulatedFunction(new IdentityFunction(), 1.0, 10_000.0, 10_000);
+        assertFalse(f instanceof InternallySynchronized);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofPlatform().start(new MultiplyingTask(f)));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int i = 0; i < f.getCount(); i++) {
+            assertEquals(256.0 * f.getX(i), f.getY(i), 0.0);
+        }
+    }
+}
@@ -3,7 +3,9 @@ package ru.ssau.tk.cheefkeef.laba2.functions;
 import org.junit.jupiter.api.Test;
 import ru.ssau.tk.cheefkeef.laba2.exceptions.InterpolationException;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -328,4 +330,219 @@ class ArrayTabulatedFunctionTest {
 
         assertEquals(7.0, result, 1e-10);
     }
-}
\ No newline at end of file
+
+    @Test
+    void floorIndexOfX_nonUniformGridBinarySearch() {
+        ArrayTabulatedFunction f = new ArrayTabulatedFunction(
+                new double[]{0.0, 0.5, 2.0, 7.0, 7.5, 100.0},
+                new double[]{0.0, 1.0, 2.0, 3.0, 4.0, 5.0}
+        );
+        assertEquals(0, f.floorIndexOfX(0.0));
+        assertEquals(1, f.floorIndexOfX(1.9));
+        assertEquals(3, f.floorIndexOfX(7.0));
+        assertEquals(4, f.floorIndexOfX(99.9));
+        assertEquals(5, f.floorIndexOfX(100.0));
+        assertEquals(6, f.floorIndexOfX(100.1));
+        assertEquals(4, f.indexOfX(7.5));
+        assertEquals(-1, f.indexOfX(7.25));
+        assertEquals(-1, f.indexOfX(-1.0));
+        assertEquals(-1, f.indexOfX(Double.NaN));
+    }
+
+    @Test
+    void indexOfX_uniformGridMatchesEveryNode() {
+        ArrayTabulatedFunction f = new ArrayTabulatedFunction(new SqrFunction(), -3.0, 7.0, 1001);
+        for (int i = 0; i < f.getCount(); i++) {
+            double x = f.getX(i);
+            assertEquals(i, f.indexOfX(x));
+            assertEquals(i, f.floorIndexOfX(x));
+            if (i < f.getCount() - 1) {
+                assertEquals(i, f.floorIndexOfX((x + f.getX(i + 1)) / 2));
+            }
+        }
+        assertEquals(-1, f.indexOfX(-2.9995));
+        assertEquals(6.25, f.apply(2.5), 1e-4);
+    }
+
+    @Test
+    void indexOfX_duplicatedNodesReturnsFirst() {
+        ArrayTabulatedFunction f = new ArrayTabulatedFunction(new SqrFunction(), 5.0, 5.0, 4);
+        assertEquals(0, f.indexOfX(5.0));
+        assertEquals(3, f.floorIndexOfX(5.0));
+    }
+
+    @Test
+    void uniformGridLookupAfterInsert() {
+        ArrayTabulatedFunction f = new ArrayTabulatedFunction(new SqrFunction(), 0.0, 4.0, 5);
+        f.insert(2.5, 100.0);
+        assertEquals(3, f.indexOfX(2.5));
+        assertEquals(4, f.indexOfX(3.0));
+        assertEquals(3, f.floorIndexOfX(2.7));
+        f.remove(0);
+        assertEquals(0, f.indexOfX(1.0));
+        assertEquals(2, f.floorIndexOfX(2.5));
+    }
+
+    @Test
+    void insertManyPointsKeepsOrder() {
+        ArrayTabulatedFunction f = new ArrayTabulatedFunction(new double[]{0.0, 1000.0}, new double[]{0.0, 1000.0});
+        for (int i = 999; i >= 1; i -= 2) {
+            f.insert(i, i * 10.0);
+        }
+        for (int i = 2; i < 1000; i += 2) {
+            f.insert(i, i * 10.0);
+        }
+        assertEquals(1001, f.getCount());
+        for (int i = 1; i < 1000; i++) {
+            assertEquals(i, f.getX(i));
+            assertEquals(i * 10.0, f.getY(i));
+        }
+        assertEquals(1000.0, f.rightBound());
+        assertEquals(5005.0, f.apply(500.5), 1e-10);
+    }
+
+    @Test
+    void removeShiftsInPlace() {
+        ArrayTabulatedFunction f = new ArrayTabulatedFunction(new SqrFunction(), 0.0, 9.0, 10);
+        f.remove(9);
+        f.remove(0);
+        f.remove(3);
+        assertEquals(7, f.getCount());
+        assertEquals(1.0, f.leftBound());
+        assertEquals(8.0, f.rightBound());
+        assertEquals(5.0, f.getX(3));
+        assertEquals(3, f.indexOfX(5.0));
+        assertEquals(-1, f.indexOfX(4.0));
+        assertEquals(2, f.floorIndexOfX(4.5));
+    }
+
+    @Test
+    void removeEndpointsKeepsUniformLookup() {
+        ArrayTabulatedFunction f = new ArrayTabulatedFunction(new SqrFunction(), 0.0, 9.0, 10);
+        f.remove(0);
+        f.remove(f.getCount() - 1);
+        for (int i = 0; i < f.getCount(); i++) {
+            assertEquals(i, f.indexOfX(i + 1.0));
+            assertEquals(i, f.floorIndexOfX(i + 1.0));
+        }
+        assertEquals(3, f.floorIndexOfX(4.5));
+    }
+
+    @Test
+    void ensureCapacityAndTrimToSize() {
+        ArrayTabulatedFunction f = new ArrayTabulatedFunction(new double[]{0.0, 1.0}, new double[]{0.0, 1.0});
+        f.ensureCapacity(100);
+        assertEquals(2, f.getCount());
+        assertEquals(1.0, f.rightBound());
+        f.insert(2.0, 4.0);
+        f.insert(0.5, 0.25);
+        f.trimToSize();
+        assertEquals(4, f.getCount());
+        assertEquals(2.0, f.rightBound());
+        assertEquals(0.25, f.getY(1));
+        assertThrows(IllegalArgumentException.class, () -> f.getY(4));
+        f.insert(3.0, 9.0);
+        assertEquals(5, f.getCount());
+        assertEquals(9.0, f.getY(4));
+    }
+
+    @Test
+    void applyAllMatchesApplyForSortedAndUnsortedQueries() {
+        ArrayTabulatedFunction f = new ArrayTabulatedFunction(
+                new double[]{0.0, 0.5, 1.0, 2.5, 2.5, 4.0, 7.0, 7.5, 10.0},
+                new double[]{0.0, 1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0});
+        Random random = new Random(11);
+        double[] sorted = new double[500];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = -2.0 + 14.0 * random.nextDouble();
+        }
+        Arrays.sort(sorted);
+        sorted[100] = f.getX(3);
+        sorted[101] = f.getX(3);
+        double[] unsorted = new double[500];
+        for (int i = 0; i < unsorted.length; i++) {
+            unsorted[i] = i % 7 == 0 ? f.getX(random.nextInt(f.getCount())) : -2.0 + 14.0 * random.nextDouble();
+        }
+        unsorted[13] = Double.NaN;
+
+        for (double[] xs : new double[][]{sorted, unsorted}) {
+            double[] out = new double[xs.length];
+            f.applyAll(xs, out);
+            for (int i = 0; i < xs.length; i++) {
+                assertEquals(f.apply(xs[i]), out[i], 0.0);
+            }
+        }
+    }
+
+    @Test
+    void applyAllOnUniformGrid() {
+        ArrayTabulatedFunction f = new ArrayTabulatedFunction(new SqrFunction(), 0.0, 10.0, 101);
+        double[] xs = {-1.0, 0.0, 0.05, 0.1, 3.33, 9.99, 10.0, 11.0, 5.0, 0.0};
+        double[] out = new double[xs.length];
+        f.applyAll(xs, out);
+        for (int i = 0; i < xs.length; i++) {
+            assertEquals(f.apply(xs[i]), out[i], 0.0);
+        }
+    }
+
+    @Test
+    void minYAndMaxY() {
+        ArrayTabulatedFunction f = new ArrayTabulatedFunction(new SqrFunction(), -3.0, 2.0, 51);
+        assertEquals(0.0, f.minY(), 1e-12);
+        assertEquals(9.0, f.maxY());
+        f.insert(5.0, -1.0);
+        assertEquals(-1.0, f.minY());
+    }
+
+    @Test
+    void applyAllLongBatchMatchesApply() {
+        ArrayTabulatedFunction f = new ArrayTabulatedFunction(
+                new double[]{0.0, 0.3, 1.0, 1.1, 2.0, 3.7, 4.0},
+                new double[]{1.0, -1.0, 2.0, 5.0, 0.0, 3.0, 1.0});
+        Random random = new Random(17);
+        double[] xs = new double[1000];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = i % 10 == 0 ? f.getX(random.nextInt(f.getCount())) : -1.0 + 6.0 * random.nextDouble();
+        }
+        double[] out = xs.clone();
+        f.applyAll(out, out);
+        for (int i = 0; i < xs.length; i++) {
+            assertEquals(f.apply(xs[i]), out[i], 0.0);
+        }
+    }
+
+    @Test
+    void forEachPointVisitsOnlyLivePoints() {
+        ArrayTabulatedFunction f = new ArrayTabulatedFunction(new double[]{1.0, 2.0, 3.0}, new double[]{10.0, 20.0, 30.0});
+        f.ensureCapacity(100);
+        f.insert(2.5, 25.0);
+        StringBuilder visited = new StringBuilder();
+        f.forEachPoint((x, y) -> visited.append(x).append(':').append(y).append(' '));
+        assertEquals("1.0:10.0 2.0:20.0 2.5:25.0 3.0:30.0 ", visited.toString());
+    }
+
+    @Test
+    void bulkCopyRangesAndBounds() {
+        ArrayTabulatedFunction f = new ArrayTabulatedFunction(new double[]{1.0, 2.0, 3.0, 4.0}, new double[]{10.0, 20.0, 30.0, 40.0});
+        double[] dest = new double[5];
+        f.copyXInto(1, dest, 2, 3);
+        assertArrayEquals(new double[]{0.0, 0.0, 2.0, 3.0, 4.0}, dest, 0.0);
+        f.copyYFrom(2, new double[]{-1.0, -3.0, -4.0}, 1, 2);
+        assertArrayEquals(new double[]{10.0, 20.0, -3.0, -4.0}, f.toYArray(), 0.0);
+        assertArrayEquals(new double[]{1.0, 2.0, 3.0, 4.0}, f.toXArray(), 0.0);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> f.copyXInto(2, dest, 0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> f.copyYInto(0, dest, 3, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> f.copyYFrom(-1, dest, 0, 1));
+    }
+
+    @Test
+    void transformYRange() {
+        ArrayTabulatedFunction f = new ArrayTabulatedFunction(new double[]{1.0, 2.0, 3.0, 4.0}, new double[]{1.0, 2.0, 3.0, 4.0});
+        f.transformY(1, 3, y -> y * 10);
+        assertArrayEquals(new double[]{1.0, 20.0, 30.0, 4.0}, f.toYArray(), 0.0);
+        f.transformY(y -> -y);
+        assertArrayEquals(new double[]{-1.0, -20.0, -30.0, -4.0}, f.toYArray(), 0.0);
+        assertThrows(IndexOutOfBoundsException.class, () -> f.transformY(3, 2, y -> y));
+    }
+}
@@ -0,0 +1,182 @@
+package ru.ssau.tk.cheefkeef.laba2.functions;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.tk.cheefkeef.laba2.concurrent.TransformYTask;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.BPlusTreeTabulatedFunctionFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunctionAssertions.assertSameTable;
+
+class BPlusTreeTabulatedFunctionTest {
+
+    @Test
+    void constructorAndLookupsMatchArray() {
+        ArrayTabulatedFunction source = new ArrayTabulatedFunction(new SqrFunction(), -5.0, 5.0, 10_001);
+        BPlusTreeTabulatedFunction f = new BPlusTreeTabulatedFunction(new SqrFunction(), -5.0, 5.0, 10_001);
+        assertSameTable(source, f);
+        Random random = new Random(3);
+        for (int i = 0; i < 300; i++) {
+            double x = -6.0 + 12.0 * random.nextDouble();
+            assertEquals(source.apply(x), f.apply(x), 1e-12);
+        }
+        assertEquals(4321, f.indexOfX(source.getX(4321)));
+        assertEquals(-1, f.indexOfX(0.00001));
+        assertEquals(0, f.indexOfY(25.0));
+        assertEquals(-1, f.indexOfY(-1.0));
+        assertThrows(IllegalArgumentException.class, () -> f.getX(10_001));
+        assertThrows(IllegalArgumentException.class, () -> new BPlusTreeTabulatedFunction(new double[]{1.0}, new double[]{1.0}));
+    }
+
+    @Test
+    void insertsAndRemovesMatchArrayModel() {
+        ArrayTabulatedFunction model = new ArrayTabulatedFunction(new double[]{0.0, 1000.0}, new double[]{0.0, 1.0});
+        BPlusTreeTabulatedFunction f = new BPlusTreeTabulatedFunction(model);
+        Random random = new Random(23);
+        for (int step = 0; step < 20_000; step++) {
+            int operation = random.nextInt(10);
+            if (operation < 6 || model.getCount() < 3) {
+                double x = random.nextInt(20_000) * 0.05;
+                double y = random.nextGaussian();
+                model.insert(x, y);
+                f.insert(x, y);
+            } else if (operation < 9) {
+                int index = random.nextInt(model.getCount());
+                model.remove(index);
+                f.remove(index);
+            } else {
+                int index = random.nextInt(model.getCount());
+                double y = random.nextGaussian();
+                model.setY(index, y);
+                f.setY(index, y);
+            }
+            if (step % 1000 == 0) {
+                assertSameTable(model, f);
+            }
+        }
+        assertSameTable(model, f);
+        while (f.getCount() > 2) {
+            int index = random.nextInt(f.getCount());
+            model.remove(index);
+            f.remove(index);
+        }
+        assertSameTable(model, f);
+        assertThrows(IllegalStateException.class, () -> f.remove(0));
+    }
+
+    // Вставки с обоих краёв делят листья, затем ветви и корень: дерево растёт до четырёх уровней
+    @Test
+    void edgeInsertsSplitBranchesAndRoot() {
+        BPlusTreeTabulatedFunction f = new BPlusTreeTabulatedFunction(new double[]{0.0, 1.0}, new double[]{0.0, 1.0});
+        assertEquals(1, f.height());
+        int previousHeight = 1;
+        for (int i = 2; i <= 20_000; i++) {
+            f.insert(i, i);
+            f.insert(1 - i, 1 - i);
+            assertTrue(f.height() >= previousHeight);
+            previousHeight = f.height();
+        }
+        assertEquals(4, f.height());
+        ArrayTabulatedFunction expected = new ArrayTabulatedFunction(new IdentityFunction(), -19_999.0, 20_000.0, 40_000);
+        assertSameTable(expected, f);
+        for (int i = 0; i < f.getCount(); i += 61) {
+            assertEquals(i, f.indexOfX(expected.getX(i)));
+            assertEquals(expected.getX(i) + 0.25, f.apply(expected.getX(i) + 0.25), 1e-9);
+        }
+    }
+
+    // Случайные удаления опустошают и сливают листья и ветви, пока корень не станет листом
+    @Test
+    void removesCollapseRootToLeaf() {
+        ArrayTabulatedFunction model = new ArrayTabulatedFunction(new SqrFunction(), 0.0, 1.0, 8_000);
+        BPlusTreeTabulatedFunction f = new BPlusTreeTabulatedFunction(model);
+        assertEquals(3, f.height());
+        Random random = new Random(41);
+        int previousHeight = f.height();
+        while (f.getCount() > 2) {
+            int index = random.nextInt(f.getCount());
+            model.remove(index);
+            f.remove(index);
+            assertTrue(f.height() <= previousHeight);
+            previousHeight = f.height();
+            if (f.getCount() % 1000 == 0 || f.getCount() < 40) {
+                assertSameTable(model, f);
+            }
+        }
+        assertEquals(1, f.height());
+        assertSameTable(model, f);
+        for (int i = 0; i < 300; i++) {
+            f.insert(2.0 + i, i);
+        }
+        assertEquals(2, f.height());
+        assertEquals(299.0, f.apply(301.0));
+    }
+
+    @Test
+    void rangeOperationsCrossLeaves() {
+        BPlusTreeTabulatedFunction f = new BPlusTreeTabulatedFunction(new IdentityFunction(), 0.0, 999.0, 1000);
+        double[] xs = new double[300];
+        f.copyXInto(100, xs, 0, 300);
+        for (int i = 0; i < 300; i++) {
+            assertEquals(100 + i, xs[i], 0.0);
+        }
+        f.transformY(120, 400, y -> -y);
+        f.copyYFrom(0, new double[]{5.0, 6.0}, 0, 2);
+        for (int i = 0; i < f.getCount(); i++) {
+            double expected = i < 2 ? 5.0 + i : (i >= 120 && i < 400 ? -i : i);
+            assertEquals(expected, f.getY(i), 0.0);
+        }
+        TransformYTask.transformParallel(f, y -> y * 2, ForkJoinPool.commonPool(), 50);
+        assertEquals(-240.0, f.getY(120), 0.0);
+        assertEquals(2.0 * 999.0, f.getY(999), 0.0);
+    }
+
+    @Test
+    void iteratorWalksLeaves() {
+        BPlusTreeTabulatedFunction f = new BPlusTreeTabulatedFunction(new IdentityFunction(), 0.0, 499.0, 500);
+        f.insert(10.5, 1.0);
+        Iterator<Point> iterator = f.iterator();
+        int i = 0;
+        while (iterator.hasNext()) {
+            Point point = iterator.next();
+            assertEquals(f.getX(i), point.x, 0.0);
+            assertEquals(f.getY(i), point.y, 0.0);
+            i++;
+        }
+        assertEquals(501, i);
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void serializationRoundTrip() throws IOException, ClassNotFoundException {
+        BPlusTreeTabulatedFunction f = new BPlusTreeTabulatedFunction(new SqrFunction(), 0.0, 10.0, 2000);
+        f.insert(3.33333, 1.0);
+        f.remove(5);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(f);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            BPlusTreeTabulatedFunction restored = (BPlusTreeTabulatedFunction) in.readObject();
+            assertSameTable(f, restored);
+            restored.insert(20.0, 400.0);
+            assertEquals(400.0, restored.apply(20.0));
+        }
+    }
+
+    @Test
+    void factoryCreatesTreeFunction() {
+        TabulatedFunction f = new BPlusTreeTabulatedFunctionFactory().create(new double[]{1.0, 2.0}, new double[]{3.0, 4.0});
+        assertInstanceOf(BPlusTreeTabulatedFunction.class, f);
+        assertEquals(3.5, f.apply(1.5), 1e-12);
+    }
+}
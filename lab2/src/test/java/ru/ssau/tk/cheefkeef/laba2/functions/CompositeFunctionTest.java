@@ -139,4 +139,16 @@ public class CompositeFunctionTest {
         assertEquals(sqr.apply(x), leftId.apply(x), 1e-9);
         assertEquals(sqr.apply(x), rightId.apply(x), 1e-9);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testApplyAllStreamsThroughStages() {
+        TabulatedFunction table = new ArrayTabulatedFunction(new SqrFunction(), 0.0, 4.0, 5);
+        CompositeFunction comp = new CompositeFunction(table, new SqrFunction());
+        double[] xs = {3.5, 0.5, 2.0, -1.0, 5.0};
+        double[] out = new double[xs.length];
+        comp.applyAll(xs, out);
+        for (int i = 0; i < xs.length; i++) {
+            assertEquals(comp.apply(xs[i]), out[i], 0.0);
+        }
+    }
+}
@@ -3,7 +3,17 @@ package ru.ssau.tk.cheefkeef.laba2.functions;
 import org.junit.jupiter.api.Test;
 import ru.ssau.tk.cheefkeef.laba2.exceptions.InterpolationException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -346,4 +356,286 @@ class LinkedListTabulatedFunctionTest {
 
         assertEquals(-1, func.indexOfY(1337.0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSkipIndexMatchesPlainListAfterMutations() {
+        LinkedListTabulatedFunction plain = new LinkedListTabulatedFunction(new SqrFunction(), 0.0, 100.0, 101);
+        LinkedListTabulatedFunction indexed = new LinkedListTabulatedFunction(new SqrFunction(), 0.0, 100.0, 101);
+        indexed.setSkipIndexEnabled(true);
+        assertTrue(indexed.isSkipIndexEnabled());
+
+        Random random = new Random(7);
+        for (int step = 0; step < 2000; step++) {
+            if (random.nextInt(3) == 0 && plain.getCount() > 2) {
+                int index = random.nextInt(plain.getCount());
+                plain.remove(index);
+                indexed.remove(index);
+            } else {
+                double x = random.nextInt(2400) / 10.0 - 20.0;
+                plain.insert(x, step);
+                indexed.insert(x, step);
+            }
+        }
+
+        assertEquals(plain.getCount(), indexed.getCount());
+        for (int i = 0; i < plain.getCount(); i++) {
+            assertEquals(plain.getX(i), indexed.getX(i));
+            assertEquals(plain.getY(i), indexed.getY(i));
+            assertEquals(plain.indexOfX(plain.getX(i)), indexed.indexOfX(plain.getX(i)));
+        }
+        assertEquals(plain.leftBound(), indexed.leftBound());
+        assertEquals(plain.rightBound(), indexed.rightBound());
+        for (double x = plain.leftBound(); x < plain.rightBound(); x += 0.37) {
+            assertEquals(plain.floorIndexOfX(x), indexed.floorIndexOfX(x));
+            assertEquals(plain.indexOfX(x), indexed.indexOfX(x));
+            assertEquals(plain.apply(x), indexed.apply(x));
+        }
+    }
+
+    @Test
+    void testSkipIndexInsertAtBothEnds() {
+        LinkedListTabulatedFunction f = new LinkedListTabulatedFunction(new double[]{1.0, 2.0}, new double[]{1.0, 4.0});
+        f.setSkipIndexEnabled(true);
+        f.insert(0.0, 0.0);
+        f.insert(3.0, 9.0);
+        f.insert(1.0, 10.0);
+        assertEquals(4, f.getCount());
+        assertEquals(0.0, f.leftBound());
+        assertEquals(3.0, f.rightBound());
+        assertEquals(10.0, f.getY(1));
+        f.remove(0);
+        assertEquals(1.0, f.leftBound());
+        assertEquals(0, f.indexOfX(1.0));
+        assertEquals(-1, f.indexOfX(0.0));
+        f.setSkipIndexEnabled(false);
+        assertFalse(f.isSkipIndexEnabled());
+        assertEquals(2, f.indexOfX(3.0));
+    }
+
+    @Test
+    void testSkipIndexSurvivesSerialization() throws Exception {
+        LinkedListTabulatedFunction f = new LinkedListTabulatedFunction(new SqrFunction(), 0.0, 10.0, 11);
+        f.setSkipIndexEnabled(true);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(f);
+        }
+        LinkedListTabulatedFunction copy;
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (LinkedListTabulatedFunction) in.readObject();
+        }
+
+        assertTrue(copy.isSkipIndexEnabled());
+        assertEquals(7, copy.indexOfX(7.0));
+        copy.insert(7.5, 0.0);
+        assertEquals(8, copy.indexOfX(7.5));
+        assertEquals(64.0, copy.getY(9));
+    }
+
+    // Раньше цепочка узлов сериализовалась рекурсивно и падала с StackOverflowError
+    @Test
+    void testSerializationOfLongList() throws Exception {
+        LinkedListTabulatedFunction f = new LinkedListTabulatedFunction(new SqrFunction(), 0.0, 99_999.0, 100_000);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(f);
+        }
+        LinkedListTabulatedFunction copy;
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (LinkedListTabulatedFunction) in.readObject();
+        }
+
+        assertEquals(100_000, copy.getCount());
+        assertEquals(0.0, copy.getY(0));
+        assertEquals(99_999.0 * 99_999.0, copy.getY(99_999));
+        assertEquals(50_000.0, copy.getX(50_000));
+    }
+
+    // Потоки записаны прежними версиями класса стандартной сериализацией, точки (0; 0), (1; 1), (2; 4)
+    private static final String OLD_STREAM =
+            "rO0ABXNyAEBydS5zc2F1LnRrLmNoZWVma2VlZi5sYWJhMi5mdW5jdGlvbnMuTGlua2VkTGlzdFRhYnVsYXRlZEZ1bmN0aW9uTcGwqtXnAjoC"
+                    + "AAJJAAVjb3VudEwABGhlYWR0AEdMcnUvc3NhdS90ay9jaGVlZmtlZWYvbGFiYTIvZnVuY3Rpb25zL0xpbmtlZExpc3RUYWJ1bGF0ZWRG"
+                    + "dW5jdGlvbiROb2RlO3hwAAAAA3NyAEVydS5zc2F1LnRrLmNoZWVma2VlZi5sYWJhMi5mdW5jdGlvbnMuTGlua2VkTGlzdFRhYnVsYXRl"
+                    + "ZEZ1bmN0aW9uJE5vZGXxkwkHExB2tgIABEQAAXhEAAF5TAAEbmV4dHEAfgABTAAEcHJldnEAfgABeHAAAAAAAAAAAAAAAAAAAAAAc3EA"
+                    + "fgADP/AAAAAAAAA/8AAAAAAAAHNxAH4AA0AAAAAAAAAAQBAAAAAAAABxAH4ABHEAfgAFcQB+AARxAH4ABg==";
+    // То же с полем skipIndexEnabled = true
+    private static final String OLD_STREAM_WITH_SKIP_INDEX =
+            "rO0ABXNyAEBydS5zc2F1LnRrLmNoZWVma2VlZi5sYWJhMi5mdW5jdGlvbnMuTGlua2VkTGlzdFRhYnVsYXRlZEZ1bmN0aW9uTcGwqtXnAjoC"
+                    + "AANJAAVjb3VudFoAEHNraXBJbmRleEVuYWJsZWRMAARoZWFkdABHTHJ1L3NzYXUvdGsvY2hlZWZrZWVmL2xhYmEyL2Z1bmN0aW9ucy9M"
+                    + "aW5rZWRMaXN0VGFidWxhdGVkRnVuY3Rpb24kTm9kZTt4cAAAAAMBc3IARXJ1LnNzYXUudGsuY2hlZWZrZWVmLmxhYmEyLmZ1bmN0aW9u"
+                    + "cy5MaW5rZWRMaXN0VGFidWxhdGVkRnVuY3Rpb24kTm9kZfGTCQcTEHa2AgAERAABeEQAAXlMAARuZXh0cQB+AAFMAARwcmV2cQB+AAF4"
+                    + "cAAAAAAAAAAAAAAAAAAAAABzcQB+AAM/8AAAAAAAAD/wAAAAAAAAc3EAfgADQAAAAAAAAABAEAAAAAAAAHEAfgAEcQB+AAVxAH4ABHEA"
+                    + "fgAG";
+
+    private static LinkedListTabulatedFunction readBase64(String stream) throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(Base64.getDecoder().decode(stream)))) {
+            return (LinkedListTabulatedFunction) in.readObject();
+        }
+    }
+
+    @Test
+    void testReadsOldSerializedForm() throws Exception {
+        LinkedListTabulatedFunction f = readBase64(OLD_STREAM);
+        assertEquals(3, f.getCount());
+        assertFalse(f.isSkipIndexEnabled());
+        assertArrayEquals(new double[]{0, 1, 2}, f.toXArray());
+        assertArrayEquals(new double[]{0, 1, 4}, f.toYArray());
+        assertEquals(2.5, f.apply(1.5), 1e-12);
+        f.insert(3.0, 9.0);
+        assertEquals(9.0, f.getY(3));
+
+        LinkedListTabulatedFunction indexed = readBase64(OLD_STREAM_WITH_SKIP_INDEX);
+        assertTrue(indexed.isSkipIndexEnabled());
+        assertEquals(2, indexed.indexOfX(2.0));
+        assertEquals(4.0, indexed.getY(2));
+    }
+
+    @Test
+    void testSequentialAndReverseAccessFromLastNode() {
+        LinkedListTabulatedFunction f = new LinkedListTabulatedFunction(new SqrFunction(), 0.0, 99.0, 100);
+        for (int i = 0; i < f.getCount(); i++) {
+            assertEquals(i, f.getX(i));
+        }
+        for (int i = f.getCount() - 1; i >= 0; i -= 3) {
+            assertEquals((double) i * i, f.getY(i));
+        }
+        f.getX(40);
+        assertEquals(45.0, f.getX(45));
+        assertEquals(38.0, f.getX(38));
+        assertEquals(99.0, f.getX(99));
+        assertEquals(1.0, f.getX(1));
+    }
+
+    @Test
+    void testAccessFromLastNodeAfterMutations() {
+        LinkedListTabulatedFunction f = new LinkedListTabulatedFunction(new SqrFunction(), 0.0, 9.0, 10);
+        assertEquals(5.0, f.getX(5));
+        f.insert(-1.0, 1.0);
+        assertEquals(5.0, f.getX(6));
+        f.insert(4.5, 0.0);
+        assertEquals(4.5, f.getX(6));
+        assertEquals(5.0, f.getX(7));
+        f.remove(7);
+        assertEquals(6.0, f.getX(7));
+        f.insert(20.0, 0.0);
+        assertEquals(6.0, f.getX(7));
+        assertEquals(20.0, f.getX(11));
+
+        f.setSkipIndexEnabled(true);
+        assertEquals(6.0, f.getX(7));
+        f.insert(5.5, 0.0);
+        assertEquals(5.5, f.getX(7));
+        assertEquals(6.0, f.getX(8));
+        f.insert(-2.0, 0.0);
+        assertEquals(6.0, f.getX(9));
+        f.remove(0);
+        assertEquals(6.0, f.getX(8));
+    }
+
+    // Параллельные читатели делят запомненный узел; каждый должен получать x своего индекса
+    @Test
+    void testConcurrentReadersShareLastNode() throws InterruptedException {
+        LinkedListTabulatedFunction f = new LinkedListTabulatedFunction(new IdentityFunction(), 0.0, 1999.0, 2000);
+        AtomicInteger wrong = new AtomicInteger();
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            int offset = t * 125;
+            int step = 1 + t % 5;
+            readers.add(Thread.ofPlatform().start(() -> {
+                for (int round = 0; round < 50; round++) {
+                    for (int i = offset; i < f.getCount(); i += step) {
+                        if (f.getX(i) != i) {
+                            wrong.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertEquals(0, wrong.get());
+    }
+
+    @Test
+    void applyAllMatchesApplyForSortedAndUnsortedQueries() {
+        LinkedListTabulatedFunction f = new LinkedListTabulatedFunction(
+                new double[]{0.0, 0.5, 1.0, 2.5, 2.5, 4.0, 7.0, 7.5, 10.0},
+                new double[]{0.0, 1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0});
+        Random random = new Random(11);
+        double[] sorted = new double[500];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = -2.0 + 14.0 * random.nextDouble();
+        }
+        Arrays.sort(sorted);
+        sorted[100] = f.getX(3);
+        sorted[101] = f.getX(3);
+        double[] unsorted = new double[500];
+        for (int i = 0; i < unsorted.length; i++) {
+            unsorted[i] = i % 7 == 0 ? f.getX(random.nextInt(f.getCount())) : -2.0 + 14.0 * random.nextDouble();
+        }
+        unsorted[13] = Double.NaN;
+
+        for (double[] xs : new double[][]{sorted, unsorted}) {
+            double[] out = new double[xs.length];
+            f.applyAll(xs, out);
+            for (int i = 0; i < xs.length; i++) {
+                assertEquals(f.apply(xs[i]), out[i], 0.0);
+            }
+        }
+    }
+
+    @Test
+    void forEachPointVisitsPointsInOrder() {
+        LinkedListTabulatedFunction f = new LinkedListTabulatedFunction(
+                new double[]{1.0, 2.0, 4.0, 8.0}, new double[]{-1.0, -2.0, -4.0, -8.0});
+        f.insert(3.0, -3.0);
+        f.remove(0);
+        double[] xs = new double[f.getCount()];
+        double[] ys = new double[f.getCount()];
+        int[] i = {0};
+        f.forEachPoint((x, y) -> {
+            xs[i[0]] = x;
+            ys[i[0]] = y;
+            i[0]++;
+        });
+        assertEquals(4, i[0]);
+        assertArrayEquals(new double[]{2.0, 3.0, 4.0, 8.0}, xs, 0.0);
+        assertArrayEquals(new double[]{-2.0, -3.0, -4.0, -8.0}, ys, 0.0);
+    }
+
+    @Test
+    void bulkCopyMatchesPerIndexAccess() {
+        LinkedListTabulatedFunction f = new LinkedListTabulatedFunction(new SqrFunction(), 0.0, 10.0, 40);
+        double[] xs = new double[25];
+        double[] ys = new double[25];
+        f.copyXInto(10, xs, 5, 20);
+        f.copyYInto(10, ys, 5, 20);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(f.getX(10 + i), xs[5 + i], 0.0);
+            assertEquals(f.getY(10 + i), ys[5 + i], 0.0);
+        }
+
+        f.copyYFrom(38, new double[]{7.0, 8.0}, 0, 2);
+        assertEquals(7.0, f.getY(38), 0.0);
+        assertEquals(8.0, f.getY(39), 0.0);
+        assertThrows(IndexOutOfBoundsException.class, () -> f.copyXInto(30, xs, 0, 11));
+    }
+
+    @Test
+    void transformYRangeWithAndWithoutSkipIndex() {
+        for (boolean indexed : new boolean[]{false, true}) {
+            LinkedListTabulatedFunction f = new LinkedListTabulatedFunction(new IdentityFunction(), 0.0, 99.0, 100);
+            f.setSkipIndexEnabled(indexed);
+            f.transformY(70, 90, y -> y + 0.5);
+            for (int i = 0; i < f.getCount(); i++) {
+                assertEquals(i >= 70 && i < 90 ? i + 0.5 : i, f.getY(i), 0.0);
+            }
+        }
+    }
+}
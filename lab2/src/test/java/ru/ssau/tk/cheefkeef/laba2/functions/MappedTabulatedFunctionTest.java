@@ -0,0 +1,149 @@
+package ru.ssau.tk.cheefkeef.laba2.functions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.ArrayTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.io.FunctionsIO;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTabulatedFunctionTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path write(TabulatedFunction function) throws IOException {
+        Path file = tempDir.resolve("function.bin");
+        try (BufferedOutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            FunctionsIO.writeTabulatedFunction(out, function);
+        }
+        return file;
+    }
+
+    @Test
+    void readsPointsWrittenByFunctionsIO() throws IOException {
+        ArrayTabulatedFunction source = new ArrayTabulatedFunction(new SqrFunction(), -2.0, 3.0, 51);
+        try (MappedTabulatedFunction f = FunctionsIO.mapTabulatedFunction(write(source))) {
+            assertEquals(source.getCount(), f.getCount());
+            for (int i = 0; i < source.getCount(); i++) {
+                assertEquals(source.getX(i), f.getX(i));
+                assertEquals(source.getY(i), f.getY(i));
+            }
+            assertEquals(-2.0, f.leftBound());
+            assertEquals(3.0, f.rightBound());
+            assertEquals(source.apply(0.05), f.apply(0.05), 1e-12);
+            assertEquals(source.apply(-3.0), f.apply(-3.0), 1e-12);
+            assertEquals(source.apply(4.0), f.apply(4.0), 1e-12);
+            assertEquals(20, f.indexOfX(source.getX(20)));
+            assertEquals(-1, f.indexOfX(0.05));
+            assertEquals(50, f.indexOfY(9.0));
+        }
+    }
+
+    @Test
+    void floorIndexAndIterator() throws IOException {
+        LinkedListTabulatedFunction source = new LinkedListTabulatedFunction(
+                new double[]{1.0, 2.0, 4.0}, new double[]{1.0, 4.0, 16.0});
+        try (MappedTabulatedFunction f = new MappedTabulatedFunction(write(source))) {
+            assertEquals(1, f.floorIndexOfX(3.0));
+            assertEquals(2, f.floorIndexOfX(4.0));
+            assertEquals(3, f.floorIndexOfX(5.0));
+            assertThrows(IllegalArgumentException.class, () -> f.floorIndexOfX(0.0));
+
+            Iterator<Point> it = f.iterator();
+            assertEquals(1.0, it.next().x);
+            assertEquals(4.0, it.next().y);
+            assertEquals(4.0, it.next().x);
+            assertFalse(it.hasNext());
+        }
+    }
+
+    @Test
+    void isReadOnlyAndClosable() throws IOException {
+        MappedTabulatedFunction f = new MappedTabulatedFunction(write(new ArrayTabulatedFunction(new SqrFunction(), 0, 1, 3)));
+        assertThrows(UnsupportedOperationException.class, () -> f.setY(0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> f.getX(3));
+        f.close();
+        f.close();
+        assertTrue(f.isClosed());
+        assertThrows(IllegalStateException.class, () -> f.getX(0));
+    }
+
+    @Test
+    void concurrentCloseUnmapsOnce() throws IOException, InterruptedException {
+        Path file = write(new ArrayTabulatedFunction(new SqrFunction(), 0, 1, 3));
+        for (int round = 0; round < 20; round++) {
+            MappedTabulatedFunction f = new MappedTabulatedFunction(file);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                threads.add(Thread.ofPlatform().start(() -> {
+                    try {
+                        start.await();
+                        f.close();
+                    } catch (Throwable e) {
+                        error.set(e);
+                    }
+                }));
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertNull(error.get());
+            assertTrue(f.isClosed());
+        }
+    }
+
+    @Test
+    void rejectsBrokenFiles() throws IOException {
+        Path empty = tempDir.resolve("empty.bin");
+        Files.write(empty, new byte[0]);
+        assertThrows(IOException.class, () -> new MappedTabulatedFunction(empty));
+
+        Path truncated = tempDir.resolve("truncated.bin");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(truncated))) {
+            out.writeInt(3);
+            out.writeDouble(1.0);
+            out.writeDouble(1.0);
+        }
+        assertThrows(IOException.class, () -> new MappedTabulatedFunction(truncated));
+
+        Path single = tempDir.resolve("single.bin");
+        try (OutputStream out = Files.newOutputStream(single)) {
+            out.write(new byte[]{0, 0, 0, 1});
+            out.write(new byte[16]);
+        }
+        assertThrows(IOException.class, () -> new MappedTabulatedFunction(single));
+    }
+
+    @Test
+    void chunkedBinaryWriteRoundTripsAcrossChunks() throws IOException {
+        LinkedListTabulatedFunction source = new LinkedListTabulatedFunction(new SqrFunction(), -1.0, 1.0, 2500);
+        Path file = write(source);
+        try (MappedTabulatedFunction f = FunctionsIO.mapTabulatedFunction(file)) {
+            assertArrayEquals(source.toXArray(), f.toXArray(), 0.0);
+            assertArrayEquals(source.toYArray(), f.toYArray(), 0.0);
+            assertThrows(UnsupportedOperationException.class, () -> f.copyYFrom(0, new double[1], 0, 1));
+        }
+        try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            TabulatedFunction read = FunctionsIO.readTabulatedFunction(in, new ArrayTabulatedFunctionFactory());
+            assertArrayEquals(source.toXArray(), read.toXArray(), 0.0);
+            assertArrayEquals(source.toYArray(), read.toYArray(), 0.0);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package ru.ssau.tk.cheefkeef.laba2.functions;
 
 import org.junit.jupiter.api.Test;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class MathFunctionTest {
     @Test
@@ -20,4 +20,16 @@ public class MathFunctionTest {
         MathFunction e = f.andThen(g).andThen(h); // f(g(h(x))) -> f(g(h(2))) -> f(g(4)) -> f(16) -> 256
         assertEquals(256, e.apply(2.0));
     }
+
+    @Test
+    void testApplyAllDefault() {
+        MathFunction f = new SqrFunction();
+        double[] xs = {1.0, -2.0, 3.0, 4.0};
+        double[] out = new double[6];
+        f.applyAll(xs, 1, out, 2, 3);
+        assertArrayEquals(new double[]{0.0, 0.0, 4.0, 9.0, 16.0, 0.0}, out);
+        f.applyAll(xs, xs);
+        assertArrayEquals(new double[]{1.0, 4.0, 9.0, 16.0}, xs);
+        assertThrows(IndexOutOfBoundsException.class, () -> f.applyAll(new double[3], 1, new double[3], 0, 3));
+    }
 }
@@ -0,0 +1,217 @@
+package ru.ssau.tk.cheefkeef.laba2.functions;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.ArrayTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.OffHeapTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.operations.TabulatedDifferentialOperator;
+import ru.ssau.tk.cheefkeef.laba2.operations.TabulatedFunctionOperationService;
+
+import java.lang.foreign.Arena;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapTabulatedFunctionTest {
+
+    @Test
+    void constructorFromArrays() {
+        try (OffHeapTabulatedFunction f = new OffHeapTabulatedFunction(
+                new double[]{1.0, 2.0, 4.0}, new double[]{1.0, 4.0, 16.0})) {
+            assertEquals(3, f.getCount());
+            assertEquals(4.0, f.getX(2));
+            assertEquals(16.0, f.getY(2));
+            assertEquals(1.0, f.leftBound());
+            assertEquals(4.0, f.rightBound());
+        }
+    }
+
+    @Test
+    void constructorFromArraysValidatesInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new OffHeapTabulatedFunction(new double[]{1.0}, new double[]{1.0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OffHeapTabulatedFunction(new double[]{1.0, 2.0}, new double[]{1.0}));
+        assertThrows(RuntimeException.class,
+                () -> new OffHeapTabulatedFunction(new double[]{2.0, 1.0}, new double[]{1.0, 2.0}));
+    }
+
+    @Test
+    void constructorFromFunctionMatchesArrayGrid() {
+        ArrayTabulatedFunction array = new ArrayTabulatedFunction(new SqrFunction(), 3.0, -1.0, 41);
+        try (OffHeapTabulatedFunction f = new OffHeapTabulatedFunction(new SqrFunction(), 3.0, -1.0, 41)) {
+            for (int i = 0; i < array.getCount(); i++) {
+                assertEquals(array.getX(i), f.getX(i));
+                assertEquals(array.getY(i), f.getY(i));
+            }
+        }
+    }
+
+    @Test
+    void lookupAndApply() {
+        try (OffHeapTabulatedFunction f = new OffHeapTabulatedFunction(
+                new double[]{0.0, 1.0, 3.0, 6.0}, new double[]{0.0, 1.0, 9.0, 36.0})) {
+            assertEquals(2, f.indexOfX(3.0));
+            assertEquals(-1, f.indexOfX(2.0));
+            assertEquals(2, f.indexOfY(9.0));
+            assertEquals(1, f.floorIndexOfX(2.0));
+            assertEquals(4, f.floorIndexOfX(7.0));
+            assertThrows(IllegalArgumentException.class, () -> f.floorIndexOfX(-1.0));
+            assertEquals(5.0, f.apply(2.0), 1e-12);
+            assertEquals(-1.0, f.apply(-1.0), 1e-12);
+            assertEquals(45.0, f.apply(7.0), 1e-12);
+            f.setY(1, 2.0);
+            assertEquals(2.0, f.getY(1));
+            assertThrows(IllegalArgumentException.class, () -> f.getY(4));
+        }
+    }
+
+    @Test
+    void iterator() {
+        try (OffHeapTabulatedFunction f = new OffHeapTabulatedFunction(new SqrFunction(), 0.0, 2.0, 3)) {
+            Iterator<Point> it = f.iterator();
+            assertEquals(0.0, it.next().x);
+            assertEquals(1.0, it.next().y);
+            assertEquals(4.0, it.next().y);
+            assertFalse(it.hasNext());
+            assertThrows(NoSuchElementException.class, it::next);
+        }
+    }
+
+    @Test
+    void accessAfterCloseThrows() {
+        OffHeapTabulatedFunction f = new OffHeapTabulatedFunction(new SqrFunction(), 0.0, 2.0, 3);
+        assertFalse(f.isClosed());
+        f.close();
+        f.close();
+        assertTrue(f.isClosed());
+        assertThrows(IllegalStateException.class, () -> f.getY(0));
+        assertThrows(IllegalStateException.class, () -> f.apply(1.0));
+    }
+
+    @Test
+    void concurrentCloseReleasesArenaOnce() throws InterruptedException {
+        for (int round = 0; round < 50; round++) {
+            OffHeapTabulatedFunction f = new OffHeapTabulatedFunction(new SqrFunction(), 0.0, 2.0, 3);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                threads.add(Thread.ofPlatform().start(() -> {
+                    try {
+                        start.await();
+                        f.close();
+                    } catch (Throwable e) {
+                        error.set(e);
+                    }
+                }));
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertNull(error.get());
+            assertTrue(f.isClosed());
+        }
+    }
+
+    @Test
+    void failedCloseFromOtherThreadKeepsFunctionOpen() throws InterruptedException {
+        OffHeapTabulatedFunction f = new OffHeapTabulatedFunction(new SqrFunction(), 0.0, 2.0, 3, true);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread thread = Thread.ofPlatform().start(() -> {
+            try {
+                f.close();
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        thread.join();
+        assertInstanceOf(WrongThreadException.class, error.get());
+        assertFalse(f.isClosed());
+        f.close();
+        assertTrue(f.isClosed());
+    }
+
+    @Test
+    void constructorClosesArenaWhenSourceThrows() {
+        Arena arena = Arena.ofShared();
+        MathFunction failing = x -> {
+            if (x > 1.0) {
+                throw new ArithmeticException("source failed");
+            }
+            return x;
+        };
+        assertThrows(ArithmeticException.class, () -> new OffHeapTabulatedFunction(failing, 0.0, 2.0, 3, arena));
+        assertFalse(arena.scope().isAlive());
+
+        Arena invalid = Arena.ofShared();
+        assertThrows(IllegalArgumentException.class,
+                () -> new OffHeapTabulatedFunction(new double[]{0.0, 1.0}, new double[]{0.0}, invalid));
+        assertFalse(invalid.scope().isAlive());
+    }
+
+    @Test
+    void sharedArenaIsAccessibleFromOtherThreads() throws InterruptedException {
+        try (OffHeapTabulatedFunction f = new OffHeapTabulatedFunction(new SqrFunction(), 0.0, 2.0, 3)) {
+            double[] result = new double[1];
+            Thread thread = new Thread(() -> result[0] = f.getY(2));
+            thread.start();
+            thread.join();
+            assertEquals(4.0, result[0]);
+        }
+    }
+
+    @Test
+    void confinedArenaRejectsOtherThreads() throws InterruptedException {
+        try (OffHeapTabulatedFunction f = new OffHeapTabulatedFunction(new SqrFunction(), 0.0, 2.0, 3, true)) {
+            Throwable[] error = new Throwable[1];
+            Thread thread = new Thread(() -> {
+                try {
+                    f.getY(2);
+                } catch (Throwable e) {
+                    error[0] = e;
+                }
+            });
+            thread.start();
+            thread.join();
+            assertInstanceOf(WrongThreadException.class, error[0]);
+        }
+    }
+
+    @Test
+    void factoryProducesOffHeapResults() {
+        OffHeapTabulatedFunctionFactory factory = new OffHeapTabulatedFunctionFactory();
+        TabulatedFunction sqr = new ArrayTabulatedFunction(new SqrFunction(), 0.0, 1.0, 11);
+
+        TabulatedFunction sum = new TabulatedFunctionOperationService(factory).add(sqr, sqr);
+        assertInstanceOf(OffHeapTabulatedFunction.class, sum);
+        assertEquals(0.5, sum.getY(5), 1e-12);
+
+        TabulatedFunction derivative = new TabulatedDifferentialOperator(factory).derive(sqr);
+        assertInstanceOf(OffHeapTabulatedFunction.class, derivative);
+        assertEquals(1.0, derivative.getY(5), 1e-12);
+
+        ((OffHeapTabulatedFunction) sum).close();
+        ((OffHeapTabulatedFunction) derivative).close();
+    }
+
+    @Test
+    void bulkCopyAndConversionBetweenFactories() {
+        try (OffHeapTabulatedFunction f = new OffHeapTabulatedFunction(new double[]{0.0, 1.0, 2.0}, new double[]{5.0, 6.0, 7.0})) {
+            assertArrayEquals(new double[]{0.0, 1.0, 2.0}, f.toXArray(), 0.0);
+            f.copyYFrom(0, new double[]{1.0, 2.0}, 0, 2);
+            double[] ys = new double[2];
+            f.copyYInto(1, ys, 0, 2);
+            assertArrayEquals(new double[]{2.0, 7.0}, ys, 0.0);
+
+            TabulatedFunction onHeap = new ArrayTabulatedFunctionFactory().create(f);
+            assertInstanceOf(ArrayTabulatedFunction.class, onHeap);
+            assertArrayEquals(new double[]{1.0, 2.0, 7.0}, onHeap.toYArray(), 0.0);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ru.ssau.tk.cheefkeef.laba2.functions;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.PersistentTabulatedFunctionFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunctionAssertions.assertSameTable;
+
+class PersistentTabulatedFunctionTest {
+
+    @Test
+    void constructorBuildsTreeMatchingArrays() {
+        ArrayTabulatedFunction source = new ArrayTabulatedFunction(new SqrFunction(), -5.0, 5.0, 3001);
+        PersistentTabulatedFunction f = new PersistentTabulatedFunction(source);
+        assertSameTable(source, f);
+        assertEquals(-5.0, f.leftBound());
+        assertEquals(5.0, f.rightBound());
+        Random random = new Random(5);
+        for (int i = 0; i < 200; i++) {
+            double x = -7.0 + 14.0 * random.nextDouble();
+            assertEquals(source.apply(x), f.apply(x), 1e-12);
+        }
+        assertEquals(1500, f.indexOfX(source.getX(1500)));
+        assertEquals(-1, f.indexOfX(0.0001));
+        assertEquals(0, f.indexOfY(25.0));
+    }
+
+    @Test
+    void constructorValidatesInput() {
+        assertThrows(IllegalArgumentException.class, () -> new PersistentTabulatedFunction(new double[]{1.0}, new double[]{1.0}));
+        assertThrows(IllegalArgumentException.class, () -> new PersistentTabulatedFunction(new double[]{1.0, 2.0}, new double[]{1.0}));
+    }
+
+    @Test
+    void updatesMatchMutableModelAndKeepOldVersions() {
+        ArrayTabulatedFunction model = new ArrayTabulatedFunction(new double[]{0.0, 1000.0}, new double[]{0.0, 1.0});
+        PersistentTabulatedFunction f = new PersistentTabulatedFunction(model);
+        Random random = new Random(17);
+        for (int step = 0; step < 4000; step++) {
+            PersistentTabulatedFunction previous = f;
+            double[] previousY = previous.toYArray();
+            int operation = random.nextInt(10);
+            if (operation < 6 || model.getCount() < 3) {
+                double x = random.nextInt(5000) * 0.2;
+                double y = random.nextGaussian();
+                model.insert(x, y);
+                f = f.withInserted(x, y);
+            } else if (operation < 8) {
+                int index = random.nextInt(model.getCount());
+                model.remove(index);
+                f = f.withoutIndex(index);
+            } else {
+                int index = random.nextInt(model.getCount());
+                double y = random.nextGaussian();
+                model.setY(index, y);
+                f = f.withY(index, y);
+            }
+            assertArrayEquals(previousY, previous.toYArray(), 0.0);
+            if (step % 200 == 0) {
+                assertSameTable(model, f);
+            }
+        }
+        assertSameTable(model, f);
+        for (int i = 0; i < 100; i++) {
+            double x = -10.0 + 1020.0 * random.nextDouble();
+            assertEquals(model.apply(x), f.apply(x), 1e-9);
+        }
+    }
+
+    @Test
+    void removingDownToMinimumMergesLeaves() {
+        PersistentTabulatedFunction f = new PersistentTabulatedFunction(new IdentityFunction(), 0.0, 999.0, 1000);
+        while (f.getCount() > 2) {
+            f = f.withoutIndex(f.getCount() / 3);
+        }
+        assertEquals(2, f.getCount());
+        assertEquals(0.0, f.leftBound());
+        assertEquals(999.0, f.rightBound());
+        PersistentTabulatedFunction last = f;
+        assertThrows(IllegalStateException.class, () -> last.withoutIndex(0));
+    }
+
+    @Test
+    void isImmutable() {
+        PersistentTabulatedFunction f = new PersistentTabulatedFunction(new double[]{1.0, 2.0, 3.0}, new double[]{1.0, 2.0, 3.0});
+        assertThrows(UnsupportedOperationException.class, () -> f.setY(0, 5.0));
+        assertThrows(UnsupportedOperationException.class, () -> f.transformY(y -> y));
+        assertThrows(IllegalArgumentException.class, () -> f.withY(3, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> f.withInserted(Double.NaN, 1.0));
+        PersistentTabulatedFunction replaced = f.withInserted(2.0, 20.0);
+        assertEquals(3, replaced.getCount());
+        assertEquals(20.0, replaced.getY(1));
+        assertEquals(2.0, f.getY(1));
+    }
+
+    @Test
+    void iteratorWalksSnapshot() {
+        PersistentTabulatedFunction f = new PersistentTabulatedFunction(new IdentityFunction(), 0.0, 199.0, 200);
+        Iterator<Point> iterator = f.iterator();
+        PersistentTabulatedFunction changed = f.withY(150, -1.0);
+        int i = 0;
+        while (iterator.hasNext()) {
+            Point point = iterator.next();
+            assertEquals(i, point.x, 0.0);
+            assertEquals(i, point.y, 0.0);
+            i++;
+        }
+        assertEquals(200, i);
+        assertEquals(-1.0, changed.getY(150));
+    }
+
+    @Test
+    void serializationRoundTrip() throws IOException, ClassNotFoundException {
+        PersistentTabulatedFunction f = new PersistentTabulatedFunction(new SqrFunction(), 0.0, 10.0, 500).withInserted(3.33333, 1.0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(f);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertSameTable(f, (TabulatedFunction) in.readObject());
+        }
+    }
+
+    @Test
+    void factoryCreatesPersistentFunction() {
+        TabulatedFunction f = new PersistentTabulatedFunctionFactory().create(new double[]{1.0, 2.0}, new double[]{3.0, 4.0});
+        assertInstanceOf(PersistentTabulatedFunction.class, f);
+        assertEquals(3.5, f.apply(1.5), 1e-12);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.ssau.tk.cheefkeef.laba2.functions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Общие проверки для тестов табулированных функций
+final class TabulatedFunctionAssertions {
+
+    private TabulatedFunctionAssertions() {
+    }
+
+    // Та же таблица точка в точку: столбцы целиком и доступ по каждому индексу
+    static void assertSameTable(TabulatedFunction expected, TabulatedFunction actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertArrayEquals(expected.toXArray(), actual.toXArray(), 0.0);
+        assertArrayEquals(expected.toYArray(), actual.toYArray(), 0.0);
+        for (int i = 0; i < expected.getCount(); i++) {
+            assertEquals(expected.getX(i), actual.getX(i), 0.0, "x[" + i + "]");
+            assertEquals(expected.getY(i), actual.getY(i), 0.0, "y[" + i + "]");
+        }
+    }
+}
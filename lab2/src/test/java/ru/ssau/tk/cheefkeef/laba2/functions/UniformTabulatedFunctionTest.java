@@ -0,0 +1,169 @@
+package ru.ssau.tk.cheefkeef.laba2.functions;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.tk.cheefkeef.laba2.exceptions.InterpolationException;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.UniformTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.operations.TabulatedDifferentialOperator;
+import ru.ssau.tk.cheefkeef.laba2.operations.TabulatedFunctionOperationService;
+
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UniformTabulatedFunctionTest {
+
+    @Test
+    void constructorFromFunctionMatchesArrayGrid() {
+        UniformTabulatedFunction f = new UniformTabulatedFunction(new SqrFunction(), 0.1, 7.3, 97);
+        ArrayTabulatedFunction a = new ArrayTabulatedFunction(new SqrFunction(), 0.1, 7.3, 97);
+        assertEquals(a.getCount(), f.getCount());
+        for (int i = 0; i < a.getCount(); i++) {
+            assertEquals(a.getX(i), f.getX(i));
+            assertEquals(a.getY(i), f.getY(i));
+        }
+        assertEquals(a.rightBound(), f.rightBound());
+    }
+
+    @Test
+    void constructorFromFunctionSwapsBounds() {
+        UniformTabulatedFunction f = new UniformTabulatedFunction(new SqrFunction(), 2.0, 0.0, 3);
+        assertEquals(0.0, f.leftBound());
+        assertEquals(2.0, f.rightBound());
+        assertEquals(1.0, f.getStep());
+        assertEquals(4.0, f.getY(2));
+    }
+
+    @Test
+    void constructorFromFunctionThrowsWhenCountLessThan2() {
+        assertThrows(IllegalArgumentException.class, () -> new UniformTabulatedFunction(new SqrFunction(), 0.0, 1.0, 1));
+    }
+
+    @Test
+    void constructorFromArrays() {
+        UniformTabulatedFunction f = new UniformTabulatedFunction(
+                new double[]{1.0, 1.5, 2.0, 2.5}, new double[]{1.0, 2.25, 4.0, 6.25});
+        assertEquals(4, f.getCount());
+        assertEquals(0.5, f.getStep());
+        assertEquals(2.5, f.getX(3));
+        assertEquals(6.25, f.getY(3));
+    }
+
+    @Test
+    void constructorFromArraysRejectsNonUniformGrid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new UniformTabulatedFunction(new double[]{0.0, 1.0, 3.0}, new double[]{0.0, 1.0, 9.0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new UniformTabulatedFunction(new double[]{0.0}, new double[]{0.0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new UniformTabulatedFunction(new double[]{0.0, 1.0}, new double[]{0.0}));
+    }
+
+    @Test
+    void accumulatedStepGridIsNotApproximated() {
+        double[] xValues = new double[50];
+        double[] yValues = new double[50];
+        double x = 0.0;
+        for (int i = 0; i < xValues.length; i++) {
+            xValues[i] = x;
+            yValues[i] = x * x;
+            x += 0.1;
+        }
+        assertFalse(UniformTabulatedFunction.isUniform(xValues));
+        assertThrows(IllegalArgumentException.class, () -> new UniformTabulatedFunction(xValues, yValues));
+
+        UniformTabulatedFunctionFactory factory = new UniformTabulatedFunctionFactory();
+        TabulatedFunction f = factory.create(xValues, yValues);
+        assertInstanceOf(ArrayTabulatedFunction.class, f);
+        for (int i = 0; i < xValues.length; i++) {
+            assertEquals(xValues[i], f.getX(i));
+        }
+
+        TabulatedFunction sum = new TabulatedFunctionOperationService(factory)
+                .add(f, new ArrayTabulatedFunction(xValues, yValues));
+        assertEquals(2 * yValues[49], sum.getY(49));
+    }
+
+    @Test
+    void getXWithInvalidIndex() {
+        UniformTabulatedFunction f = new UniformTabulatedFunction(new SqrFunction(), 0.0, 1.0, 2);
+        assertThrows(IllegalArgumentException.class, () -> f.getX(-1));
+        assertThrows(IllegalArgumentException.class, () -> f.getY(2));
+        assertThrows(IllegalArgumentException.class, () -> f.setY(2, 1.0));
+    }
+
+    @Test
+    void setY() {
+        UniformTabulatedFunction f = new UniformTabulatedFunction(new SqrFunction(), 0.0, 2.0, 3);
+        f.setY(1, 10.0);
+        assertEquals(10.0, f.getY(1));
+        assertEquals(1, f.indexOfY(10.0));
+        assertEquals(-1, f.indexOfY(11.0));
+    }
+
+    @Test
+    void indexOfXAndFloorIndexOfX() {
+        UniformTabulatedFunction f = new UniformTabulatedFunction(new SqrFunction(), -3.0, 7.0, 1001);
+        for (int i = 0; i < f.getCount(); i++) {
+            double x = f.getX(i);
+            assertEquals(i, f.indexOfX(x));
+            assertEquals(i, f.floorIndexOfX(x));
+            if (i < f.getCount() - 1) {
+                assertEquals(i, f.floorIndexOfX((x + f.getX(i + 1)) / 2));
+            }
+        }
+        assertEquals(-1, f.indexOfX(-2.9995));
+        assertEquals(-1, f.indexOfX(8.0));
+        assertEquals(-1, f.indexOfX(Double.NaN));
+        assertEquals(f.getCount(), f.floorIndexOfX(7.5));
+        assertThrows(IllegalArgumentException.class, () -> f.floorIndexOfX(-4.0));
+    }
+
+    @Test
+    void degenerateGridWithZeroStep() {
+        UniformTabulatedFunction f = new UniformTabulatedFunction(new SqrFunction(), 5.0, 5.0, 4);
+        assertEquals(0.0, f.getStep());
+        assertEquals(0, f.indexOfX(5.0));
+        assertEquals(3, f.floorIndexOfX(5.0));
+        assertEquals(25.0, f.apply(5.0));
+    }
+
+    @Test
+    void applyInterpolatesAndExtrapolates() {
+        UniformTabulatedFunction f = new UniformTabulatedFunction(new double[]{1.0, 2.0, 3.0}, new double[]{1.0, 4.0, 9.0});
+        assertEquals(2.5, f.apply(1.5), 1e-10);
+        assertEquals(4.0, f.apply(2.0), 1e-10);
+        assertEquals(-2.0, f.apply(0.0), 1e-10);
+        assertEquals(14.0, f.apply(4.0), 1e-10);
+        assertThrows(InterpolationException.class, () -> f.interpolate(2.5, 0));
+    }
+
+    @Test
+    void iterator() {
+        UniformTabulatedFunction f = new UniformTabulatedFunction(new SqrFunction(), 0.0, 3.0, 4);
+        Iterator<Point> it = f.iterator();
+        int i = 0;
+        while (it.hasNext()) {
+            Point point = it.next();
+            assertEquals(i, point.x);
+            assertEquals(i * i, point.y);
+            i++;
+        }
+        assertEquals(4, i);
+        assertThrows(java.util.NoSuchElementException.class, it::next);
+    }
+
+    @Test
+    void dropInForOperationServiceAndDifferentialOperator() {
+        UniformTabulatedFunctionFactory factory = new UniformTabulatedFunctionFactory();
+        TabulatedFunction sqr = new UniformTabulatedFunction(new SqrFunction(), 0.0, 1.0, 11);
+        TabulatedFunction array = new ArrayTabulatedFunction(new UnitFunction(), 0.0, 1.0, 11);
+
+        TabulatedFunction sum = new TabulatedFunctionOperationService(factory).add(sqr, array);
+        assertInstanceOf(UniformTabulatedFunction.class, sum);
+        assertEquals(1.25, sum.getY(5), 1e-12);
+
+        TabulatedFunction derivative = new TabulatedDifferentialOperator(factory).derive(sqr);
+        assertInstanceOf(UniformTabulatedFunction.class, derivative);
+        assertEquals(1.0, derivative.getY(5), 1e-12);
+    }
+}
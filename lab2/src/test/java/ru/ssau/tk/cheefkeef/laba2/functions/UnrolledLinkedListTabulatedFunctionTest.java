@@ -0,0 +1,230 @@
+package ru.ssau.tk.cheefkeef.laba2.functions;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.UnrolledLinkedListTabulatedFunctionFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunctionAssertions.assertSameTable;
+
+class UnrolledLinkedListTabulatedFunctionTest {
+
+    @Test
+    void constructorsMatchLinkedList() {
+        LinkedListTabulatedFunction list = new LinkedListTabulatedFunction(new SqrFunction(), 3.0, -3.0, 1001);
+        UnrolledLinkedListTabulatedFunction f = new UnrolledLinkedListTabulatedFunction(new SqrFunction(), 3.0, -3.0, 1001);
+        assertSameTable(list, f);
+        Random random = new Random(8);
+        for (int i = 0; i < 300; i++) {
+            double x = -4.0 + 8.0 * random.nextDouble();
+            assertEquals(list.apply(x), f.apply(x), 1e-12);
+        }
+        assertEquals(list.indexOfX(list.getX(640)), f.indexOfX(list.getX(640)));
+        assertEquals(-1, f.indexOfX(0.0001));
+        assertEquals(list.indexOfY(9.0), f.indexOfY(9.0));
+    }
+
+    @Test
+    void constructorValidatesLikeLinkedList() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new UnrolledLinkedListTabulatedFunction(new double[]{1.0, 2.0}, new double[]{1.0}));
+        assertEquals("Arrays must have the same length", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new UnrolledLinkedListTabulatedFunction(new double[]{1.0}, new double[]{1.0}));
+        assertThrows(IllegalArgumentException.class, () -> new UnrolledLinkedListTabulatedFunction(new SqrFunction(), 0.0, 1.0, 1));
+    }
+
+    @Test
+    void insertAndRemoveMatchLinkedList() {
+        LinkedListTabulatedFunction model = new LinkedListTabulatedFunction(new double[]{0.0, 500.0}, new double[]{0.0, 1.0});
+        UnrolledLinkedListTabulatedFunction f = new UnrolledLinkedListTabulatedFunction(model);
+        Random random = new Random(31);
+        for (int step = 0; step < 10_000; step++) {
+            int operation = random.nextInt(10);
+            if (operation < 6 || model.getCount() < 3) {
+                double x = random.nextInt(10_000) * 0.05;
+                double y = random.nextGaussian();
+                model.insert(x, y);
+                f.insert(x, y);
+            } else if (operation < 9) {
+                int index = random.nextInt(model.getCount());
+                model.remove(index);
+                f.remove(index);
+            } else {
+                int index = random.nextInt(model.getCount());
+                double y = random.nextGaussian();
+                model.setY(index, y);
+                f.setY(index, y);
+            }
+            if (step % 500 == 0) {
+                assertSameTable(model, f);
+            }
+        }
+        assertSameTable(model, f);
+        for (int i = 0; i < 200; i++) {
+            double x = -10.0 + 520.0 * random.nextDouble();
+            assertEquals(model.apply(x), f.apply(x), 1e-9);
+        }
+    }
+
+    @Test
+    void removeKeepsLinkedListExceptions() {
+        UnrolledLinkedListTabulatedFunction f = new UnrolledLinkedListTabulatedFunction(new double[]{1.0, 2.0, 3.0}, new double[]{1.0, 2.0, 3.0});
+        assertThrows(IndexOutOfBoundsException.class, () -> f.remove(3));
+        f.remove(0);
+        assertThrows(IllegalStateException.class, () -> f.remove(0));
+        assertEquals(2.0, f.leftBound());
+        assertEquals(0.0, f.apply(0.0), 1e-12);
+        assertEquals(5.0, f.apply(5.0), 1e-12);
+    }
+
+    @Test
+    void extrapolationAcrossSingletonEdgeBlocks() {
+        UnrolledLinkedListTabulatedFunction f = new UnrolledLinkedListTabulatedFunction(new IdentityFunction(), 0.0, 64.0, 65);
+        // Хвостовой блок из одной точки: соседняя точка берётся из предыдущего блока
+        assertEquals(70.0, f.apply(70.0), 1e-12);
+        f.insert(-0.5, -0.5);
+        assertEquals(-3.0, f.apply(-3.0), 1e-12);
+    }
+
+    // Хвостовой блок из одной точки не сливается с полным соседом, а потом в него сливается опустевший средний блок
+    @Test
+    void singletonTailBlockThenMerge() {
+        LinkedListTabulatedFunction model = new LinkedListTabulatedFunction(new IdentityFunction(), 0.0, 129.0, 130);
+        UnrolledLinkedListTabulatedFunction f = new UnrolledLinkedListTabulatedFunction(model);
+        assertArrayEquals(new int[]{64, 64, 2}, f.blockSizes());
+
+        model.remove(129);
+        f.remove(129);
+        assertArrayEquals(new int[]{64, 64, 1}, f.blockSizes());
+        assertSameTable(model, f);
+        assertEquals(128, f.indexOfX(128.0));
+        assertEquals(127.5, f.apply(127.5), 1e-12);
+        assertEquals(200.0, f.apply(200.0), 1e-12);
+
+        for (int i = 0; i < 49; i++) {
+            model.remove(64);
+            f.remove(64);
+        }
+        assertArrayEquals(new int[]{64, 16}, f.blockSizes());
+        assertSameTable(model, f);
+        assertEquals(128.0, f.rightBound());
+        assertEquals(model.apply(200.0), f.apply(200.0), 1e-12);
+        assertEquals(model.apply(120.0), f.apply(120.0), 1e-12);
+    }
+
+    // Головной блок из одной точки: доступ, экстраполяция и вставка идут через соседний блок, пустой блок исчезает
+    @Test
+    void singletonHeadBlockThenMerge() {
+        LinkedListTabulatedFunction model = new LinkedListTabulatedFunction(new IdentityFunction(), 0.0, 129.0, 130);
+        UnrolledLinkedListTabulatedFunction f = new UnrolledLinkedListTabulatedFunction(model);
+        for (int i = 0; i < 63; i++) {
+            model.remove(0);
+            f.remove(0);
+        }
+        assertArrayEquals(new int[]{1, 64, 2}, f.blockSizes());
+        assertSameTable(model, f);
+        assertEquals(63.0, f.leftBound());
+        assertEquals(0, f.indexOfX(63.0));
+        assertEquals(1, f.indexOfX(64.0));
+        assertEquals(63.5, f.apply(63.5), 1e-12);
+        assertEquals(-10.0, f.apply(-10.0), 1e-12);
+
+        model.insert(62.5, 62.5);
+        f.insert(62.5, 62.5);
+        assertArrayEquals(new int[]{2, 64, 2}, f.blockSizes());
+        assertSameTable(model, f);
+
+        for (int i = 0; i < 2; i++) {
+            model.remove(0);
+            f.remove(0);
+        }
+        assertArrayEquals(new int[]{64, 2}, f.blockSizes());
+        assertSameTable(model, f);
+
+        for (int i = 0; i < 49; i++) {
+            model.remove(0);
+            f.remove(0);
+        }
+        assertArrayEquals(new int[]{17}, f.blockSizes());
+        assertSameTable(model, f);
+        assertEquals(model.apply(-1.0), f.apply(-1.0), 1e-12);
+        assertEquals(model.apply(200.0), f.apply(200.0), 1e-12);
+    }
+
+    @Test
+    void iteratorAndRangeOperationsCrossBlocks() {
+        UnrolledLinkedListTabulatedFunction f = new UnrolledLinkedListTabulatedFunction(new IdentityFunction(), 0.0, 299.0, 300);
+        f.transformY(50, 250, y -> -y);
+        double[] ys = new double[300];
+        f.copyYInto(ys, 0);
+        for (int i = 0; i < 300; i++) {
+            assertEquals(i >= 50 && i < 250 ? -i : i, ys[i], 0.0);
+        }
+        Iterator<Point> iterator = f.iterator();
+        int i = 0;
+        while (iterator.hasNext()) {
+            assertEquals(i, iterator.next().x, 0.0);
+            i++;
+        }
+        assertEquals(300, i);
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void serializationRoundTrip() throws IOException, ClassNotFoundException {
+        UnrolledLinkedListTabulatedFunction f = new UnrolledLinkedListTabulatedFunction(new SqrFunction(), 0.0, 10.0, 1000);
+        f.insert(3.33333, 1.0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(f);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            UnrolledLinkedListTabulatedFunction restored = (UnrolledLinkedListTabulatedFunction) in.readObject();
+            assertSameTable(f, restored);
+            restored.insert(11.0, 121.0);
+            assertEquals(1002, restored.getCount());
+        }
+    }
+
+    @Test
+    void factoryCreatesUnrolledFunction() {
+        TabulatedFunction f = new UnrolledLinkedListTabulatedFunctionFactory().create(new double[]{1.0, 2.0}, new double[]{3.0, 4.0});
+        assertInstanceOf(UnrolledLinkedListTabulatedFunction.class, f);
+    }
+
+    // Параллельные читатели делят последний найденный блок; каждый должен получать x своего индекса
+    @Test
+    void concurrentReadersShareLastBlock() throws InterruptedException {
+        UnrolledLinkedListTabulatedFunction f = new UnrolledLinkedListTabulatedFunction(new IdentityFunction(), 0.0, 1999.0, 2000);
+        AtomicInteger wrong = new AtomicInteger();
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            int offset = t * 125;
+            int step = 1 + t % 5;
+            readers.add(Thread.ofPlatform().start(() -> {
+                for (int round = 0; round < 50; round++) {
+                    for (int i = offset; i < f.getCount(); i += step) {
+                        if (f.getX(i) != i) {
+                            wrong.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertEquals(0, wrong.get());
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import ru.ssau.tk.cheefkeef.laba2.functions.ArrayTabulatedFunction;
 import ru.ssau.tk.cheefkeef.laba2.functions.LinkedListTabulatedFunction;
 import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.UniformTabulatedFunction;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -145,4 +146,22 @@ class TabulatedFunctionFactoryTest {
         function1.setY(0, 100.0);
         assertEquals(1.0, function2.getY(0)); // Вторая функция не изменилась
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUniformTabulatedFunctionFactory() {
+        TabulatedFunctionFactory factory = new UniformTabulatedFunctionFactory();
+        double[] xValues = {0.0, 0.25, 0.5, 0.75, 1.0};
+        double[] yValues = {0.0, 1.0, 2.0, 3.0, 4.0};
+
+        TabulatedFunction function = factory.create(xValues, yValues);
+
+        assertTrue(function instanceof UniformTabulatedFunction);
+        assertEquals(5, function.getCount());
+        assertEquals(0.75, function.getX(3));
+        assertEquals(3.0, function.getY(3));
+
+        TabulatedFunction nonUniform = factory.create(new double[]{0.0, 1.0, 1.5}, new double[]{0.0, 1.0, 2.0});
+        assertInstanceOf(ArrayTabulatedFunction.class, nonUniform);
+        assertEquals(1.5, nonUniform.getX(2));
+    }
+}
@@ -0,0 +1,131 @@
+package ru.ssau.tk.cheefkeef.laba2.functions.kernels;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TabulatedKernelsTest {
+
+    private final ScalarTabulatedKernels scalar = new ScalarTabulatedKernels();
+
+    private List<TabulatedKernels> vectorKernels() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                "jdk.incubator.vector is not available");
+        List<TabulatedKernels> kernels = new ArrayList<>();
+        for (int bits : new int[]{128, 256, 512}) {
+            kernels.add(new VectorTabulatedKernels(bits));
+        }
+        kernels.add(new VectorTabulatedKernels());
+        return kernels;
+    }
+
+    private static double[] sortedValues(int n, Random random) {
+        double[] values = new double[n];
+        for (int i = 1; i < n; i++) {
+            values[i] = values[i - 1] + random.nextInt(3);
+        }
+        return values;
+    }
+
+    @Test
+    void scalarKernels() {
+        double[] values = {3.0, -1.0, 7.5, -0.0, 2.0};
+        assertFalse(scalar.isSorted(values, 0, values.length));
+        assertTrue(scalar.isSorted(values, 3, 5));
+        assertEquals(3, scalar.indexOf(values, 0, values.length, 0.0));
+        assertEquals(-1, scalar.indexOf(values, 0, 3, 2.0));
+        assertEquals(-1.0, scalar.min(values, 0, values.length));
+        assertEquals(7.5, scalar.max(values, 0, values.length));
+        assertTrue(scalar.anyAbsBelow(values, values.length, 1e-12));
+        assertFalse(scalar.anyAbsBelow(values, 3, 1e-12));
+
+        double[] out = new double[2];
+        scalar.interpolate(new double[]{0.5, 2.5}, 0, new int[]{0, 2},
+                new double[]{0.0, 1.0, 2.0, 3.0}, new double[]{0.0, 2.0, 4.0, 8.0}, out, 0, 2);
+        assertArrayEquals(new double[]{1.0, 6.0}, out);
+    }
+
+    @Test
+    void vectorKernelsMatchScalar() {
+        Random random = new Random(3);
+        for (TabulatedKernels kernels : vectorKernels()) {
+            for (int n : new int[]{1, 2, 3, 7, 8, 9, 31, 64, 1000}) {
+                double[] sorted = sortedValues(n, random);
+                assertTrue(kernels.isSorted(sorted, 0, n));
+                if (n > 1) {
+                    int broken = random.nextInt(n - 1);
+                    sorted[broken] = sorted[broken + 1] + 1.0;
+                    assertEquals(scalar.isSorted(sorted, 0, n), kernels.isSorted(sorted, 0, n));
+                    assertFalse(kernels.isSorted(sorted, 0, n));
+                }
+
+                double[] a = new double[n];
+                double[] b = new double[n];
+                for (int i = 0; i < n; i++) {
+                    a[i] = random.nextGaussian();
+                    b[i] = random.nextGaussian() + 5.0;
+                }
+                assertEquals(scalar.min(a, 0, n), kernels.min(a, 0, n));
+                assertEquals(scalar.max(a, 0, n), kernels.max(a, 0, n));
+                double target = a[random.nextInt(n)];
+                assertEquals(scalar.indexOf(a, 0, n, target), kernels.indexOf(a, 0, n, target));
+                assertEquals(-1, kernels.indexOf(a, 0, n, 100.0));
+                assertFalse(kernels.anyAbsBelow(b, n, 1e-12));
+                b[n - 1] = -0.0;
+                assertTrue(kernels.anyAbsBelow(b, n, 1e-12));
+                b[n - 1] = 3.0;
+
+                double[] expected = new double[n];
+                double[] actual = new double[n];
+                scalar.add(a, b, expected, n);
+                kernels.add(a, b, actual, n);
+                assertArrayEquals(expected, actual, 0.0);
+                scalar.subtract(a, b, expected, n);
+                kernels.subtract(a, b, actual, n);
+                assertArrayEquals(expected, actual, 0.0);
+                scalar.multiply(a, b, expected, n);
+                kernels.multiply(a, b, actual, n);
+                assertArrayEquals(expected, actual, 0.0);
+                scalar.divide(a, b, expected, n);
+                kernels.divide(a, b, actual, n);
+                assertArrayEquals(expected, actual, 0.0);
+            }
+        }
+    }
+
+    @Test
+    void vectorInterpolationMatchesScalar() {
+        Random random = new Random(5);
+        double[] xValues = new double[100];
+        double[] yValues = new double[100];
+        for (int i = 0; i < xValues.length; i++) {
+            xValues[i] = i + random.nextDouble() * 0.5;
+            yValues[i] = random.nextGaussian();
+        }
+        int n = 77;
+        int[] floors = new int[n];
+        double[] xs = new double[n + 3];
+        for (int i = 0; i < n; i++) {
+            floors[i] = random.nextInt(xValues.length - 1);
+            xs[i + 3] = xValues[floors[i]] + random.nextDouble() * (xValues[floors[i] + 1] - xValues[floors[i]]);
+        }
+        double[] expected = new double[n + 1];
+        scalar.interpolate(xs, 3, floors, xValues, yValues, expected, 1, n);
+        for (TabulatedKernels kernels : vectorKernels()) {
+            double[] actual = new double[n + 1];
+            kernels.interpolate(xs, 3, floors, xValues, yValues, actual, 1, n);
+            assertArrayEquals(expected, actual, 0.0);
+        }
+    }
+
+    @Test
+    void kernelsAreSelectedOnce() {
+        assertNotNull(Kernels.get());
+        assertSame(Kernels.get(), Kernels.get());
+    }
+}
@@ -0,0 +1,109 @@
+package ru.ssau.tk.cheefkeef.laba2.instrumentation;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.tk.cheefkeef.laba2.functions.ArrayTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.LinkedListTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.SqrFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentationTest {
+
+    @Test
+    void statsAreSharedPerClass() {
+        OperationStats stats = Instrumentation.statsFor(ArrayTabulatedFunction.class);
+        assertSame(stats, Instrumentation.statsFor(ArrayTabulatedFunction.class));
+        assertEquals(ArrayTabulatedFunction.class.getName(), stats.getName());
+        assertSame(stats, Instrumentation.allStats().get(ArrayTabulatedFunction.class.getName()));
+    }
+
+    // Счётчики растут только при -Dlaba2.instrumentation=true, по умолчанию остаются нулевыми
+    @Test
+    void countersFollowSwitch() {
+        OperationStats stats = Instrumentation.statsFor(LinkedListTabulatedFunction.class);
+        stats.reset();
+        TabulatedFunction f = new LinkedListTabulatedFunction(new double[]{0, 1, 2}, new double[]{0, 1, 4});
+        f.apply(0.5);
+        f.apply(1.0);
+        f.getX(2);
+
+        long expected = Instrumentation.ENABLED ? 1 : 0;
+        assertEquals(expected, stats.getCount(Operation.INTERPOLATE));
+        assertEquals(2 * expected, stats.getCount(Operation.INDEX_OF_X));
+        assertTrue(stats.getCount(Operation.GET_X) >= expected);
+        assertEquals(0, stats.getCount(Operation.REMOVE));
+        if (!Instrumentation.TIMING) {
+            assertEquals(0, stats.getTotalNanos(Operation.INDEX_OF_X));
+        }
+
+        stats.reset();
+        assertEquals(0, stats.getCount(Operation.INDEX_OF_X));
+    }
+
+    @Test
+    void recordCountsWithoutTiming() {
+        OperationStats stats = new OperationStats("test");
+        long start = stats.start();
+        stats.record(Operation.INSERT, start);
+        stats.increment(Operation.INSERT);
+        assertEquals(Instrumentation.ENABLED ? 2 : 0, stats.getCount(Operation.INSERT));
+        assertTrue(stats.toString().startsWith("test {"));
+    }
+
+    @Test
+    void applyDoesNotAllocate() {
+        assertNoAllocation(new ArrayTabulatedFunction(new SqrFunction(), 0, 10, 1001));
+        assertNoAllocation(new LinkedListTabulatedFunction(new SqrFunction(), 0, 10, 1001));
+    }
+
+    // Последовательный обход связного списка идёт от запомненного узла и не создаёт новых объектов
+    @Test
+    void sequentialAccessDoesNotAllocate() {
+        TabulatedFunction f = new LinkedListTabulatedFunction(new SqrFunction(), 0, 10, 1001);
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        double sink = 0;
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int pass = 0; pass < 10; pass++) {
+                for (int i = 0; i < f.getCount(); i++) {
+                    sink += f.getX(i) + f.getY(i);
+                }
+            }
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(thread) - before);
+        }
+        assertFalse(Double.isNaN(sink));
+        assertTrue(allocated < 1024, "sequential getX/getY allocated " + allocated + " bytes");
+    }
+
+    private static void assertNoAllocation(TabulatedFunction f) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        double sink = 0;
+        long allocated = Long.MAX_VALUE;
+        // Первые проходы выделяют память на загрузку классов и компиляцию, берём лучший из нескольких
+        for (int round = 0; round < 5; round++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            sink += sweep(f);
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(thread) - before);
+        }
+        assertFalse(Double.isNaN(sink));
+        // 10 000 вызовов apply; небольшой запас на служебные выделения самого MXBean
+        assertTrue(allocated < 1024, f.getClass().getSimpleName() + " allocated " + allocated + " bytes");
+    }
+
+    // Внутри сетки, в узлах и за её пределами
+    private static double sweep(TabulatedFunction f) {
+        double sum = 0;
+        for (int i = 0; i < 10_000; i++) {
+            sum += f.apply(-1.0 + i * 0.0012345);
+        }
+        return sum;
+    }
+}
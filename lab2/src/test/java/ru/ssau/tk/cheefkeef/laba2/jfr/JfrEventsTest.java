@@ -0,0 +1,171 @@
+package ru.ssau.tk.cheefkeef.laba2.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.ssau.tk.cheefkeef.laba2.concurrent.SynchronizedTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.ArrayTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.BPlusTreeTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.LinkedListTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.MappedTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.OffHeapTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.PersistentTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.SqrFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.UniformTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.UnrolledLinkedListTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.ArrayTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.io.FunctionsIO;
+import ru.ssau.tk.cheefkeef.laba2.operations.TabulatedDifferentialOperator;
+import ru.ssau.tk.cheefkeef.laba2.operations.TabulatedFunctionOperationService;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEventsTest {
+
+    private static List<RecordedEvent> record(Path dir, Runnable action) throws Exception {
+        Path file = dir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            for (Class<? extends Event> type : List.of(TableConstructionEvent.class, TabulatedOperationEvent.class,
+                    DeriveEvent.class, FunctionsIOEvent.class, LockWaitEvent.class)) {
+                recording.enable(type).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+
+    @Test
+    void constructionOperationAndDeriveEvents(@TempDir Path dir) throws Exception {
+        List<RecordedEvent> events = record(dir, () -> {
+            TabulatedFunction a = new ArrayTabulatedFunction(new SqrFunction(), 0, 1, 50);
+            TabulatedFunction b = new LinkedListTabulatedFunction(new double[]{0, 1}, new double[]{2, 3});
+            new TabulatedFunctionOperationService().add(a, a);
+            new TabulatedDifferentialOperator().derive(b);
+        });
+
+        List<RecordedEvent> constructions = ofType(events, "ru.ssau.tk.cheefkeef.laba2.TableConstruction");
+        assertTrue(constructions.stream().anyMatch(e -> e.getString("implementation").equals("ArrayTabulatedFunction")
+                && e.getInt("size") == 50 && e.getString("source").equals("SqrFunction")));
+        assertTrue(constructions.stream().anyMatch(e -> e.getString("implementation").equals("LinkedListTabulatedFunction")
+                && e.getString("source").equals("arrays")));
+
+        RecordedEvent operation = ofType(events, "ru.ssau.tk.cheefkeef.laba2.TabulatedOperation").get(0);
+        assertEquals("add", operation.getString("operation"));
+        assertEquals(50, operation.getInt("size"));
+        assertEquals("ArrayTabulatedFunction", operation.getString("leftImplementation"));
+
+        RecordedEvent derive = ofType(events, "ru.ssau.tk.cheefkeef.laba2.Derive").get(0);
+        assertEquals("LinkedListTabulatedFunction", derive.getString("implementation"));
+        assertEquals(2, derive.getInt("size"));
+    }
+
+    @Test
+    void everyTableImplementationRecordsConstruction(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("function.bin");
+        try (BufferedOutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            FunctionsIO.writeTabulatedFunction(out, new ArrayTabulatedFunction(new SqrFunction(), 0, 1, 7));
+        }
+        double[] xValues = {0, 1, 2, 3};
+        double[] yValues = {0, 1, 4, 9};
+        List<RecordedEvent> events = record(dir, () -> {
+            new UniformTabulatedFunction(new SqrFunction(), 0, 1, 5);
+            new BPlusTreeTabulatedFunction(xValues, yValues);
+            new PersistentTabulatedFunction(xValues, yValues);
+            new UnrolledLinkedListTabulatedFunction(xValues, yValues);
+            try (OffHeapTabulatedFunction offHeap = new OffHeapTabulatedFunction(xValues, yValues);
+                 MappedTabulatedFunction mapped = new MappedTabulatedFunction(file)) {
+                assertEquals(offHeap.getCount() + 3, mapped.getCount());
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        });
+
+        List<RecordedEvent> constructions = ofType(events, "ru.ssau.tk.cheefkeef.laba2.TableConstruction");
+        assertTrue(constructions.stream().anyMatch(e -> e.getString("implementation").equals("UniformTabulatedFunction")
+                && e.getInt("size") == 5 && e.getString("source").equals("SqrFunction")));
+        for (String implementation : List.of("BPlusTreeTabulatedFunction", "PersistentTabulatedFunction",
+                "UnrolledLinkedListTabulatedFunction", "OffHeapTabulatedFunction")) {
+            assertTrue(constructions.stream().anyMatch(e -> e.getString("implementation").equals(implementation)
+                    && e.getInt("size") == 4 && e.getString("source").equals("arrays")), implementation);
+        }
+        assertTrue(constructions.stream().anyMatch(e -> e.getString("implementation").equals("MappedTabulatedFunction")
+                && e.getInt("size") == 7 && e.getString("source").equals("file")));
+    }
+
+    @Test
+    void functionsIOEventsCarryBytesAndPoints(@TempDir Path dir) throws Exception {
+        TabulatedFunction function = new ArrayTabulatedFunction(new SqrFunction(), 0, 1, 10);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        List<RecordedEvent> events = record(dir, () -> {
+            try {
+                BufferedOutputStream out = new BufferedOutputStream(bytes);
+                FunctionsIO.writeTabulatedFunction(out, function);
+                FunctionsIO.readTabulatedFunction(new BufferedInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+                        new ArrayTabulatedFunctionFactory());
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        });
+
+        List<RecordedEvent> io = ofType(events, "ru.ssau.tk.cheefkeef.laba2.FunctionsIO");
+        assertEquals(2, io.size());
+        for (RecordedEvent event : io) {
+            assertEquals("binary", event.getString("format"));
+            assertEquals(10, event.getInt("points"));
+            assertEquals(bytes.size(), event.getLong("bytes"));
+        }
+        assertEquals("write", io.get(0).getString("direction"));
+        assertEquals("read", io.get(1).getString("direction"));
+    }
+
+    @Test
+    void lockWaitIsRecordedUnderContention(@TempDir Path dir) throws Exception {
+        SynchronizedTabulatedFunction function = new SynchronizedTabulatedFunction(
+                new ArrayTabulatedFunction(new double[]{0, 1}, new double[]{0, 1}));
+        List<RecordedEvent> events = record(dir, () -> {
+            CountDownLatch locked = new CountDownLatch(1);
+            Thread holder = new Thread(() -> function.doSynchronously(f -> {
+                locked.countDown();
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+            holder.start();
+            try {
+                locked.await();
+                function.getX(0);
+                holder.join();
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        });
+
+        assertTrue(ofType(events, "ru.ssau.tk.cheefkeef.laba2.LockWait").stream()
+                .anyMatch(e -> e.getString("operation").equals("getX") && e.getDuration().toMillis() >= 50));
+    }
+}
@@ -0,0 +1,84 @@
+package ru.ssau.tk.cheefkeef.laba2.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggingProfileTest {
+
+    @Test
+    void productionProfileWritesInfoAndRateSummary(@TempDir Path dir) throws Exception {
+        LoggerContext context = newContext();
+        context.putProperty("laba2.log.dir", dir.toString());
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(getClass().getClassLoader().getResource("logback-production.xml"));
+
+        Logger logger = context.getLogger("ru.ssau.tk.cheefkeef.laba2.functions.SomeFunction");
+        for (int i = 0; i < 5; i++) {
+            logger.debug("debug {}", i);
+        }
+        logger.info("visible info");
+        context.getLogger("other.Library").info("not counted");
+
+        EventRateTurboFilter filter = (EventRateTurboFilter) context.getTurboFilterList().get(0);
+        filter.report();
+        context.stop();
+
+        String log = Files.readString(dir.resolve("application.log"));
+        assertTrue(log.contains("visible info"));
+        assertFalse(log.contains("debug 0"));
+        assertFalse(log.contains("not counted"));
+        // Отключённые DEBUG тоже попадают в частоту
+        assertTrue(log.contains("SomeFunction=6"), log);
+        assertTrue(log.contains("dropped by async queues: 0"), log);
+    }
+
+    @Test
+    void discardLevelControlsWhatIsDropped() {
+        LoggerContext context = newContext();
+        ListAppender<ILoggingEvent> target = new ListAppender<>();
+        target.setContext(context);
+        target.start();
+
+        DroppingAsyncAppender async = new DroppingAsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(4);
+        // Порог больше ёмкости: отбрасываемые события не попадают в очередь никогда
+        async.setDiscardingThreshold(5);
+        async.setDiscardLevel("WARN");
+        async.addAppender(target);
+        async.start();
+
+        Logger logger = context.getLogger("test");
+        logger.addAppender(async);
+        logger.setLevel(Level.DEBUG);
+        logger.info("info");
+        logger.warn("warn");
+        logger.error("error");
+        async.stop();
+
+        assertEquals("WARN", async.getDiscardLevel());
+        assertEquals(2, async.getDroppedCount());
+        assertEquals(1, target.list.size());
+        assertEquals(Level.ERROR, target.list.get(0).getLevel());
+    }
+
+    // Отдельный контекст, чтобы не трогать конфигурацию, с которой идут остальные тесты
+    private static LoggerContext newContext() {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        return context;
+    }
+}
@@ -0,0 +1,63 @@
+package ru.ssau.tk.cheefkeef.laba2.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramTest {
+
+    @Test
+    void bucketsCoverValuesContinuously() {
+        long previousUpper = -1;
+        for (int i = 0; i < 200; i++) {
+            long upper = Histogram.bucketUpperBound(i);
+            assertTrue(upper > previousUpper);
+            assertEquals(i, Histogram.bucketIndex(previousUpper + 1));
+            assertEquals(i, Histogram.bucketIndex(upper));
+            previousUpper = upper;
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.bucketUpperBound(Histogram.bucketIndex(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void percentilesWithinRelativeError() {
+        Histogram histogram = new Histogram();
+        for (int v = 1; v <= 10_000; v++) {
+            histogram.record(v);
+        }
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(5000.5, histogram.getMean(), 1e-9);
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(5000, histogram.getP50(), 5000 * 0.125);
+        assertEquals(9900, histogram.getP99(), 9900 * 0.125);
+        assertTrue(histogram.getP99() >= 9900);
+        assertEquals(10_000, histogram.percentile(1.0));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getP50());
+    }
+
+    @Test
+    void concurrentRecordsAreNotLost() throws InterruptedException {
+        Histogram histogram = new Histogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(i % 1000);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(200_000, histogram.getCount());
+        assertEquals(999, histogram.getMax());
+    }
+}
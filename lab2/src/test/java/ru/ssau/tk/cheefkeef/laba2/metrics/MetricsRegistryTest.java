@@ -0,0 +1,53 @@
+package ru.ssau.tk.cheefkeef.laba2.metrics;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.tk.cheefkeef.laba2.functions.ArrayTabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.SqrFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.TabulatedFunction;
+import ru.ssau.tk.cheefkeef.laba2.functions.factory.LinkedListTabulatedFunctionFactory;
+import ru.ssau.tk.cheefkeef.laba2.operations.TabulatedFunctionOperationService;
+
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @Test
+    void sameNameReturnsSameMetric() {
+        MetricsRegistry registry = new MetricsRegistry(null);
+        Counter counter = registry.counter("test.counter");
+        counter.add(3);
+        assertSame(counter, registry.counter("test.counter"));
+        assertEquals(3, registry.counter("test.counter").getCount());
+        assertThrows(IllegalArgumentException.class, () -> registry.timer("test.counter"));
+        assertEquals(1, registry.getMetrics().size());
+    }
+
+    @Test
+    void timerRecordsLatencyAndAllocation() {
+        Timer timer = new MetricsRegistry(null).timer("test.timer");
+        Timer.Sample sample = timer.start();
+        double[] garbage = new double[100_000];
+        sample.stop();
+        assertEquals(1, timer.getCount());
+        assertTrue(timer.getMax() > 0);
+        assertTrue(timer.getAllocatedBytes() >= 8L * garbage.length);
+    }
+
+    // Метрики реестра по умолчанию читаются через платформенный MBeanServer, как из jconsole
+    @Test
+    void defaultRegistryIsPublishedOverJmx() throws Exception {
+        TabulatedFunction a = new LinkedListTabulatedFunctionFactory().create(new double[]{0, 1, 2}, new double[]{1, 2, 3});
+        TabulatedFunction b = new ArrayTabulatedFunction(new SqrFunction(), 0, 2, 3);
+        new TabulatedFunctionOperationService().add(a, b);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        long added = (Long) server.getAttribute(MetricsRegistry.objectName("Timer", "operations.add"), "Count");
+        assertTrue(added >= 1);
+        assertTrue((Long) server.getAttribute(MetricsRegistry.objectName("Timer", "operations.add"), "P99") > 0);
+        assertTrue((Long) server.getAttribute(MetricsRegistry.objectName("Histogram", "factory.linkedList.size"), "Max") >= 3);
+        assertTrue((Long) server.getAttribute(MetricsRegistry.objectName("Gauge", "jvm.allocatedBytes"), "Value") > 0);
+    }
+}